@@ -0,0 +1,15 @@
+package com.socialwebapp;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background maintenance jobs (feed_posts partitions, purges, flushes, relays). Not in the
+ * 'seed' profile: the loader must not purge or detach what it is loading, and must exit when done.
+ */
+@Configuration
+@Profile("!seed")
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,59 @@
+package com.socialwebapp.api.comments;
+
+import com.socialwebapp.api.comments.dto.CommentDto;
+import com.socialwebapp.api.comments.dto.CommentPageResponse;
+import com.socialwebapp.api.comments.dto.CreateCommentRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/feed/{postId}/comments")
+public class CommentController {
+
+    private final CommentService commentService;
+
+    public CommentController(CommentService commentService) {
+        this.commentService = commentService;
+    }
+
+    @GetMapping
+    public ResponseEntity<CommentPageResponse> list(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(commentService.list(postId, cursor, limit));
+    }
+
+    @PostMapping
+    public ResponseEntity<CommentDto> create(
+            @PathVariable String postId,
+            @RequestBody @Valid CreateCommentRequest request,
+            Authentication authentication
+    ) {
+        CommentDto created = commentService.create(postId, request, authentication.getName());
+
+        return ResponseEntity
+                .created(java.net.URI.create("/api/feed/" + created.postId() + "/comments/" + created.id()))
+                .body(created);
+    }
+
+    @DeleteMapping("/{commentId}")
+    public ResponseEntity<Void> delete(
+            @PathVariable String postId,
+            @PathVariable String commentId,
+            Authentication authentication
+    ) {
+        commentService.delete(postId, commentId, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.socialwebapp.api.comments;
+
+import com.socialwebapp.api.comments.data.CommentEntity;
+import com.socialwebapp.api.comments.dto.CommentDto;
+import com.socialwebapp.api.feed.dto.AuthorDto;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Comment count and latest comments for a page of posts, in at most two statements.
+ */
+@Component
+public class CommentPreviews {
+
+    public static final int LATEST = 2;
+
+    private static final String COLUMNS = "id, post_id, created_at, author_id, author_display_name, content";
+
+    private static final String LATEST_LATERAL = """
+            select c.id, c.post_id, c.created_at, c.author_id, c.author_display_name, c.content
+            from (values %s) p(post_id)
+            cross join lateral (
+                select * from feed_post_comments x
+                where x.post_id = p.post_id
+                order by x.created_at desc, x.id desc
+                limit %d
+            ) c
+            """;
+
+    private static final String LATEST_WINDOW = """
+            select %s from (
+                select c.*, row_number() over (partition by c.post_id order by c.created_at desc, c.id desc) as rn
+                from feed_post_comments c
+                where c.post_id in (%s)
+            ) ranked
+            where rn <= %d
+            """;
+
+    private static final Comparator<CommentEntity> NEWEST_FIRST = Comparator
+            .comparing(CommentEntity::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(CommentEntity::getId, Comparator.reverseOrder());
+
+    private final JdbcTemplate jdbc;
+    private volatile Boolean postgres;
+
+    public CommentPreviews(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Map<UUID, CommentPreview> previewsFor(Collection<UUID> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, Long> counts = new HashMap<>();
+        jdbc.query(
+                "select post_id, total from feed_post_comment_counts where post_id in (" + placeholders(postIds.size()) + ")",
+                rs -> {
+                    counts.put(rs.getObject(1, UUID.class), rs.getLong(2));
+                },
+                postIds.toArray());
+
+        List<UUID> commented = postIds.stream().filter(id -> counts.getOrDefault(id, 0L) > 0).toList();
+        Map<UUID, List<CommentDto>> latest = commented.isEmpty() ? Map.of() : latest(commented);
+
+        Map<UUID, CommentPreview> out = new HashMap<>();
+        for (UUID id : postIds) {
+            out.put(id, new CommentPreview(counts.getOrDefault(id, 0L), latest.getOrDefault(id, List.of())));
+        }
+        return out;
+    }
+
+    private Map<UUID, List<CommentDto>> latest(List<UUID> postIds) {
+        String sql = isPostgres()
+                ? LATEST_LATERAL.formatted(String.join(", ", Collections.nCopies(postIds.size(), "(cast(? as uuid))")), LATEST)
+                : LATEST_WINDOW.formatted(COLUMNS, placeholders(postIds.size()), LATEST);
+
+        List<CommentEntity> rows = jdbc.query(sql, (rs, n) -> new CommentEntity(
+                rs.getObject(1, UUID.class),
+                rs.getObject(2, UUID.class),
+                rs.getObject(3, OffsetDateTime.class),
+                rs.getObject(4, UUID.class),
+                rs.getString(5),
+                rs.getString(6)), postIds.toArray());
+
+        // Neither query promises row order across posts; restore newest first per post.
+        rows.sort(NEWEST_FIRST);
+        Map<UUID, List<CommentDto>> out = new HashMap<>();
+        for (CommentEntity c : rows) {
+            out.computeIfAbsent(c.getPostId(), k -> new ArrayList<>()).add(toDto(c));
+        }
+        return out;
+    }
+
+    static CommentDto toDto(CommentEntity c) {
+        return new CommentDto(
+                c.getId().toString(),
+                c.getPostId().toString(),
+                c.getCreatedAt().toString(),
+                new AuthorDto(
+                        c.getAuthorId().toString(),
+                        c.getAuthorDisplayName()
+                ),
+                c.getContent()
+        );
+    }
+
+    private boolean isPostgres() {
+        Boolean value = postgres;
+        if (value == null) {
+            value = Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) con ->
+                    "PostgreSQL".equals(con.getMetaData().getDatabaseProductName())));
+            postgres = value;
+        }
+        return value;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+
+    /**
+     * @param latest newest first, at most {@link #LATEST}
+     */
+    public record CommentPreview(long count, List<CommentDto> latest) {
+
+        public static final CommentPreview EMPTY = new CommentPreview(0, List.of());
+    }
+}
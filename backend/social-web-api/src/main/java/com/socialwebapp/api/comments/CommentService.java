@@ -0,0 +1,138 @@
+package com.socialwebapp.api.comments;
+
+import com.socialwebapp.api.comments.data.CommentCursor;
+import com.socialwebapp.api.comments.data.CommentEntity;
+import com.socialwebapp.api.comments.data.CommentRepository;
+import com.socialwebapp.api.comments.dto.CommentDto;
+import com.socialwebapp.api.comments.dto.CommentPageResponse;
+import com.socialwebapp.api.comments.dto.CreateCommentRequest;
+import com.socialwebapp.api.feed.data.FeedPostStore;
+import com.socialwebapp.auth.data.UserRepository;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Comments on live posts; feed_post_comment_counts moves in the same transaction as the comment.
+ */
+@Service
+public class CommentService {
+
+    static final int MAX_LIMIT = 50;
+
+    private final CommentRepository comments;
+    private final FeedPostStore store;
+    private final UserRepository userRepository;
+
+    public CommentService(CommentRepository comments, FeedPostStore store, UserRepository userRepository) {
+        this.comments = comments;
+        this.store = store;
+        this.userRepository = userRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public CommentPageResponse list(String postId, String cursor, int limit) {
+
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
+        }
+
+        CommentCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = CommentCursor.decode(cursor);
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+            }
+        }
+
+        UUID post = livePost(postId);
+
+        List<CommentEntity> rows = after == null
+                ? comments.findFirstPage(post, limit + 1)
+                : comments.findPageAfter(post, after.createdAt(), after.id(), limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        var page = hasMore ? rows.subList(0, limit) : rows;
+
+        var items = page.stream()
+                .map(CommentPreviews::toDto)
+                .toList();
+
+        String nextCursor = hasMore ? CommentCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return new CommentPageResponse(items, nextCursor);
+    }
+
+    @Transactional
+    public CommentDto create(String postId, CreateCommentRequest request, String currentUserEmail) {
+
+        if (request.content() == null || request.content().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content must not be blank");
+        }
+
+        UUID post = livePost(postId);
+
+        var user = userRepository.findByEmail(currentUserEmail)
+                .orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
+
+        var comment = new CommentEntity(
+                UUID.randomUUID(),
+                post,
+                OffsetDateTime.now(),
+                UUID.nameUUIDFromBytes(user.getId().toString().getBytes()),
+                user.getEmail(),
+                request.content().trim()
+        );
+
+        comments.save(comment);
+        comments.ensureCount(post);
+        comments.adjustCount(post, 1);
+
+        return CommentPreviews.toDto(comment);
+    }
+
+    @Transactional
+    public void delete(String postId, String commentId, String currentUserEmail) {
+
+        UUID post = parseId(postId);
+
+        CommentEntity existing = comments.findById(parseId(commentId))
+                .filter(c -> c.getPostId().equals(post))
+                .orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
+
+        var user = userRepository.findByEmail(currentUserEmail)
+                .orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
+
+        UUID currentAuthorId = UUID.nameUUIDFromBytes(user.getId().toString().getBytes());
+        if (!currentAuthorId.equals(existing.getAuthorId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not the comment author");
+        }
+
+        comments.delete(existing);
+        comments.adjustCount(post, -1);
+    }
+
+    private UUID livePost(String postId) {
+        UUID id = parseId(postId);
+        if (store.findById(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found");
+        }
+        return id;
+    }
+
+    private static UUID parseId(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid id");
+        }
+    }
+}
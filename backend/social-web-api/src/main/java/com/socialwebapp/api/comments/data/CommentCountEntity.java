@@ -0,0 +1,34 @@
+package com.socialwebapp.api.comments.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.UUID;
+
+/**
+ * Comment count per post, adjusted by CommentRepository in each comment's transaction;
+ * mapped for schema creation and validation.
+ */
+@Entity
+@Table(name = "feed_post_comment_counts")
+public class CommentCountEntity {
+
+    @Id
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    protected CommentCountEntity() {
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,39 @@
+package com.socialwebapp.api.comments.data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a comment list: the last comment of the previous page.
+ * Encoded as an opaque URL-safe string for clients.
+ */
+public record CommentCursor(OffsetDateTime createdAt, UUID id) {
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value was not produced by {@link #encode()}
+     */
+    public static CommentCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("malformed cursor");
+            }
+            return new CommentCursor(OffsetDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("malformed cursor", ex);
+        }
+    }
+
+    public static CommentCursor of(CommentEntity comment) {
+        return new CommentCursor(comment.getCreatedAt(), comment.getId());
+    }
+}
@@ -0,0 +1,69 @@
+package com.socialwebapp.api.comments.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "feed_post_comments")
+public class CommentEntity {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "author_id", nullable = false)
+    private UUID authorId;
+
+    @Column(name = "author_display_name", nullable = false, length = 120)
+    private String authorDisplayName;
+
+    @Column(name = "content", nullable = false, length = 1000)
+    private String content;
+
+    protected CommentEntity() {
+    }
+
+    public CommentEntity(UUID id, UUID postId, OffsetDateTime createdAt, UUID authorId,
+                         String authorDisplayName, String content) {
+        this.id = id;
+        this.postId = postId;
+        this.createdAt = createdAt;
+        this.authorId = authorId;
+        this.authorDisplayName = authorDisplayName;
+        this.content = content;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthorDisplayName() {
+        return authorDisplayName;
+    }
+
+    public String getContent() {
+        return content;
+    }
+}
@@ -0,0 +1,34 @@
+package com.socialwebapp.api.comments.data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Comment pages are keyset-paged on (created_at desc, id desc): a page costs the same
+ * however deep the client has scrolled.
+ */
+public interface CommentRepository extends JpaRepository<CommentEntity, UUID> {
+
+    @Query(value = "select * from feed_post_comments where post_id = :postId "
+            + "order by created_at desc, id desc limit :limit", nativeQuery = true)
+    List<CommentEntity> findFirstPage(UUID postId, int limit);
+
+    @Query(value = "select * from feed_post_comments where post_id = :postId "
+            + "and (created_at, id) < (:createdAt, :id) "
+            + "order by created_at desc, id desc limit :limit", nativeQuery = true)
+    List<CommentEntity> findPageAfter(UUID postId, OffsetDateTime createdAt, UUID id, int limit);
+
+    @Modifying
+    @Query(value = "insert into feed_post_comment_counts (post_id, total) values (:postId, 0) "
+            + "on conflict do nothing", nativeQuery = true)
+    void ensureCount(UUID postId);
+
+    @Modifying
+    @Query(value = "update feed_post_comment_counts set total = total + :delta where post_id = :postId",
+            nativeQuery = true)
+    void adjustCount(UUID postId, long delta);
+}
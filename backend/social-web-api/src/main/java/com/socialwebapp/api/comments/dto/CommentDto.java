@@ -0,0 +1,12 @@
+package com.socialwebapp.api.comments.dto;
+
+import com.socialwebapp.api.feed.dto.AuthorDto;
+
+public record CommentDto(
+        String id,
+        String postId,
+        String createdAt,
+        AuthorDto author,
+        String content
+) {
+}
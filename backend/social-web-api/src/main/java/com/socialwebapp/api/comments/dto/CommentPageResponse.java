@@ -0,0 +1,10 @@
+package com.socialwebapp.api.comments.dto;
+
+import java.util.List;
+
+/**
+ * Newest first. Pass {@code nextCursor} back as {@code cursor} for the next page;
+ * it is null on the last page.
+ */
+public record CommentPageResponse(List<CommentDto> items, String nextCursor) {
+}
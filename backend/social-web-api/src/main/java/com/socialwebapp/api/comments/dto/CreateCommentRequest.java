@@ -0,0 +1,10 @@
+package com.socialwebapp.api.comments.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record CreateCommentRequest(
+        @NotBlank
+        @Size(max = 1000)
+        String content
+) {}
@@ -13,9 +13,8 @@ import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -35,13 +34,9 @@ public class DbFeedService implements FeedService {
 
         int safeLimit = Math.min(Math.max(limit, 1), 50);
 
-        PageRequest pr = PageRequest.of(
-                page - 1,
-                safeLimit,
-                Sort.by(Sort.Direction.DESC, "createdAt")
-        );
+        PageRequest pr = PageRequest.of(page - 1, safeLimit);
 
-        Page<FeedPostEntity> result = repo.findAllByOrderByCreatedAtDesc(pr);
+        Slice<FeedPostEntity> result = repo.findAllByOrderByCreatedAtDesc(pr);
 
         List<FeedItemDto> items = result.getContent().stream()
                 .map(this::toDto)
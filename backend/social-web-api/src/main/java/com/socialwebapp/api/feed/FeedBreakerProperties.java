@@ -0,0 +1,26 @@
+package com.socialwebapp.api.feed;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Circuit breaker around feed and wall page reads (see FeedReadBreaker).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.feed.breaker")
+public record FeedBreakerProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT2S") Duration callTimeout,
+        @DefaultValue("PT1S") Duration slowCallThreshold,
+        @DefaultValue("20") @Min(1) int windowSize,
+        @DefaultValue("10") @Min(1) int minimumCalls,
+        @DefaultValue("50") @Min(1) @Max(100) int failureRatePercent,
+        @DefaultValue("PT10S") Duration openDuration,
+        @DefaultValue("3") @Min(1) int halfOpenProbes,
+        @DefaultValue("3") @Min(0) int snapshotPages,
+        @DefaultValue("500") @Min(0) int snapshotWalls
+) {}
@@ -1,9 +1,14 @@
 package com.socialwebapp.api.feed;
 
 import com.socialwebapp.api.feed.dto.CreateFeedPostRequest;
+import com.socialwebapp.api.feed.dto.FeedChangesResponse;
 import com.socialwebapp.api.feed.dto.FeedItemDto;
 import com.socialwebapp.api.feed.dto.FeedResponse;
+import com.socialwebapp.api.feed.dto.FeedSearchResponse;
+import com.socialwebapp.diagnostics.FeedRequestEvent;
+import com.socialwebapp.diagnostics.FeedRequestTiming;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -13,9 +18,11 @@ import org.springframework.web.bind.annotation.*;
 public class FeedController {
 
     private final FeedPostService feedPostService;
+    private final FeedReadBreaker breaker;
 
-    public FeedController(FeedPostService feedPostService) {
+    public FeedController(FeedPostService feedPostService, FeedReadBreaker breaker) {
         this.feedPostService = feedPostService;
+        this.breaker = breaker;
     }
 
 
@@ -24,7 +31,27 @@ public class FeedController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int limit
     ) {
-        FeedResponse response = feedPostService.getFeed(page, limit);
+        FeedRequestEvent event = FeedRequestTiming.begin(FeedReadCoalescer.FEED, page, limit);
+        return served(event, breaker.read(FeedReadCoalescer.FEED, null, page, limit,
+                () -> feedPostService.getFeed(page, limit)));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<FeedChangesResponse> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        FeedChangesResponse response = feedPostService.getChanges(since, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<FeedSearchResponse> search(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        FeedSearchResponse response = feedPostService.search(q, cursor, limit);
         return ResponseEntity.ok(response);
     }
 
@@ -66,6 +93,16 @@ public class FeedController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/tag/{tag}")
+    public ResponseEntity<FeedResponse> getByTag(
+            @PathVariable String tag,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        FeedResponse response = feedPostService.getByTag(tag, page, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<FeedResponse> getWall(
             @PathVariable String userId,
@@ -85,7 +122,20 @@ public class FeedController {
             );
         }
 
-        FeedResponse response = feedPostService.getWall(authorId, page, limit);
-        return ResponseEntity.ok(response);
+        java.util.UUID wall = authorId;
+        FeedRequestEvent event = FeedRequestTiming.begin(FeedReadCoalescer.WALL, page, limit);
+        return served(event, breaker.read(FeedReadCoalescer.WALL, wall.toString(), page, limit,
+                () -> feedPostService.getWall(wall, page, limit)));
+    }
+
+    private static ResponseEntity<FeedResponse> served(FeedRequestEvent event, FeedReadBreaker.Served served) {
+        FeedRequestTiming.read(event, served.response().items().size(), served.stale());
+        if (!served.stale()) {
+            return ResponseEntity.ok(served.response());
+        }
+        return ResponseEntity.ok()
+                .header(FeedReadBreaker.STALE_HEADER, "true")
+                .header(HttpHeaders.AGE, Long.toString(served.ageSeconds()))
+                .body(served.response());
     }
 }
\ No newline at end of file
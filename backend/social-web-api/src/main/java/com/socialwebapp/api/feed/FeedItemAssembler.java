@@ -0,0 +1,79 @@
+package com.socialwebapp.api.feed;
+
+import com.socialwebapp.api.comments.CommentPreviews;
+import com.socialwebapp.api.comments.CommentPreviews.CommentPreview;
+import com.socialwebapp.api.feed.data.FeedPostEntity;
+import com.socialwebapp.api.feed.dto.AuthorDto;
+import com.socialwebapp.api.feed.dto.FeedItemDto;
+import com.socialwebapp.api.reactions.ReactionCounters;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns a page of posts into FeedItemDtos, loading per-post extras for the whole page at once.
+ * A lookup that fails or is too slow leaves its extra empty (see PageHydrator).
+ */
+@Component
+class FeedItemAssembler {
+
+    private final ReactionCounters reactionCounters;
+    private final CommentPreviews commentPreviews;
+    private final PageHydrator hydrator;
+
+    FeedItemAssembler(ReactionCounters reactionCounters, CommentPreviews commentPreviews, PageHydrator hydrator) {
+        this.reactionCounters = reactionCounters;
+        this.commentPreviews = commentPreviews;
+        this.hydrator = hydrator;
+    }
+
+    List<FeedItemDto> toDtos(List<FeedPostEntity> posts) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = posts.stream().map(FeedPostEntity::getId).toList();
+        Map<UUID, Map<String, Long>> reactions;
+        Map<UUID, CommentPreview> comments;
+        try (var scope = hydrator.open()) {
+            PageHydrator.Lookup<Map<UUID, Map<String, Long>>> reactionsLookup =
+                    scope.fork("reactions", () -> reactionCounters.countsFor(ids), Map.of());
+            PageHydrator.Lookup<Map<UUID, CommentPreview>> commentsLookup =
+                    scope.fork("comments", () -> commentPreviews.previewsFor(ids), Map.of());
+            scope.join();
+            reactions = reactionsLookup.get();
+            comments = commentsLookup.get();
+        }
+
+        return posts.stream()
+                .map(p -> toDto(p,
+                        reactions.getOrDefault(p.getId(), Map.of()),
+                        comments.getOrDefault(p.getId(), CommentPreview.EMPTY)))
+                .toList();
+    }
+
+    FeedItemDto toDto(FeedPostEntity post) {
+        return toDtos(List.of(post)).get(0);
+    }
+
+    /** For a post just created: nothing to fetch. */
+    FeedItemDto toNewDto(FeedPostEntity post) {
+        return toDto(post, Map.of(), CommentPreview.EMPTY);
+    }
+
+    private static FeedItemDto toDto(FeedPostEntity post, Map<String, Long> reactions, CommentPreview comments) {
+        return new FeedItemDto(
+                post.getKind(),
+                post.getId().toString(),
+                post.getCreatedAt().toString(),
+                new AuthorDto(
+                        post.getAuthorId().toString(),
+                        post.getAuthorDisplayName()
+                ),
+                post.getContent(),
+                reactions,
+                comments.count(),
+                comments.latest()
+        );
+    }
+}
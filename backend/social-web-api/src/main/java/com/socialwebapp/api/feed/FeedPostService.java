@@ -1,31 +1,67 @@
 package com.socialwebapp.api.feed;
 
 import com.socialwebapp.api.feed.data.FeedPostEntity;
-import com.socialwebapp.api.feed.dto.AuthorDto;
 import com.socialwebapp.api.feed.dto.CreateFeedPostRequest;
+import com.socialwebapp.api.feed.dto.FeedChangeDto;
+import com.socialwebapp.api.feed.dto.FeedChangesResponse;
 import com.socialwebapp.api.feed.dto.FeedItemDto;
 import com.socialwebapp.api.feed.dto.FeedResponse;
+import com.socialwebapp.api.feed.dto.FeedSearchItemDto;
+import com.socialwebapp.api.feed.dto.FeedSearchResponse;
+import com.socialwebapp.api.feed.events.FeedEvent;
+import com.socialwebapp.api.feed.events.FeedEventStore;
 import com.socialwebapp.auth.data.UserRepository;
+import com.socialwebapp.db.InvalidationBus;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
-import com.socialwebapp.api.feed.data.FeedPostRepository;
-import com.socialwebapp.auth.data.UserRepository;
-
+import com.socialwebapp.api.feed.data.FeedChangeLog;
+import com.socialwebapp.api.feed.data.FeedPostStore;
+import com.socialwebapp.api.feed.data.FeedSearchCursor;
+import com.socialwebapp.api.feed.data.FeedSearchHit;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class FeedPostService {
 
-    private final FeedPostRepository repository;
-    private final UserRepository userRepository;
+    static final int MAX_CHANGES_LIMIT = 500;
+    static final int MAX_SEARCH_LIMIT = 50;
+    static final int MAX_QUERY_LENGTH = 200;
 
-    public FeedPostService(FeedPostRepository repository,
-                           UserRepository userRepository) {
-        this.repository = repository;
+    private final FeedPostStore store;
+    private final UserRepository userRepository;
+    private final FeedChangeLog changeLog;
+    private final FeedEventStore events;
+    private final FeedItemAssembler assembler;
+    private final FeedReadCoalescer reads;
+    private final InvalidationBus invalidations;
+
+    public FeedPostService(FeedPostStore store,
+                           UserRepository userRepository,
+                           FeedChangeLog changeLog,
+                           FeedEventStore events,
+                           FeedItemAssembler assembler,
+                           FeedReadCoalescer reads,
+                           InvalidationBus invalidations) {
+        this.store = store;
         this.userRepository = userRepository;
+        this.changeLog = changeLog;
+        this.events = events;
+        this.assembler = assembler;
+        this.reads = reads;
+        this.invalidations = invalidations;
     }
 
+    @Transactional(readOnly = true)
     public FeedResponse getFeed(int page, int limit) {
 
         if (page < 1) {
@@ -36,18 +72,11 @@ public class FeedPostService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
         }
 
-        var pageable = org.springframework.data.domain.PageRequest.of(
-                page - 1,
-                limit,
-                org.springframework.data.domain.Sort.by("createdAt").descending()
-        );
+        var pageable = org.springframework.data.domain.PageRequest.of(page - 1, limit);
 
-        var pageResult = repository.findAll(pageable);
+        var pageResult = reads.load(FeedReadCoalescer.FEED, null, page, limit, () -> store.findFeed(pageable));
 
-        var items = pageResult.getContent()
-                .stream()
-                .map(this::mapToDto)
-                .toList();
+        var items = assembler.toDtos(pageResult.getContent());
 
         return new FeedResponse(
                 items,
@@ -59,6 +88,7 @@ public class FeedPostService {
         );
     }
 
+    @Transactional
     public FeedItemDto createPost(CreateFeedPostRequest request,
                                   String currentUserEmail) {
 
@@ -71,27 +101,39 @@ public class FeedPostService {
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
 
+        var now = OffsetDateTime.now();
         var entity = new FeedPostEntity(
                 java.util.UUID.randomUUID(),
-                java.time.OffsetDateTime.now(),
+                now,
                 java.util.UUID.nameUUIDFromBytes(user.getId().toString().getBytes()),
                 user.getEmail(),
                 request.content().trim(),
-                "post"
+                "post",
+                changeLog.next(),
+                now,
+                null
         );
 
-        repository.save(entity);
+        // Sharded store: the shard write commits on its own; a rollback after it leaves the
+        // post without its change_seq or outbox row (known gap, see ShardedFeedPostStore).
+        store.save(entity);
+
+        Set<String> tags = Hashtags.extract(entity.getContent());
+        store.saveTags(entity, tags);
+        events.append(FeedEvent.Type.CREATED, entity, tags);
+        invalidatePages(entity, tags);
 
-        return mapToDto(entity);
+        return assembler.toNewDto(entity);
     }
 
+    @Transactional
     public FeedItemDto updatePost(String id,
                                   CreateFeedPostRequest request,
                                   String currentUserEmail) {
 
         UUID uuid = UUID.fromString(id);
 
-        FeedPostEntity existing = repository.findById(uuid)
+        FeedPostEntity existing = store.findById(uuid)
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
 
@@ -99,6 +141,9 @@ public class FeedPostService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content must not be blank");
         }
 
+        // Read before save: saving merges the new state into the managed instance.
+        Set<String> previousTags = Hashtags.extract(existing.getContent());
+
         // Re-create entity (immutable style)
         FeedPostEntity updated = new FeedPostEntity(
                 existing.getId(),
@@ -106,38 +151,196 @@ public class FeedPostService {
                 existing.getAuthorId(),
                 existing.getAuthorDisplayName(),
                 request.content().trim(),
-                existing.getKind()
+                existing.getKind(),
+                changeLog.next(),
+                OffsetDateTime.now(),
+                null
         );
 
-        repository.save(updated);
+        store.save(updated);
 
-        return mapToDto(updated);
+        // Only tags the edit adds count towards trends.
+        Set<String> tags = Hashtags.extract(updated.getContent());
+        Set<String> added = new HashSet<>(tags);
+        added.removeAll(previousTags);
+        store.saveTags(updated, tags);
+        events.append(FeedEvent.Type.UPDATED, updated, added);
+        Set<String> touched = new HashSet<>(tags);
+        touched.addAll(previousTags);
+        invalidatePages(updated, touched);
+
+        return assembler.toDto(updated);
     }
 
+    @Transactional
     public void deletePost(String id, String currentUserEmail) {
 
         UUID uuid = UUID.fromString(id);
 
-        FeedPostEntity existing = repository.findById(uuid)
+        FeedPostEntity existing = store.findById(uuid)
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
 
-        repository.delete(existing);
+        // Soft delete: the tombstone carries the delete to /changes until it is purged.
+        var now = OffsetDateTime.now();
+        FeedPostEntity tombstone = new FeedPostEntity(
+                existing.getId(),
+                existing.getCreatedAt(),
+                existing.getAuthorId(),
+                existing.getAuthorDisplayName(),
+                existing.getContent(),
+                existing.getKind(),
+                changeLog.next(),
+                now,
+                now
+        );
+
+        store.save(tombstone);
+        store.saveTags(tombstone, Set.of());
+        events.append(FeedEvent.Type.DELETED, tombstone, Set.of());
+        invalidatePages(tombstone, Hashtags.extract(tombstone.getContent()));
+    }
+
+    /**
+     * Page caches on every instance that may show this post: the feed, its author's wall, its tags.
+     */
+    private void invalidatePages(FeedPostEntity post, Set<String> tags) {
+        invalidations.publish(FeedReadCoalescer.FEED, Set.of());
+        invalidations.publish(FeedReadCoalescer.WALL, Set.of(post.getAuthorId().toString()));
+        if (!tags.isEmpty()) {
+            invalidations.publish(FeedReadCoalescer.TAG, tags);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public FeedResponse getByTag(String tag, int page, int limit) {
+
+        String normalized = Hashtags.normalize(tag)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid tag"));
+
+        if (page < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 1");
+        }
+
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
+        }
+
+        var pageable = org.springframework.data.domain.PageRequest.of(page - 1, limit);
+
+        var pageResult = reads.load(FeedReadCoalescer.TAG, normalized, page, limit, () -> store.findByTag(normalized, pageable));
+
+        var items = assembler.toDtos(pageResult.getContent());
+
+        return new FeedResponse(
+                items,
+                new com.socialwebapp.api.feed.dto.PageInfoDto(
+                        page,
+                        limit,
+                        pageResult.hasNext()
+                )
+        );
+    }
+
+    /**
+     * Delta sync; without {@code since} only the current watermark is returned.
+     * Only post writes advance change_seq: a reaction or comment alone does not report a post.
+     */
+    @Transactional(readOnly = true)
+    public FeedChangesResponse getChanges(Long since, int limit) {
+
+        if (since != null && since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must be >= 0");
+        }
+
+        if (limit < 1 || limit > MAX_CHANGES_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
+        }
+
+        if (since == null) {
+            return new FeedChangesResponse(List.of(), Long.toString(changeLog.head()), false, false);
+        }
+
+        if (since < changeLog.purgedThrough()) {
+            return new FeedChangesResponse(List.of(), Long.toString(changeLog.head()), false, true);
+        }
+
+        var rows = store.findChanges(since, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        var page = hasMore ? rows.subList(0, limit) : rows;
+
+        var live = page.stream().filter(p -> !p.isDeleted()).toList();
+        Map<UUID, FeedItemDto> dtos = new HashMap<>();
+        var liveDtos = assembler.toDtos(live);
+        for (int i = 0; i < live.size(); i++) {
+            dtos.put(live.get(i).getId(), liveDtos.get(i));
+        }
+
+        var changes = page.stream()
+                .map(p -> mapToChange(p, dtos.get(p.getId())))
+                .toList();
+
+        long watermark = page.isEmpty() ? since : page.get(page.size() - 1).getChangeSeq();
+
+        return new FeedChangesResponse(changes, Long.toString(watermark), hasMore, false);
     }
 
-    private FeedItemDto mapToDto(FeedPostEntity post) {
-        return new FeedItemDto(
-                post.getKind(),
+    @Transactional(readOnly = true)
+    public FeedSearchResponse search(String q, String cursor, int limit) {
+
+        String query = q == null ? "" : q.trim();
+        if (query.isEmpty() || query.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must be 1-" + MAX_QUERY_LENGTH + " characters");
+        }
+
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
+        }
+
+        FeedSearchCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = FeedSearchCursor.decode(cursor);
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+            }
+        }
+
+        List<FeedSearchHit> hits;
+        try {
+            hits = store.search(query, after, limit + 1);
+        } catch (UnsupportedOperationException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, ex.getMessage());
+        }
+
+        boolean hasMore = hits.size() > limit;
+        var page = hasMore ? hits.subList(0, limit) : hits;
+
+        var dtos = assembler.toDtos(page.stream().map(FeedSearchHit::post).toList());
+        var items = new ArrayList<FeedSearchItemDto>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            items.add(new FeedSearchItemDto(dtos.get(i), page.get(i).snippet()));
+        }
+
+        String nextCursor = hasMore ? FeedSearchCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return new FeedSearchResponse(items, nextCursor);
+    }
+
+    private FeedChangeDto mapToChange(FeedPostEntity post, FeedItemDto item) {
+        String op = post.isDeleted() ? "delete"
+                : post.getUpdatedAt().isEqual(post.getCreatedAt()) ? "insert" : "update";
+
+        return new FeedChangeDto(
+                op,
+                post.getChangeSeq(),
                 post.getId().toString(),
-                post.getCreatedAt().toString(),
-                new AuthorDto(
-                        post.getAuthorId().toString(),
-                        post.getAuthorDisplayName()
-                ),
-                post.getContent()
+                post.getUpdatedAt().toString(),
+                item
         );
     }
 
+    @Transactional(readOnly = true)
     public FeedResponse getWall(UUID authorId, int page, int limit) {
 
         if (page < 1) {
@@ -148,18 +351,11 @@ public class FeedPostService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
         }
 
-        var pageable = org.springframework.data.domain.PageRequest.of(
-                page - 1,
-                limit,
-                org.springframework.data.domain.Sort.by("createdAt").descending()
-        );
+        var pageable = org.springframework.data.domain.PageRequest.of(page - 1, limit);
 
-        var pageResult = repository.findByAuthorIdOrderByCreatedAtDesc(authorId, pageable);
+        var pageResult = reads.load(FeedReadCoalescer.WALL, authorId.toString(), page, limit, () -> store.findWall(authorId, pageable));
 
-        var items = pageResult.getContent()
-                .stream()
-                .map(this::mapToDto)
-                .toList();
+        var items = assembler.toDtos(pageResult.getContent());
 
         return new FeedResponse(
                 items,
@@ -0,0 +1,241 @@
+package com.socialwebapp.api.feed;
+
+import com.socialwebapp.api.feed.dto.FeedResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Circuit breaker around feed and wall page reads, serving the last good page (marked stale)
+ * while the database is unhealthy. Only database errors and slow reads count as failures.
+ */
+@Component
+class FeedReadBreaker {
+
+    /** Set to "true" on pages served from the snapshot; Age tells how old it is. */
+    static final String STALE_HEADER = "X-Feed-Stale";
+
+    private static final Logger log = LoggerFactory.getLogger(FeedReadBreaker.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Permit { CALL, PROBE, REFUSED }
+
+    private final FeedBreakerProperties props;
+    private final TransactionTemplate readTx;
+    private final MeterRegistry registry;
+    private final LongSupplier nanoClock;
+    private final long slowNanos;
+    private final long openNanos;
+
+    private final ConcurrentHashMap<Key, Snapshot> feedPages = new ConcurrentHashMap<>();
+    // Guarded by itself; access order, so walls read often stay.
+    private final LinkedHashMap<Key, Snapshot> wallPages;
+
+    // Guarded by this.
+    private State state = State.CLOSED;
+    private final boolean[] outcomes;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    @Autowired
+    FeedReadBreaker(FeedBreakerProperties props, PlatformTransactionManager txManager, MeterRegistry registry) {
+        this(props, txManager, registry, System::nanoTime);
+    }
+
+    FeedReadBreaker(FeedBreakerProperties props, PlatformTransactionManager txManager, MeterRegistry registry,
+                    LongSupplier nanoClock) {
+        this.props = props;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        this.readTx.setTimeout((int) Math.max(1, (props.callTimeout().toMillis() + 999) / 1000));
+        this.registry = registry;
+        this.nanoClock = nanoClock;
+        this.slowNanos = props.slowCallThreshold().toNanos();
+        this.openNanos = props.openDuration().toNanos();
+        this.outcomes = new boolean[props.windowSize()];
+        int maxWalls = props.snapshotWalls() * Math.max(1, props.snapshotPages());
+        this.wallPages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Snapshot> eldest) {
+                return size() > maxWalls;
+            }
+        };
+        Gauge.builder("app.feed.breaker.state", this, b -> b.state().ordinal())
+                .description("Feed read breaker: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code read} for the page, or serves its snapshot when the breaker refuses or the read fails.
+     */
+    Served read(String endpoint, String scope, int page, int limit, Supplier<FeedResponse> read) {
+        if (!props.enabled()) {
+            return new Served(read.get(), false, 0);
+        }
+
+        Key key = new Key(endpoint, scope, page, limit);
+        Permit permit = acquire();
+        if (permit == Permit.REFUSED) {
+            return fallback(key, null);
+        }
+
+        long started = nanoClock.getAsLong();
+        FeedResponse response;
+        try {
+            response = readTx.execute(status -> read.get());
+        } catch (DataAccessException | TransactionException ex) {
+            failed(permit);
+            return fallback(key, ex);
+        } catch (RuntimeException ex) {
+            released(permit);
+            throw ex;
+        }
+
+        if (nanoClock.getAsLong() - started > slowNanos) {
+            failed(permit);
+        } else {
+            succeeded(permit);
+        }
+        remember(key, response);
+        return new Served(response, false, 0);
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private synchronized Permit acquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+            log.info("FEED_BREAKER_HALF_OPEN probes={}", props.halfOpenProbes());
+        }
+        return switch (state) {
+            case CLOSED -> Permit.CALL;
+            case OPEN -> Permit.REFUSED;
+            case HALF_OPEN -> probesStarted < props.halfOpenProbes() ? probe() : Permit.REFUSED;
+        };
+    }
+
+    private Permit probe() {
+        probesStarted++;
+        return Permit.PROBE;
+    }
+
+    private synchronized void succeeded(Permit permit) {
+        if (permit == Permit.PROBE) {
+            if (state == State.HALF_OPEN && ++probesSucceeded >= props.halfOpenProbes()) {
+                state = State.CLOSED;
+                next = 0;
+                calls = 0;
+                failures = 0;
+                log.info("FEED_BREAKER_CLOSED");
+            }
+        } else {
+            record(false);
+        }
+    }
+
+    private synchronized void failed(Permit permit) {
+        if (permit == Permit.PROBE) {
+            if (state == State.HALF_OPEN) {
+                open("probe failed");
+            }
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && calls >= props.minimumCalls()
+                && failures * 100 >= props.failureRatePercent() * calls) {
+            open(failures + "/" + calls + " reads failed");
+        }
+    }
+
+    private synchronized void released(Permit permit) {
+        if (permit == Permit.PROBE && state == State.HALF_OPEN) {
+            probesStarted--;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        log.warn("FEED_BREAKER_OPENED reason=\"{}\" openMs={}", reason, props.openDuration().toMillis());
+    }
+
+    private void remember(Key key, FeedResponse response) {
+        if (key.page() > props.snapshotPages()) {
+            return;
+        }
+        Snapshot snapshot = new Snapshot(response, nanoClock.getAsLong());
+        if (FeedReadCoalescer.FEED.equals(key.endpoint())) {
+            feedPages.put(key, snapshot);
+        } else if (props.snapshotWalls() > 0) {
+            synchronized (wallPages) {
+                wallPages.put(key, snapshot);
+            }
+        }
+    }
+
+    private Served fallback(Key key, RuntimeException cause) {
+        Snapshot snapshot;
+        if (FeedReadCoalescer.FEED.equals(key.endpoint())) {
+            snapshot = feedPages.get(key);
+        } else {
+            synchronized (wallPages) {
+                snapshot = wallPages.get(key);
+            }
+        }
+
+        if (snapshot == null) {
+            if (cause != null) {
+                throw cause;
+            }
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "feed temporarily unavailable");
+        }
+        registry.counter("app.feed.breaker.stale", "endpoint", key.endpoint()).increment();
+        long ageSeconds = (nanoClock.getAsLong() - snapshot.takenAt()) / 1_000_000_000L;
+        return new Served(snapshot.response(), true, ageSeconds);
+    }
+
+    /** A page to send; stale pages come from the snapshot and are ageSeconds old. */
+    record Served(FeedResponse response, boolean stale, long ageSeconds) {}
+
+    private record Key(String endpoint, String scope, int page, int limit) {}
+
+    private record Snapshot(FeedResponse response, long takenAt) {}
+}
@@ -0,0 +1,161 @@
+package com.socialwebapp.api.feed;
+
+import com.socialwebapp.db.InvalidationBus;
+import com.socialwebapp.diagnostics.CacheLookupEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight for feed page queries: concurrent identical reads share one query and its result.
+ * Results are shared between threads, so loaders must return values nobody mutates.
+ */
+@Component
+public class FeedReadCoalescer {
+
+    public static final String FEED = "feed";
+    public static final String WALL = "wall";
+    public static final String TAG = "tag";
+
+    private static final String CACHE = "feed-reads";
+
+    private final ConcurrentHashMap<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder cached = new LongAdder();
+
+    @Autowired
+    public FeedReadCoalescer(FeedReadProperties props, MeterRegistry registry, InvalidationBus invalidations) {
+        this(props, registry, System::nanoTime);
+        for (String endpoint : List.of(FEED, WALL, TAG)) {
+            invalidations.subscribe(endpoint, scopes -> evict(endpoint, scopes));
+        }
+    }
+
+    FeedReadCoalescer(FeedReadProperties props, MeterRegistry registry, LongSupplier nanoClock) {
+        this.enabled = props.coalesce();
+        this.ttlNanos = props.resultTtl().toNanos();
+        this.nanoClock = nanoClock;
+
+        counter(registry, "leader", leaders);
+        counter(registry, "coalesced", coalesced);
+        counter(registry, "cached", cached);
+        Gauge.builder("app.feed.reads.coalescing.ratio", this, FeedReadCoalescer::coalescingRatio)
+                .description("Share of feed reads served by another read's query")
+                .register(registry);
+    }
+
+    /**
+     * @param endpoint which read (feed, wall, tag)
+     * @param scope what the read is about (author id, tag), or null
+     */
+    public <T> T load(String endpoint, String scope, int page, int limit, Supplier<T> loader) {
+        if (!enabled) {
+            leaders.increment();
+            return loader.get();
+        }
+
+        Key key = new Key(endpoint, scope, page, limit);
+        while (true) {
+            Flight existing = flights.get(key);
+            if (existing != null) {
+                if (!existing.future.isDone()) {
+                    coalesced.increment();
+                    CacheLookupEvent.record(CACHE, 1, 1);
+                    return join(existing);
+                }
+                if (nanoClock.getAsLong() - existing.expiresAt < 0
+                        && !existing.future.isCompletedExceptionally()) {
+                    cached.increment();
+                    CacheLookupEvent.record(CACHE, 1, 1);
+                    return join(existing);
+                }
+                flights.remove(key, existing);
+                continue;
+            }
+
+            Flight mine = new Flight(new CompletableFuture<>());
+            if (flights.putIfAbsent(key, mine) != null) {
+                continue;
+            }
+
+            leaders.increment();
+            CacheLookupEvent.record(CACHE, 1, 0);
+            try {
+                T result = loader.get();
+                mine.expiresAt = nanoClock.getAsLong() + ttlNanos;
+                mine.future.complete(result);
+                return result;
+            } catch (RuntimeException | Error ex) {
+                mine.future.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                if (ttlNanos <= 0 || mine.future.isCompletedExceptionally()) {
+                    flights.remove(key, mine);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets in-flight and cached reads of an endpoint for these scopes (empty: all of them).
+     */
+    public void evict(String endpoint, Set<String> scopes) {
+        flights.keySet().removeIf(k -> k.endpoint().equals(endpoint)
+                && (scopes.isEmpty() || scopes.contains(k.scope())));
+    }
+
+    double coalescingRatio() {
+        double shared = coalesced.sum() + cached.sum();
+        double total = shared + leaders.sum();
+        return total == 0 ? 0 : shared / total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T join(Flight flight) {
+        try {
+            return (T) flight.future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (ex.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw ex;
+        }
+    }
+
+    private static void counter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("app.feed.reads", adder, LongAdder::sum)
+                .description("Feed page reads by how they were served")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Key(String endpoint, String scope, int page, int limit) {}
+
+    private static final class Flight {
+
+        final CompletableFuture<Object> future;
+        volatile long expiresAt;
+
+        Flight(CompletableFuture<Object> future) {
+            this.future = future;
+        }
+    }
+}
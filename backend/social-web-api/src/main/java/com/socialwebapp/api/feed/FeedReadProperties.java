@@ -0,0 +1,15 @@
+package com.socialwebapp.api.feed;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Feed page reads (see FeedReadCoalescer and PageHydrator).
+ */
+@ConfigurationProperties(prefix = "app.feed.reads")
+public record FeedReadProperties(
+        @DefaultValue("true") boolean coalesce,
+        @DefaultValue("PT0S") Duration resultTtl,
+        @DefaultValue("PT0.5S") Duration hydrationTimeout
+) {}
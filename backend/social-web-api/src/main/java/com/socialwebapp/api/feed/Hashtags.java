@@ -0,0 +1,67 @@
+package com.socialwebapp.api.feed;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashtag parsing for posts; Flyway V8 backfills existing posts with the same rules.
+ */
+final class Hashtags {
+
+    static final int MAX_TAG_LENGTH = 64;
+    static final int MAX_TAGS_PER_POST = 20;
+
+    private static final Pattern TAG = Pattern.compile(
+            "(?<![\\p{L}\\p{N}_#])#([\\p{L}\\p{N}_]{1," + MAX_TAG_LENGTH + "})(?![\\p{L}\\p{N}_])");
+
+    private static final Pattern HAS_LETTER = Pattern.compile("\\p{L}");
+
+    private Hashtags() {
+    }
+
+    static Set<String> extract(String content) {
+        if (content == null || content.indexOf('#') < 0) {
+            return Collections.emptySet();
+        }
+
+        Set<String> tags = new LinkedHashSet<>();
+        Matcher m = TAG.matcher(content);
+        while (m.find() && tags.size() < MAX_TAGS_PER_POST) {
+            normalizeBody(m.group(1)).ifPresent(tags::add);
+        }
+        return tags;
+    }
+
+    /**
+     * Normalizes a tag given by a client ("#Java", "java") or returns empty when it is not a valid tag.
+     */
+    static Optional<String> normalize(String raw) {
+        if (raw == null) {
+            return Optional.empty();
+        }
+        String body = raw.strip();
+        if (body.startsWith("#")) {
+            body = body.substring(1);
+        }
+        if (body.isEmpty() || body.length() > MAX_TAG_LENGTH || !body.chars().allMatch(Hashtags::isTagChar)) {
+            return Optional.empty();
+        }
+        return normalizeBody(body);
+    }
+
+    private static Optional<String> normalizeBody(String body) {
+        if (!HAS_LETTER.matcher(body).find()) {
+            return Optional.empty();
+        }
+        return Optional.of(body.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isTagChar(int c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
@@ -0,0 +1,164 @@
+package com.socialwebapp.api.feed;
+
+import com.socialwebapp.db.BulkheadDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a page's batch lookups side by side on virtual threads, each falling back when it fails
+ * or misses the deadline. Forks run inline when the caller writes or already holds a connection.
+ */
+@Component
+class PageHydrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PageHydrator.class);
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("feed-hydrate-", 0).factory());
+    private final TransactionTemplate readOnlyTx;
+    private final BulkheadDataSource bulkhead;
+    private final MeterRegistry registry;
+    private final long timeoutNanos;
+
+    PageHydrator(PlatformTransactionManager txManager, DataSource dataSource, MeterRegistry registry,
+                 FeedReadProperties props) throws SQLException {
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.bulkhead = dataSource.isWrapperFor(BulkheadDataSource.class)
+                ? dataSource.unwrap(BulkheadDataSource.class)
+                : null;
+        this.registry = registry;
+        this.timeoutNanos = props.hydrationTimeout().toNanos();
+    }
+
+    Scope open() {
+        return new Scope(System.nanoTime() + timeoutNanos);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    final class Scope implements AutoCloseable {
+
+        private final long deadline;
+        private final boolean inline;
+        private final boolean readOnly;
+        private final List<Lookup<?>> forks = new ArrayList<>();
+
+        private Scope(long deadline) {
+            this.deadline = deadline;
+            this.readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            this.inline = TransactionSynchronizationManager.isActualTransactionActive()
+                    && (!readOnly || bulkhead == null || bulkhead.heldByCurrentThread());
+        }
+
+        <T> Lookup<T> fork(String name, Supplier<T> task, T fallback) {
+            Lookup<T> lookup = new Lookup<>(name, fallback);
+            if (inline) {
+                try {
+                    lookup.value = task.get();
+                    lookup.done = true;
+                } catch (RuntimeException ex) {
+                    log.warn("HYDRATION_FAILED lookup={} error={}", name, ex.toString());
+                    lookup.fellBack("error");
+                }
+                return lookup;
+            }
+
+            SecurityContext context = SecurityContextHolder.getContext();
+            lookup.future = executor.submit(() -> {
+                SecurityContextHolder.setContext(context);
+                try {
+                    return readOnly ? readOnlyTx.execute(status -> task.get()) : task.get();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+            forks.add(lookup);
+            return lookup;
+        }
+
+        /**
+         * Waits for every fork until the deadline; afterwards each Lookup holds its value or fallback.
+         */
+        void join() {
+            for (Lookup<?> lookup : forks) {
+                lookup.await(deadline);
+            }
+        }
+
+        @Override
+        public void close() {
+            for (Lookup<?> lookup : forks) {
+                if (lookup.future != null && !lookup.future.isDone()) {
+                    lookup.future.cancel(true);
+                }
+            }
+        }
+    }
+
+    final class Lookup<T> implements Supplier<T> {
+
+        private final String name;
+        private final T fallback;
+        private Future<T> future;
+        private T value;
+        private boolean done;
+
+        private Lookup(String name, T fallback) {
+            this.name = name;
+            this.fallback = fallback;
+        }
+
+        /** The lookup's result, or its fallback when it failed, timed out or was not joined. */
+        @Override
+        public T get() {
+            return done ? value : fallback;
+        }
+
+        private void await(long deadline) {
+            if (done) {
+                return;
+            }
+            try {
+                value = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                done = true;
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                fellBack("timeout");
+            } catch (ExecutionException ex) {
+                log.warn("HYDRATION_FAILED lookup={} error={}", name, ex.getCause().toString());
+                fellBack("error");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                fellBack("interrupted");
+            }
+        }
+
+        private void fellBack(String reason) {
+            registry.counter("app.feed.hydration.fallbacks", "lookup", name, "reason", reason).increment();
+        }
+    }
+}
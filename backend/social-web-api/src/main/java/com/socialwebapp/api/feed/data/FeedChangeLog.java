@@ -0,0 +1,78 @@
+package com.socialwebapp.api.feed.data;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out feed_posts.change_seq values in commit order: the feed_sync_state row lock is held
+ * until commit, so a reader that sees seq N never later sees a smaller one appear.
+ */
+@Component
+public class FeedChangeLog {
+
+    private static final short ROW_ID = 1;
+
+    private final JdbcTemplate jdbc;
+
+    public FeedChangeLog(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public long next() {
+        return reserve(1);
+    }
+
+    /**
+     * Reserves {@code count} consecutive values and returns the first one.
+     */
+    public long reserve(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be >= 1");
+        }
+        if (bump(count) == 0) {
+            createRow();
+            bump(count);
+        }
+        return head() - count + 1;
+    }
+
+    /** Highest committed seq (the watermark a client starts from). */
+    public long head() {
+        return read("last_seq");
+    }
+
+    public long purgedThrough() {
+        return read("purged_through_seq");
+    }
+
+    /**
+     * Moves the purge horizon forward (never back). Must happen before the tombstones are deleted.
+     */
+    public void advancePurgedThrough(long seq) {
+        if (jdbc.update("update feed_sync_state set purged_through_seq = ? where id = ? and purged_through_seq < ?",
+                seq, ROW_ID, seq) == 0 && purgedThrough() < seq) {
+            createRow();
+            advancePurgedThrough(seq);
+        }
+    }
+
+    private long read(String column) {
+        Long value = jdbc.query("select " + column + " from feed_sync_state where id = ?",
+                rs -> rs.next() ? rs.getLong(1) : 0L, ROW_ID);
+        return value == null ? 0 : value;
+    }
+
+    private int bump(int count) {
+        return jdbc.update("update feed_sync_state set last_seq = last_seq + ? where id = ?", count, ROW_ID);
+    }
+
+    private void createRow() {
+        // Flyway V6 inserts the row; only schemas built by Hibernate (tests) start empty.
+        try {
+            jdbc.update("insert into feed_sync_state (id, last_seq, purged_through_seq) values (?, 0, 0)", ROW_ID);
+        } catch (DuplicateKeyException ignored) {
+            // created concurrently
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.socialwebapp.api.feed.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+
+/**
+ * Last processed feed_post_events seq per durable consumer. Mapped so Hibernate creates
+ * (tests) and validates (Flyway V11) it; reads and writes go through FeedEventStore's SQL.
+ */
+@Entity
+@Table(name = "feed_event_offsets")
+public class FeedEventOffsetEntity {
+
+    @Id
+    @Column(name = "consumer", nullable = false, length = 64)
+    private String consumer;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    protected FeedEventOffsetEntity() {
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -7,9 +7,15 @@ import jakarta.persistence.Table;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.UUID;
+import org.hibernate.annotations.SQLRestriction;
 
+/**
+ * A feed post row. Deleted posts stay behind as tombstones (deletedAt set) until
+ * purged, so delta sync can report the delete; entity queries never see them.
+ */
 @Entity
 @Table(name = "feed_posts")
+@SQLRestriction("deleted_at is null")
 public class FeedPostEntity {
 
     @Id
@@ -31,6 +37,16 @@ public class FeedPostEntity {
     @Column(name = "kind", nullable = false, length = 30)
     private String kind;
 
+    /** Position in the change log (see FeedChangeLog); bumped on every insert, update and delete. */
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "deleted_at")
+    private OffsetDateTime deletedAt;
+
     protected FeedPostEntity() {
     }
 
@@ -41,6 +57,20 @@ public class FeedPostEntity {
             String authorDisplayName,
             String content,
             String kind
+    ) {
+        this(id, createdAt, authorId, authorDisplayName, content, kind, 0, createdAt, null);
+    }
+
+    public FeedPostEntity(
+            UUID id,
+            OffsetDateTime createdAt,
+            UUID authorId,
+            String authorDisplayName,
+            String content,
+            String kind,
+            long changeSeq,
+            OffsetDateTime updatedAt,
+            OffsetDateTime deletedAt
     ) {
         this.id = id;
         this.createdAt = createdAt;
@@ -48,6 +78,9 @@ public class FeedPostEntity {
         this.authorDisplayName = authorDisplayName;
         this.content = content;
         this.kind = kind;
+        this.changeSeq = changeSeq;
+        this.updatedAt = updatedAt;
+        this.deletedAt = deletedAt;
     }
 
     public UUID getId() {
@@ -73,4 +106,20 @@ public class FeedPostEntity {
     public String getKind() {
         return kind;
     }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public OffsetDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
 }
@@ -0,0 +1,63 @@
+package com.socialwebapp.api.feed.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox row of one post write. Mapped so Hibernate creates (tests) and validates
+ * (Flyway V11) it; reads and writes go through FeedEventStore's SQL.
+ */
+@Entity
+@Table(name = "feed_post_events")
+public class FeedPostEventEntity {
+
+    @Id
+    @Column(name = "seq", nullable = false)
+    private long seq;
+
+    @Column(name = "event_type", nullable = false, length = 16)
+    private String eventType;
+
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Column(name = "author_id", nullable = false)
+    private UUID authorId;
+
+    @Column(name = "tags", nullable = false, length = 1300)
+    private String tags;
+
+    @Column(name = "occurred_at", nullable = false)
+    private OffsetDateTime occurredAt;
+
+    protected FeedPostEventEntity() {
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public UUID getAuthorId() {
+        return authorId;
+    }
+
+    public String getTags() {
+        return tags;
+    }
+
+    public OffsetDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -1,12 +1,35 @@
 package com.socialwebapp.api.feed.data;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Feed queries return {@link Slice} rather than Page, which would add a count(*).
+ * The native change-log queries must see tombstones.
+ */
 public interface FeedPostRepository extends JpaRepository<FeedPostEntity, UUID> {
-    Page<FeedPostEntity> findAllByOrderByCreatedAtDesc(Pageable pageable);
-    Page<FeedPostEntity> findByAuthorIdOrderByCreatedAtDesc(UUID authorId, Pageable pageable);
+    Slice<FeedPostEntity> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    Slice<FeedPostEntity> findByAuthorIdOrderByCreatedAtDesc(UUID authorId, Pageable pageable);
 
+    @Query(value = "select * from feed_posts where change_seq > :since "
+            + "order by change_seq fetch first :limit rows only", nativeQuery = true)
+    List<FeedPostEntity> findChangesSince(long since, int limit);
+
+    @Query(value = "select coalesce(max(change_seq), 0) from feed_posts "
+            + "where deleted_at is not null and deleted_at < :cutoff", nativeQuery = true)
+    long findTombstoneHorizon(OffsetDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from feed_posts where id in (select id from feed_posts "
+            + "where deleted_at is not null and change_seq <= :throughSeq fetch first :batchSize rows only)",
+            nativeQuery = true)
+    int purgeTombstones(long throughSeq, int batchSize);
 }
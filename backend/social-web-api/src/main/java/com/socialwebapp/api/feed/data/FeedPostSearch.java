@@ -0,0 +1,91 @@
+package com.socialwebapp.api.feed.data;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Full-text search SQL over feed_posts.search_vector (Flyway V7), shared by both stores.
+ * Postgres only.
+ */
+public final class FeedPostSearch {
+
+    /** Text search configuration; must match the generated column in V7. */
+    static final String CONFIG = "english";
+
+    /** Postgres' (and H2's) uuid order: unsigned, byte by byte. UUID.compareTo is signed. */
+    static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    static final Comparator<FeedSearchHit> BEST_FIRST = Comparator
+            .comparing(FeedSearchHit::rank, Comparator.reverseOrder())
+            .thenComparing(h -> h.post().getCreatedAt(), Comparator.reverseOrder())
+            .thenComparing(h -> h.post().getId(), UUID_ORDER.reversed());
+
+    private static final String HEADLINE_OPTIONS =
+            "StartSel=<mark>, StopSel=</mark>, MaxWords=24, MinWords=8, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private static final String MATCHES = """
+            select id, created_at, author_id, author_display_name, content, kind,
+                   change_seq, updated_at, deleted_at,
+                   ts_rank_cd(search_vector, query) as rank, query
+            from feed_posts, websearch_to_tsquery('%1$s', ?) query
+            where search_vector @@ query
+              and deleted_at is null
+            """.formatted(CONFIG);
+
+    private static final String AFTER_CURSOR =
+            "  and (ts_rank_cd(search_vector, query), created_at, id) < (cast(? as real), ?, ?)\n";
+
+    private static final String PAGE = """
+            select m.*,
+                   ts_headline('%1$s',
+                               replace(replace(replace(m.content, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'),
+                               m.query, '%2$s') as snippet
+            from (%%s
+                  order by rank desc, created_at desc, id desc
+                  fetch first ? rows only) m
+            order by m.rank desc, m.created_at desc, m.id desc
+            """.formatted(CONFIG, HEADLINE_OPTIONS);
+
+    private FeedPostSearch() {
+    }
+
+    public static boolean isSupported(JdbcTemplate jdbc) {
+        Boolean postgres = jdbc.execute((ConnectionCallback<Boolean>) con ->
+                "PostgreSQL".equals(con.getMetaData().getDatabaseProductName()));
+        return Boolean.TRUE.equals(postgres);
+    }
+
+    /**
+     * Best matches for {@code query} after {@code after} (null for the first page), at most {@code limit}.
+     */
+    public static List<FeedSearchHit> search(JdbcTemplate jdbc, String query, FeedSearchCursor after, int limit) {
+        if (after == null) {
+            return jdbc.query(PAGE.formatted(MATCHES), FeedPostSearch::mapRow, query, limit);
+        }
+        return jdbc.query(PAGE.formatted(MATCHES + AFTER_CURSOR), FeedPostSearch::mapRow,
+                query, after.rank(), after.createdAt(), after.id(), limit);
+    }
+
+    private static FeedSearchHit mapRow(ResultSet rs, int rowNum) throws SQLException {
+        FeedPostEntity post = new FeedPostEntity(
+                rs.getObject("id", UUID.class),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("author_id", UUID.class),
+                rs.getString("author_display_name"),
+                rs.getString("content"),
+                rs.getString("kind"),
+                rs.getLong("change_seq"),
+                rs.getObject("updated_at", OffsetDateTime.class),
+                rs.getObject("deleted_at", OffsetDateTime.class)
+        );
+        return new FeedSearchHit(post, rs.getFloat("rank"), rs.getString("snippet"));
+    }
+}
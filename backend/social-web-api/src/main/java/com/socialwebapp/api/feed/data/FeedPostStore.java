@@ -0,0 +1,48 @@
+package com.socialwebapp.api.feed.data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Storage operations the feed needs, on one database or author-sharded ones. Deletes are soft.
+ */
+public interface FeedPostStore {
+
+    FeedPostEntity save(FeedPostEntity post);
+
+    /** Live posts only. */
+    Optional<FeedPostEntity> findById(UUID id);
+
+    /** Global feed, newest first. */
+    Slice<FeedPostEntity> findFeed(Pageable pageable);
+
+    /** One author's posts, newest first. */
+    Slice<FeedPostEntity> findWall(UUID authorId, Pageable pageable);
+
+    /** Replaces the hashtag index rows of a post; an empty set removes them. */
+    void saveTags(FeedPostEntity post, Set<String> tags);
+
+    /** Live posts carrying {@code tag} (normalized, without '#'), newest first. */
+    Slice<FeedPostEntity> findByTag(String tag, Pageable pageable);
+
+    /** Rows changed after {@code since} (tombstones included), in change_seq order. */
+    List<FeedPostEntity> findChanges(long since, int limit);
+
+    /** Highest change_seq of a tombstone deleted before {@code cutoff}, or 0 when there is none. */
+    long tombstoneHorizon(OffsetDateTime cutoff);
+
+    /** Hard-deletes up to {@code batchSize} tombstones with change_seq <= throughSeq; returns rows removed. */
+    int purgeTombstones(long throughSeq, int batchSize);
+
+    /**
+     * Ranked full-text matches after {@code after} (null for the first page).
+     *
+     * @throws UnsupportedOperationException when the database has no full-text search (H2)
+     */
+    List<FeedSearchHit> search(String query, FeedSearchCursor after, int limit);
+}
@@ -0,0 +1,82 @@
+package com.socialwebapp.api.feed.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Hashtag index row; its key order makes "newest posts for a tag" one index range scan.
+ */
+@Entity
+@Table(name = "feed_post_tags")
+@IdClass(FeedPostTagEntity.Key.class)
+public class FeedPostTagEntity {
+
+    @Id
+    @Column(name = "tag", nullable = false, length = 64)
+    private String tag;
+
+    @Id
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Id
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    protected FeedPostTagEntity() {
+    }
+
+    public FeedPostTagEntity(String tag, OffsetDateTime createdAt, UUID postId) {
+        this.tag = tag;
+        this.createdAt = createdAt;
+        this.postId = postId;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public static class Key implements Serializable {
+
+        private String tag;
+        private OffsetDateTime createdAt;
+        private UUID postId;
+
+        protected Key() {
+        }
+
+        public Key(String tag, OffsetDateTime createdAt, UUID postId) {
+            this.tag = tag;
+            this.createdAt = createdAt;
+            this.postId = postId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k
+                    && Objects.equals(tag, k.tag)
+                    && Objects.equals(createdAt, k.createdAt)
+                    && Objects.equals(postId, k.postId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tag, createdAt, postId);
+        }
+    }
+}
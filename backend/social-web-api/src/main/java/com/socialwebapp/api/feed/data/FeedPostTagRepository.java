@@ -0,0 +1,23 @@
+package com.socialwebapp.api.feed.data;
+
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface FeedPostTagRepository extends JpaRepository<FeedPostTagEntity, FeedPostTagEntity.Key> {
+
+    @Modifying
+    @Query("delete from FeedPostTagEntity t where t.postId = :postId")
+    int deleteByPostId(UUID postId);
+
+    /** Live posts for a tag, newest first (the post's @SQLRestriction drops tombstones). */
+    @Query("""
+            select p from FeedPostTagEntity t, FeedPostEntity p
+            where t.tag = :tag and p.id = t.postId and p.createdAt = t.createdAt
+            order by t.createdAt desc, t.postId desc
+            """)
+    Slice<FeedPostEntity> findPostsByTag(String tag, Pageable pageable);
+}
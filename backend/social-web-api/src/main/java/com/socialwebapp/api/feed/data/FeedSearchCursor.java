@@ -0,0 +1,41 @@
+package com.socialwebapp.api.feed.data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in search results: the last row of the previous page, as an opaque string.
+ */
+public record FeedSearchCursor(float rank, OffsetDateTime createdAt, UUID id) {
+
+    public String encode() {
+        String raw = Float.toString(rank) + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value was not produced by {@link #encode()}
+     */
+    public static FeedSearchCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("malformed cursor");
+            }
+            return new FeedSearchCursor(
+                    Float.parseFloat(parts[0]),
+                    OffsetDateTime.parse(parts[1]),
+                    UUID.fromString(parts[2]));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("malformed cursor", ex);
+        }
+    }
+
+    public static FeedSearchCursor of(FeedSearchHit hit) {
+        return new FeedSearchCursor(hit.rank(), hit.post().getCreatedAt(), hit.post().getId());
+    }
+}
@@ -0,0 +1,7 @@
+package com.socialwebapp.api.feed.data;
+
+/**
+ * A search match. {@code snippet} is HTML-escaped post text with matches wrapped in {@code <mark>}.
+ */
+public record FeedSearchHit(FeedPostEntity post, float rank, String snippet) {
+}
@@ -0,0 +1,40 @@
+package com.socialwebapp.api.feed.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Single-row table behind {@link FeedChangeLog}. Mapped so Hibernate creates (tests)
+ * and validates (Flyway V6) it; reads and writes go through FeedChangeLog's SQL.
+ */
+@Entity
+@Table(name = "feed_sync_state")
+public class FeedSyncStateEntity {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private short id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    @Column(name = "purged_through_seq", nullable = false)
+    private long purgedThroughSeq;
+
+    protected FeedSyncStateEntity() {
+    }
+
+    public short getId() {
+        return id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public long getPurgedThroughSeq() {
+        return purgedThroughSeq;
+    }
+}
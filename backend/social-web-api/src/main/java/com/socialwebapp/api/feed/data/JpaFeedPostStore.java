@@ -0,0 +1,90 @@
+package com.socialwebapp.api.feed.data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default store: everything in the application's single database.
+ */
+@Component
+@ConditionalOnBooleanProperty(prefix = "app.feed.shards", name = "enabled", havingValue = false, matchIfMissing = true)
+public class JpaFeedPostStore implements FeedPostStore {
+
+    private final FeedPostRepository repository;
+    private final FeedPostTagRepository tagRepository;
+    private final JdbcTemplate jdbc;
+    private volatile Boolean searchSupported;
+
+    public JpaFeedPostStore(FeedPostRepository repository, FeedPostTagRepository tagRepository, JdbcTemplate jdbc) {
+        this.repository = repository;
+        this.tagRepository = tagRepository;
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public FeedPostEntity save(FeedPostEntity post) {
+        return repository.save(post);
+    }
+
+    @Override
+    public Optional<FeedPostEntity> findById(UUID id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Slice<FeedPostEntity> findFeed(Pageable pageable) {
+        return repository.findAllByOrderByCreatedAtDesc(pageable);
+    }
+
+    @Override
+    public Slice<FeedPostEntity> findWall(UUID authorId, Pageable pageable) {
+        return repository.findByAuthorIdOrderByCreatedAtDesc(authorId, pageable);
+    }
+
+    @Override
+    public void saveTags(FeedPostEntity post, Set<String> tags) {
+        tagRepository.deleteByPostId(post.getId());
+        tagRepository.saveAll(tags.stream()
+                .map(tag -> new FeedPostTagEntity(tag, post.getCreatedAt(), post.getId()))
+                .toList());
+    }
+
+    @Override
+    public Slice<FeedPostEntity> findByTag(String tag, Pageable pageable) {
+        return tagRepository.findPostsByTag(tag, pageable);
+    }
+
+    @Override
+    public List<FeedPostEntity> findChanges(long since, int limit) {
+        return repository.findChangesSince(since, limit);
+    }
+
+    @Override
+    public long tombstoneHorizon(OffsetDateTime cutoff) {
+        return repository.findTombstoneHorizon(cutoff);
+    }
+
+    @Override
+    public int purgeTombstones(long throughSeq, int batchSize) {
+        return repository.purgeTombstones(throughSeq, batchSize);
+    }
+
+    @Override
+    public List<FeedSearchHit> search(String query, FeedSearchCursor after, int limit) {
+        if (searchSupported == null) {
+            searchSupported = FeedPostSearch.isSupported(jdbc);
+        }
+        if (!searchSupported) {
+            throw new UnsupportedOperationException("full-text search requires PostgreSQL");
+        }
+        return FeedPostSearch.search(jdbc, query, after, limit);
+    }
+}
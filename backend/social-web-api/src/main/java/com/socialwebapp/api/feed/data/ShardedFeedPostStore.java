@@ -0,0 +1,315 @@
+package com.socialwebapp.api.feed.data;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * feed_posts spread over N databases by author (jump hash), merged for the global feed.
+ * A slow shard is left out of feed and search pages but fails lookups and the change feed.
+ * Shard writes commit outside the primary transaction that takes change_seq.
+ */
+public class ShardedFeedPostStore implements FeedPostStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedFeedPostStore.class);
+
+    private static final String COLUMNS =
+            "id, created_at, author_id, author_display_name, content, kind, change_seq, updated_at, deleted_at";
+
+    private static final String LIVE = "deleted_at is null";
+
+    private static final Comparator<FeedPostEntity> NEWEST_FIRST = Comparator
+            .comparing(FeedPostEntity::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(FeedPostEntity::getId, FeedPostSearch.UUID_ORDER.reversed());
+
+    private static final RowMapper<FeedPostEntity> ROW_MAPPER = ShardedFeedPostStore::mapRow;
+
+    private final List<JdbcTemplate> shards;
+    private final Executor executor;
+    private final long timeoutMillis;
+    private volatile Boolean searchSupported;
+
+    public ShardedFeedPostStore(List<JdbcTemplate> shards, Executor executor, Duration timeout) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("at least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public void close() {
+        for (JdbcTemplate shard : shards) {
+            if (shard.getDataSource() instanceof AutoCloseable pool) {
+                try {
+                    pool.close();
+                } catch (Exception ex) {
+                    log.warn("SHARD_POOL_CLOSE_FAILED error={}", ex.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Shard connections in shard order (e.g. for per-database maintenance).
+     */
+    public List<JdbcTemplate> shards() {
+        return shards;
+    }
+
+    /**
+     * Jump consistent hash (Lamping & Veach): growing from N to N+1 shards moves only ~1/(N+1) of authors.
+     */
+    public static int shardOf(UUID authorId, int shardCount) {
+        long key = authorId.getMostSignificantBits() ^ authorId.getLeastSignificantBits();
+        long b = -1;
+        long j = 0;
+        while (j < shardCount) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    @Override
+    public FeedPostEntity save(FeedPostEntity post) {
+        JdbcTemplate shard = shardFor(post.getAuthorId());
+
+        int updated = shard.update(
+                "update feed_posts set author_display_name = ?, content = ?, kind = ?, "
+                        + "change_seq = ?, updated_at = ?, deleted_at = ? where id = ?",
+                post.getAuthorDisplayName(), post.getContent(), post.getKind(),
+                post.getChangeSeq(), post.getUpdatedAt(), post.getDeletedAt(), post.getId());
+        if (updated == 0) {
+            shard.update("insert into feed_posts (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    post.getId(), post.getCreatedAt(), post.getAuthorId(),
+                    post.getAuthorDisplayName(), post.getContent(), post.getKind(),
+                    post.getChangeSeq(), post.getUpdatedAt(), post.getDeletedAt());
+        }
+        return post;
+    }
+
+    @Override
+    public Optional<FeedPostEntity> findById(UUID id) {
+        // All shards must answer: a missing shard must not turn into a false 404.
+        List<List<FeedPostEntity>> hits = scatter(jdbc -> jdbc.query(
+                "select " + COLUMNS + " from feed_posts where id = ? and " + LIVE, ROW_MAPPER, id), false);
+
+        return hits.stream().flatMap(List::stream).findFirst();
+    }
+
+    @Override
+    public Slice<FeedPostEntity> findWall(UUID authorId, Pageable pageable) {
+        List<FeedPostEntity> rows = shardFor(authorId).query(
+                "select " + COLUMNS + " from feed_posts where author_id = ? and " + LIVE + " "
+                        + "order by created_at desc, id desc offset ? rows fetch first ? rows only",
+                ROW_MAPPER, authorId, pageable.getOffset(), pageable.getPageSize() + 1);
+
+        return toSlice(rows, pageable);
+    }
+
+    @Override
+    public Slice<FeedPostEntity> findFeed(Pageable pageable) {
+        long perShard = pageable.getOffset() + pageable.getPageSize() + 1;
+
+        List<List<FeedPostEntity>> perShardRows = scatter(jdbc -> jdbc.query(
+                "select " + COLUMNS + " from feed_posts where " + LIVE + " "
+                        + "order by created_at desc, id desc fetch first ? rows only",
+                ROW_MAPPER, perShard), true);
+
+        List<FeedPostEntity> merged = merge(perShardRows, pageable.getOffset(), pageable.getPageSize() + 1);
+        return toSlice(merged, pageable);
+    }
+
+    @Override
+    public void saveTags(FeedPostEntity post, Set<String> tags) {
+        JdbcTemplate shard = shardFor(post.getAuthorId());
+
+        shard.update("delete from feed_post_tags where post_id = ?", post.getId());
+        if (!tags.isEmpty()) {
+            shard.batchUpdate("insert into feed_post_tags (tag, created_at, post_id) values (?, ?, ?)",
+                    tags.stream().map(tag -> new Object[]{tag, post.getCreatedAt(), post.getId()}).toList());
+        }
+    }
+
+    @Override
+    public Slice<FeedPostEntity> findByTag(String tag, Pageable pageable) {
+        long perShard = pageable.getOffset() + pageable.getPageSize() + 1;
+
+        List<List<FeedPostEntity>> perShardRows = scatter(jdbc -> jdbc.query(
+                "select " + prefixed("p") + " from feed_post_tags t "
+                        + "join feed_posts p on p.id = t.post_id and p.created_at = t.created_at "
+                        + "where t.tag = ? and p." + LIVE + " "
+                        + "order by t.created_at desc, t.post_id desc fetch first ? rows only",
+                ROW_MAPPER, tag, perShard), true);
+
+        List<FeedPostEntity> merged = merge(perShardRows, pageable.getOffset(), pageable.getPageSize() + 1);
+        return toSlice(merged, pageable);
+    }
+
+    @Override
+    public List<FeedPostEntity> findChanges(long since, int limit) {
+        List<List<FeedPostEntity>> perShardRows = scatter(jdbc -> jdbc.query(
+                "select " + COLUMNS + " from feed_posts where change_seq > ? "
+                        + "order by change_seq fetch first ? rows only",
+                ROW_MAPPER, since, limit), false);
+
+        return perShardRows.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingLong(FeedPostEntity::getChangeSeq))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long tombstoneHorizon(OffsetDateTime cutoff) {
+        return scatter(jdbc -> jdbc.queryForObject(
+                "select coalesce(max(change_seq), 0) from feed_posts "
+                        + "where deleted_at is not null and deleted_at < ?",
+                Long.class, cutoff), false)
+                .stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    @Override
+    public int purgeTombstones(long throughSeq, int batchSize) {
+        int removed = 0;
+        for (JdbcTemplate shard : shards) {
+            removed += shard.update("delete from feed_posts where id in (select id from feed_posts "
+                    + "where deleted_at is not null and change_seq <= ? fetch first ? rows only)",
+                    throughSeq, batchSize);
+        }
+        return removed;
+    }
+
+    @Override
+    public List<FeedSearchHit> search(String query, FeedSearchCursor after, int limit) {
+        if (searchSupported == null) {
+            searchSupported = shards.stream().allMatch(FeedPostSearch::isSupported);
+        }
+        if (!searchSupported) {
+            throw new UnsupportedOperationException("full-text search requires PostgreSQL shards");
+        }
+
+        return scatter(jdbc -> FeedPostSearch.search(jdbc, query, after, limit), true).stream()
+                .flatMap(List::stream)
+                .sorted(FeedPostSearch.BEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * K-way merge of newest-first lists: skip {@code skip} rows, then take up to {@code take}.
+     */
+    static List<FeedPostEntity> merge(List<List<FeedPostEntity>> sortedLists, long skip, int take) {
+        record Cursor(List<FeedPostEntity> rows, int index) {
+            FeedPostEntity head() {
+                return rows.get(index);
+            }
+        }
+
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(
+                Math.max(1, sortedLists.size()), Comparator.comparing(Cursor::head, NEWEST_FIRST));
+        for (List<FeedPostEntity> rows : sortedLists) {
+            if (!rows.isEmpty()) {
+                heap.add(new Cursor(rows, 0));
+            }
+        }
+
+        List<FeedPostEntity> out = new ArrayList<>(take);
+        long skipped = 0;
+        while (!heap.isEmpty() && out.size() < take) {
+            Cursor c = heap.poll();
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                out.add(c.head());
+            }
+            if (c.index() + 1 < c.rows().size()) {
+                heap.add(new Cursor(c.rows(), c.index() + 1));
+            }
+        }
+        return out;
+    }
+
+    private <T> List<T> scatter(Function<JdbcTemplate, T> query, boolean partialOk) {
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(jdbc -> CompletableFuture.supplyAsync(() -> query.apply(jdbc), executor))
+                .toList();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<T> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<T> f = futures.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.add(f.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException ex) {
+                f.cancel(true);
+                log.warn("SHARD_TIMEOUT shard={} timeoutMs={}", i, timeoutMillis);
+                if (!partialOk) {
+                    throw new IllegalStateException("shard " + i + " timed out", ex);
+                }
+            } catch (ExecutionException ex) {
+                log.warn("SHARD_FAILED shard={} msg={}", i, ex.getCause().getMessage());
+                if (!partialOk) {
+                    throw new IllegalStateException("shard " + i + " failed", ex.getCause());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for shards", ex);
+            }
+        }
+        return results;
+    }
+
+    private static String prefixed(String alias) {
+        return alias + "." + COLUMNS.replace(", ", ", " + alias + ".");
+    }
+
+    private JdbcTemplate shardFor(UUID authorId) {
+        return shards.get(shardOf(authorId, shards.size()));
+    }
+
+    private static Slice<FeedPostEntity> toSlice(List<FeedPostEntity> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<FeedPostEntity> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static FeedPostEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new FeedPostEntity(
+                rs.getObject("id", UUID.class),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("author_id", UUID.class),
+                rs.getString("author_display_name"),
+                rs.getString("content"),
+                rs.getString("kind"),
+                rs.getLong("change_seq"),
+                rs.getObject("updated_at", OffsetDateTime.class),
+                rs.getObject("deleted_at", OffsetDateTime.class)
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.socialwebapp.api.feed.dto;
+
+/**
+ * One entry of the change feed; a post created and then edited comes as "update".
+ */
+public record FeedChangeDto(
+        String op,
+        long seq,
+        String id,
+        String updatedAt,
+        FeedItemDto item
+) {
+}
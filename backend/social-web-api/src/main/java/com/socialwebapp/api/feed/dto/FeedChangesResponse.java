@@ -0,0 +1,14 @@
+package com.socialwebapp.api.feed.dto;
+
+import java.util.List;
+
+/**
+ * Posts changed after the requested watermark, oldest first, each once in its latest state.
+ */
+public record FeedChangesResponse(
+        List<FeedChangeDto> changes,
+        String watermark,
+        boolean hasMore,
+        boolean resyncRequired
+) {
+}
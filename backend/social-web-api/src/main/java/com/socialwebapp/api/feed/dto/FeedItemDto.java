@@ -1,10 +1,25 @@
 package com.socialwebapp.api.feed.dto;
 
+import com.socialwebapp.api.comments.dto.CommentDto;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param reactions reaction kind to count, zero counts left out
+ * @param latestComments newest first, at most two; the rest via /api/feed/{id}/comments
+ */
 public record FeedItemDto(
         String kind,
         String id,
         String createdAt,
         AuthorDto author,
-        String content
+        String content,
+        Map<String, Long> reactions,
+        long commentCount,
+        List<CommentDto> latestComments
 ) {
+
+    public FeedItemDto(String kind, String id, String createdAt, AuthorDto author, String content) {
+        this(kind, id, createdAt, author, content, Map.of(), 0, List.of());
+    }
 }
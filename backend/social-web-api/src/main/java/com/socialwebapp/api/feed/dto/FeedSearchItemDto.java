@@ -0,0 +1,7 @@
+package com.socialwebapp.api.feed.dto;
+
+/**
+ * A search result: the post plus an HTML-escaped snippet with matches in {@code <mark>}.
+ */
+public record FeedSearchItemDto(FeedItemDto item, String snippet) {
+}
@@ -0,0 +1,10 @@
+package com.socialwebapp.api.feed.dto;
+
+import java.util.List;
+
+/**
+ * Best matches first. Pass {@code nextCursor} back as {@code cursor} for the next page;
+ * it is null on the last page.
+ */
+public record FeedSearchResponse(List<FeedSearchItemDto> items, String nextCursor) {
+}
@@ -0,0 +1,22 @@
+package com.socialwebapp.api.feed.events;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One committed post write, as relayed by {@link FeedEventLog}; seq is its change_seq.
+ */
+public record FeedEvent(
+        long seq,
+        Type type,
+        UUID postId,
+        UUID authorId,
+        Set<String> addedTags,
+        OffsetDateTime occurredAt
+) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,341 @@
+package com.socialwebapp.api.feed.events;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-process, at-least-once log of committed post writes, relayed from the feed_post_events outbox.
+ * Durable consumers compete across instances for each batch; replaying consumers run on every instance.
+ */
+@Component
+public class FeedEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedEventLog.class);
+
+    private static final long IDLE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final FeedEventStore store;
+    private final FeedEventsProperties props;
+    private final MeterRegistry registry;
+    private final TransactionTemplate claimTx;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition relayed = lock.newCondition();
+    // Guarded by lock: every event with tailFloor < seq <= head, oldest first.
+    private final ArrayDeque<FeedEvent> tail = new ArrayDeque<>();
+    private long tailFloor;
+    private volatile long head;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public FeedEventLog(FeedEventStore store, FeedEventsProperties props, MeterRegistry registry,
+                        PlatformTransactionManager txManager) {
+        this(store, props, registry, txManager, Clock.systemUTC());
+    }
+
+    FeedEventLog(FeedEventStore store, FeedEventsProperties props, MeterRegistry registry,
+                 PlatformTransactionManager txManager, Clock clock) {
+        this.store = store;
+        this.props = props;
+        this.registry = registry;
+        this.claimTx = new TransactionTemplate(txManager);
+        this.clock = clock;
+    }
+
+    /**
+     * Durable consumer: resumes after the last batch it finished, across restarts; each batch is
+     * handled on one instance only.
+     */
+    public void subscribe(String consumer, Consumer<List<FeedEvent>> handler) {
+        add(new Subscription(consumer, true, null, handler));
+    }
+
+    /**
+     * Replaying consumer: on every start it first gets the events of the last {@code replay}
+     * (at most retention), then new ones. Suits in-memory views.
+     */
+    public void subscribeFrom(String consumer, Duration replay, Consumer<List<FeedEvent>> handler) {
+        if (replay.isNegative() || replay.compareTo(props.retention()) > 0) {
+            throw new IllegalArgumentException("replay must be between 0 and retention (" + props.retention() + ")");
+        }
+        add(new Subscription(consumer, false, replay, handler));
+    }
+
+    /** Highest relayed seq. */
+    public long head() {
+        return head;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            head = store.maxSeq();
+            tailFloor = head;
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        subscriptions.forEach(this::launch);
+        log.info("FEED_EVENTS_STARTED head={} consumers={}", head, subscriptions.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            relayed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Subscription sub : subscriptions) {
+            Thread thread = sub.thread;
+            if (thread == null) {
+                continue;
+            }
+            try {
+                thread.join(Duration.ofSeconds(5));
+                if (thread.isAlive()) {
+                    thread.interrupt();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.feed.events.poll-interval:PT0.2S}",
+            initialDelayString = "${app.feed.events.poll-interval:PT0.2S}"
+    )
+    public void relay() {
+        if (!running) {
+            return;
+        }
+        List<FeedEvent> batch;
+        do {
+            batch = store.readAfter(head, props.batchSize());
+            if (batch.isEmpty()) {
+                return;
+            }
+            lock.lock();
+            try {
+                for (FeedEvent event : batch) {
+                    tail.addLast(event);
+                    if (tail.size() > props.bufferSize()) {
+                        tailFloor = tail.removeFirst().seq();
+                    }
+                }
+                head = batch.getLast().seq();
+                relayed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } while (batch.size() >= props.batchSize());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.feed.events.purge-interval:PT10M}",
+            initialDelayString = "${app.feed.events.purge-interval:PT10M}"
+    )
+    public void purge() {
+        long horizon = store.purgeHorizon(OffsetDateTime.now(clock).minus(props.retention()));
+        if (horizon == 0) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        int total = 0;
+        int removed;
+        do {
+            removed = store.purge(horizon, props.purgeBatchSize());
+            total += removed;
+        } while (removed >= props.purgeBatchSize());
+
+        log.info("FEED_EVENTS_PURGED throughSeq={} rows={} elapsedMs={}",
+                horizon, total, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void add(Subscription sub) {
+        if (sub.name.isBlank() || sub.name.length() > 64) {
+            throw new IllegalArgumentException("consumer name must be 1-64 characters");
+        }
+        if (subscriptions.stream().anyMatch(s -> s.name.equals(sub.name))) {
+            throw new IllegalArgumentException("consumer already subscribed: " + sub.name);
+        }
+        subscriptions.add(sub);
+        Gauge.builder("app.feed.events.lag", sub, s -> s.position < 0 ? 0 : Math.max(0, head - s.position))
+                .tag("consumer", sub.name)
+                .description("Relayed post events the consumer has not processed yet")
+                .register(registry);
+        if (running) {
+            launch(sub);
+        }
+    }
+
+    private void launch(Subscription sub) {
+        sub.thread = Thread.ofVirtual().name("feed-events-" + sub.name).start(() -> consume(sub));
+    }
+
+    private void consume(Subscription sub) {
+        long initialDelay = props.retryDelay().toMillis();
+        long delay = initialDelay;
+        while (running) {
+            try {
+                if (sub.position < 0) {
+                    sub.position = sub.durable
+                            ? store.offset(sub.name, store.maxSeq())
+                            : store.positionAt(OffsetDateTime.now(clock).minus(sub.replay));
+                }
+                Outcome outcome = sub.durable
+                        ? claimTx.execute(status -> handleClaimed(sub))
+                        : handle(sub, sub.position);
+                if (outcome == Outcome.CAUGHT_UP) {
+                    awaitRelay(sub.position);
+                    continue;
+                }
+                if (outcome == Outcome.CLAIMED_ELSEWHERE) {
+                    pause(props.pollInterval().toNanos());
+                    continue;
+                }
+                delay = initialDelay;
+            } catch (RuntimeException ex) {
+                log.warn("FEED_EVENTS_CONSUMER_FAILED consumer={} afterSeq={} retryInMs={} error={}",
+                        sub.name, sub.position, delay, ex.toString());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delay = Math.min(delay * 2, props.maxRetryDelay().toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Runs in claimTx: the offset row stays locked until the batch and its new offset commit. */
+    private Outcome handleClaimed(Subscription sub) {
+        Long offset = store.claimOffset(sub.name);
+        if (offset == null) {
+            return Outcome.CLAIMED_ELSEWHERE;
+        }
+        sub.position = offset;
+        Outcome outcome = handle(sub, offset);
+        if (outcome == Outcome.HANDLED) {
+            store.saveOffset(sub.name, sub.position);
+        }
+        return outcome;
+    }
+
+    private Outcome handle(Subscription sub, long position) {
+        List<FeedEvent> batch = next(position);
+        if (batch.isEmpty()) {
+            return Outcome.CAUGHT_UP;
+        }
+        sub.handler.accept(batch);
+        sub.position = batch.getLast().seq();
+        return Outcome.HANDLED;
+    }
+
+    /**
+     * Up to batchSize events after {@code position}, from memory when it still holds them all.
+     */
+    private List<FeedEvent> next(long position) {
+        lock.lock();
+        try {
+            if (position >= tailFloor) {
+                List<FeedEvent> newer = new ArrayList<>();
+                Iterator<FeedEvent> it = tail.descendingIterator();
+                while (it.hasNext()) {
+                    FeedEvent event = it.next();
+                    if (event.seq() <= position) {
+                        break;
+                    }
+                    newer.add(event);
+                }
+                Collections.reverse(newer);
+                return newer.size() > props.batchSize() ? List.copyOf(newer.subList(0, props.batchSize())) : newer;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return store.readAfter(position, props.batchSize());
+    }
+
+    private void awaitRelay(long position) throws InterruptedException {
+        lock.lock();
+        try {
+            if (running && head <= position) {
+                relayed.awaitNanos(IDLE_WAIT_NANOS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Waits up to {@code nanos}, or until the next relay or stop(). */
+    private void pause(long nanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (running) {
+                relayed.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private enum Outcome { HANDLED, CAUGHT_UP, CLAIMED_ELSEWHERE }
+
+    private static final class Subscription {
+
+        final String name;
+        final boolean durable;
+        final Duration replay;
+        final Consumer<List<FeedEvent>> handler;
+        // Last processed seq; -1 until resolved on the consumer's thread.
+        volatile long position = -1;
+        volatile Thread thread;
+
+        Subscription(String name, boolean durable, Duration replay, Consumer<List<FeedEvent>> handler) {
+            this.name = name;
+            this.durable = durable;
+            this.replay = replay;
+            this.handler = handler;
+        }
+    }
+}
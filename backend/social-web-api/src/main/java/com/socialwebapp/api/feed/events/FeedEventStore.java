@@ -0,0 +1,114 @@
+package com.socialwebapp.api.feed.events;
+
+import com.socialwebapp.api.feed.data.FeedPostEntity;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * SQL behind the post event outbox and consumer offsets.
+ */
+@Component
+public class FeedEventStore {
+
+    private static final String COLUMNS = "seq, event_type, post_id, author_id, tags, occurred_at";
+
+    private final JdbcTemplate jdbc;
+
+    public FeedEventStore(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(FeedEvent.Type type, FeedPostEntity post, Set<String> addedTags) {
+        jdbc.update("insert into feed_post_events (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?)",
+                post.getChangeSeq(), type.name(), post.getId(), post.getAuthorId(),
+                String.join(" ", addedTags), post.getUpdatedAt());
+    }
+
+    /** Events with seq &gt; {@code afterSeq}, oldest first. */
+    public List<FeedEvent> readAfter(long afterSeq, int limit) {
+        return jdbc.query("select " + COLUMNS + " from feed_post_events where seq > ? order by seq "
+                + "fetch first ? rows only", FeedEventStore::map, afterSeq, limit);
+    }
+
+    public long maxSeq() {
+        Long seq = jdbc.queryForObject("select max(seq) from feed_post_events", Long.class);
+        return seq == null ? 0 : seq;
+    }
+
+    /**
+     * Position to read from to replay everything that happened at or after {@code since}
+     * (the current end when nothing did).
+     */
+    public long positionAt(OffsetDateTime since) {
+        Long first = jdbc.queryForObject("select min(seq) from feed_post_events where occurred_at >= ?",
+                Long.class, since);
+        return first == null ? maxSeq() : first - 1;
+    }
+
+    /**
+     * The consumer's saved position; a consumer seen for the first time starts at {@code initial}.
+     */
+    public long offset(String consumer, long initial) {
+        try {
+            jdbc.update("insert into feed_event_offsets (consumer, last_seq, updated_at) values (?, ?, ?)",
+                    consumer, initial, OffsetDateTime.now());
+        } catch (DuplicateKeyException ignored) {
+            // seen before, or created concurrently by another instance
+        }
+        return jdbc.queryForObject("select last_seq from feed_event_offsets where consumer = ?",
+                Long.class, consumer);
+    }
+
+    /**
+     * The consumer's saved position, its row locked until the caller's transaction ends; null
+     * while another transaction holds it (or the consumer has no offset).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Long claimOffset(String consumer) {
+        List<Long> seq = jdbc.queryForList("select last_seq from feed_event_offsets where consumer = ? "
+                + "for update skip locked", Long.class, consumer);
+        return seq.isEmpty() ? null : seq.getFirst();
+    }
+
+    public void saveOffset(String consumer, long seq) {
+        jdbc.update("update feed_event_offsets set last_seq = ?, updated_at = ? where consumer = ? and last_seq < ?",
+                seq, OffsetDateTime.now(), consumer, seq);
+    }
+
+    /**
+     * Highest seq that may be purged: older than {@code cutoff} and already processed by
+     * every durable consumer (0 when there is none).
+     */
+    public long purgeHorizon(OffsetDateTime cutoff) {
+        Long seq = jdbc.queryForObject("select max(seq) from feed_post_events where occurred_at < ? "
+                + "and seq <= coalesce((select min(last_seq) from feed_event_offsets), seq)", Long.class, cutoff);
+        return seq == null ? 0 : seq;
+    }
+
+    public int purge(long throughSeq, int batchSize) {
+        return jdbc.update("delete from feed_post_events where seq in (select seq from feed_post_events "
+                + "where seq <= ? fetch first ? rows only)", throughSeq, batchSize);
+    }
+
+    private static FeedEvent map(ResultSet rs, int row) throws SQLException {
+        String tags = rs.getString(5);
+        return new FeedEvent(
+                rs.getLong(1),
+                FeedEvent.Type.valueOf(rs.getString(2)),
+                rs.getObject(3, UUID.class),
+                rs.getObject(4, UUID.class),
+                tags.isEmpty() ? Set.of() : Set.copyOf(Arrays.asList(tags.split(" "))),
+                rs.getObject(6, OffsetDateTime.class));
+    }
+}
@@ -0,0 +1,23 @@
+package com.socialwebapp.api.feed.events;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Post event outbox and relay (see FeedEventLog).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.feed.events")
+public record FeedEventsProperties(
+        @DefaultValue("PT0.2S") Duration pollInterval,
+        @DefaultValue("500") @Min(1) int batchSize,
+        @DefaultValue("10000") @Min(1) int bufferSize,
+        @DefaultValue("PT1S") Duration retryDelay,
+        @DefaultValue("PT30S") Duration maxRetryDelay,
+        @DefaultValue("P1D") Duration retention,
+        @DefaultValue("PT10M") Duration purgeInterval,
+        @DefaultValue("1000") @Min(1) int purgeBatchSize
+) {}
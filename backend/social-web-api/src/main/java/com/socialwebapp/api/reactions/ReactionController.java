@@ -0,0 +1,43 @@
+package com.socialwebapp.api.reactions;
+
+import com.socialwebapp.api.reactions.dto.ReactRequest;
+import com.socialwebapp.api.reactions.dto.ReactionsResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/feed/{postId}/reactions")
+public class ReactionController {
+
+    private final ReactionService reactionService;
+
+    public ReactionController(ReactionService reactionService) {
+        this.reactionService = reactionService;
+    }
+
+    @PutMapping
+    public ResponseEntity<ReactionsResponse> react(
+            @PathVariable String postId,
+            @RequestBody @Valid ReactRequest request,
+            Authentication authentication
+    ) {
+        String kind = reactionService.react(postId, request.kind(), authentication.getName());
+        return ResponseEntity.ok(reactionService.summary(postId, kind));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> unreact(
+            @PathVariable String postId,
+            Authentication authentication
+    ) {
+        reactionService.unreact(postId, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
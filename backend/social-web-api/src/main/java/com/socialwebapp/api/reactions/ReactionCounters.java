@@ -0,0 +1,361 @@
+package com.socialwebapp.api.reactions;
+
+import com.socialwebapp.db.InvalidationBus;
+import com.socialwebapp.diagnostics.CacheLookupEvent;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reaction totals per (post, kind), counted in memory and flushed in batches.
+ * Flushes upsert in key order, so two instances flushing the same posts never deadlock.
+ */
+@Component
+public class ReactionCounters {
+
+    public static final String TOPIC = "reactions";
+
+    private static final Logger log = LoggerFactory.getLogger(ReactionCounters.class);
+
+    private static final int STRIPES = 16;
+    // One writer slot per cache line, so stripes do not false-share.
+    private static final int PAD = 8;
+
+    private static final String POSTGRES_UPSERT = """
+            insert into feed_post_reaction_counts (post_id, kind, total) values (?, ?, ?)
+            on conflict (post_id, kind) do update set total = feed_post_reaction_counts.total + excluded.total
+            """;
+
+    private static final String MERGE_UPSERT = """
+            merge into feed_post_reaction_counts t
+            using (select cast(? as uuid) post_id, cast(? as varchar(16)) kind, cast(? as bigint) total) s
+            on t.post_id = s.post_id and t.kind = s.kind
+            when matched then update set total = t.total + s.total
+            when not matched then insert (post_id, kind, total) values (s.post_id, s.kind, s.total)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final InvalidationBus invalidations;
+    private final long totalsTtlNanos;
+    // A lock, not a monitor: flush() holds it across JDBC, which would pin a virtual thread.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Guards totals, and the handover of flushing into totals.
+    private final LinkedHashMap<UUID, Totals> totals;
+
+    private volatile Generation current = new Generation();
+    private volatile Generation flushing;
+    // Guarded by totals: flushes whose batch has been handed over to totals.
+    private long flushes;
+    private volatile String upsertSql;
+
+    public ReactionCounters(JdbcTemplate jdbc, PlatformTransactionManager txManager, ReactionsProperties props,
+                            InvalidationBus invalidations) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.invalidations = invalidations;
+        this.totalsTtlNanos = props.totalsTtl().toNanos();
+        int cacheSize = props.totalsCacheSize();
+        this.totals = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Totals> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        invalidations.subscribe(TOPIC, this::evictTotals);
+    }
+
+    public void add(UUID postId, ReactionKind kind, long delta) {
+        Key key = new Key(postId, kind.code());
+        int slot = (int) (Thread.currentThread().threadId() & (STRIPES - 1)) * PAD;
+        while (true) {
+            Generation gen = current;
+            gen.writers.incrementAndGet(slot);
+            try {
+                // Re-check after announcing: flush() may have swapped generations in between.
+                if (gen == current) {
+                    gen.deltas.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+                    return;
+                }
+            } finally {
+                gen.writers.decrementAndGet(slot);
+            }
+        }
+    }
+
+    /**
+     * Applies +1 for {@code added} and -1 for {@code removed} (either may be null) once the
+     * current transaction commits, immediately when there is none.
+     */
+    public void addAfterCommit(UUID postId, ReactionKind added, ReactionKind removed) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(postId, added, removed);
+                }
+            });
+        } else {
+            apply(postId, added, removed);
+        }
+    }
+
+    private void apply(UUID postId, ReactionKind added, ReactionKind removed) {
+        if (added != null) {
+            add(postId, added, 1);
+        }
+        if (removed != null) {
+            add(postId, removed, -1);
+        }
+    }
+
+    public Map<String, Long> countsFor(UUID postId) {
+        return countsFor(List.of(postId)).get(postId);
+    }
+
+    /**
+     * Current counts for each post, kind code to count, zero counts left out.
+     */
+    public Map<UUID, Map<String, Long>> countsFor(Collection<UUID> postIds) {
+        Map<UUID, Map<String, Long>> flushed = new HashMap<>();
+        List<UUID> hits = new ArrayList<>();
+        List<UUID> misses = new ArrayList<>();
+        long flushesBefore;
+
+        long now = System.nanoTime();
+        synchronized (totals) {
+            for (UUID id : postIds) {
+                Totals t = totals.get(id);
+                if (t != null && now - t.loadedAt < totalsTtlNanos) {
+                    hits.add(id);
+                    flushed.put(id, t.counts);
+                } else {
+                    misses.add(id);
+                }
+            }
+            flushesBefore = flushes;
+        }
+        CacheLookupEvent.record("reaction-totals", postIds.size(), hits.size());
+
+        Map<UUID, Map<String, Long>> loaded = misses.isEmpty() ? Map.of() : load(misses);
+        synchronized (totals) {
+            long loadedAt = System.nanoTime();
+            for (UUID id : misses) {
+                Map<String, Long> counts = Map.copyOf(loaded.getOrDefault(id, Map.of()));
+                flushed.put(id, counts);
+                // Not cached when a flush finished meanwhile: the load may predate its batch.
+                if (flushes == flushesBefore) {
+                    totals.put(id, new Totals(counts, loadedAt));
+                }
+            }
+            // Cached totals and pending deltas read together, under the monitor the flush
+            // hands its deltas over with, so a batch is counted exactly once.
+            for (UUID id : hits) {
+                Totals t = totals.get(id);
+                if (t != null) {
+                    flushed.put(id, t.counts);
+                }
+            }
+            return withPending(postIds, flushed, current, flushing);
+        }
+    }
+
+    private static Map<UUID, Map<String, Long>> withPending(Collection<UUID> postIds,
+                                                            Map<UUID, Map<String, Long>> flushed,
+                                                            Generation gen, Generation inFlight) {
+        Map<UUID, Map<String, Long>> out = new HashMap<>();
+        for (UUID id : postIds) {
+            Map<String, Long> base = flushed.getOrDefault(id, Map.of());
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (ReactionKind kind : ReactionKind.values()) {
+                Key key = new Key(id, kind.code());
+                long n = base.getOrDefault(kind.code(), 0L) + gen.pending(key);
+                if (inFlight != null && inFlight != gen) {
+                    n += inFlight.pending(key);
+                }
+                if (n > 0) {
+                    counts.put(kind.code(), n);
+                }
+            }
+            out.put(id, counts);
+        }
+        return out;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.reactions.flush-interval:PT1S}",
+            initialDelayString = "${app.reactions.flush-interval:PT1S}"
+    )
+    public void flush() {
+        flushLock.lock();
+        try {
+            Generation gen = current;
+            if (gen.deltas.isEmpty()) {
+                return;
+            }
+
+            // Publish as in-flight before the swap, so readers never miss these deltas.
+            flushing = gen;
+            current = new Generation();
+            gen.awaitWriters();
+
+            TreeMap<Key, Long> batch = new TreeMap<>();
+            gen.deltas.forEach((key, adder) -> {
+                long delta = adder.sum();
+                if (delta != 0) {
+                    batch.put(key, delta);
+                }
+            });
+
+            long started = System.nanoTime();
+            try {
+                if (!batch.isEmpty()) {
+                    upsert(batch);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("REACTION_FLUSH_FAILED keys={} error={}", batch.size(), ex.toString());
+                synchronized (totals) {
+                    batch.forEach((key, delta) ->
+                            add(key.postId(), ReactionKind.parse(key.kind()).orElseThrow(), delta));
+                    flushing = null;
+                }
+                return;
+            }
+
+            synchronized (totals) {
+                batch.forEach((key, delta) -> {
+                    Totals t = totals.get(key.postId());
+                    if (t == null) {
+                        return;
+                    }
+                    if (t.loadedAt - started >= 0) {
+                        totals.remove(key.postId());
+                    } else {
+                        totals.put(key.postId(), t.plus(key.kind(), delta));
+                    }
+                });
+                flushes++;
+                flushing = null;
+            }
+            log.debug("REACTION_FLUSH keys={}", batch.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void upsert(TreeMap<Key, Long> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((key, delta) -> rows.add(new Object[]{key.postId(), key.kind(), delta}));
+        String sql = upsertSql();
+        Set<String> posts = new HashSet<>();
+        batch.keySet().forEach(key -> posts.add(key.postId().toString()));
+        tx.executeWithoutResult(status -> {
+            jdbc.batchUpdate(sql, rows);
+            // This instance's totals are updated in place by flush() itself.
+            invalidations.publishToOthers(TOPIC, posts);
+        });
+    }
+
+    private void evictTotals(Set<String> postIds) {
+        synchronized (totals) {
+            if (postIds.isEmpty()) {
+                totals.clear();
+            } else {
+                postIds.forEach(id -> totals.remove(UUID.fromString(id)));
+            }
+        }
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            Boolean postgres = jdbc.execute((ConnectionCallback<Boolean>) con ->
+                    "PostgreSQL".equals(con.getMetaData().getDatabaseProductName()));
+            sql = Boolean.TRUE.equals(postgres) ? POSTGRES_UPSERT : MERGE_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    private Map<UUID, Map<String, Long>> load(List<UUID> postIds) {
+        String placeholders = String.join(",", Collections.nCopies(postIds.size(), "?"));
+        Map<UUID, Map<String, Long>> out = new HashMap<>();
+        jdbc.query(
+                "select post_id, kind, total from feed_post_reaction_counts where post_id in (" + placeholders + ")",
+                rs -> {
+                    out.computeIfAbsent(rs.getObject(1, UUID.class), k -> new HashMap<>())
+                            .put(rs.getString(2), rs.getLong(3));
+                },
+                postIds.toArray());
+        return out;
+    }
+
+    record Key(UUID postId, String kind) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER =
+                Comparator.comparing(Key::postId).thenComparing(Key::kind);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record Totals(Map<String, Long> counts, long loadedAt) {
+
+        Totals plus(String kind, long delta) {
+            Map<String, Long> next = new HashMap<>(counts);
+            next.merge(kind, delta, Long::sum);
+            return new Totals(Map.copyOf(next), loadedAt);
+        }
+    }
+
+    private static final class Generation {
+
+        final ConcurrentHashMap<Key, LongAdder> deltas = new ConcurrentHashMap<>();
+        final AtomicLongArray writers = new AtomicLongArray(STRIPES * PAD);
+
+        long pending(Key key) {
+            LongAdder adder = deltas.get(key);
+            return adder == null ? 0 : adder.sum();
+        }
+
+        void awaitWriters() {
+            for (int i = 0; i < STRIPES; i++) {
+                while (writers.get(i * PAD) != 0) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+}
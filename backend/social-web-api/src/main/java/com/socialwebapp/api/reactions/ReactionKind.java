@@ -0,0 +1,36 @@
+package com.socialwebapp.api.reactions;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Reaction types a user can leave on a post (one per user and post).
+ * {@link #code()} is what the API and database store.
+ */
+public enum ReactionKind {
+    LIKE,
+    LOVE,
+    LAUGH,
+    WOW,
+    SAD,
+    ANGRY;
+
+    private final String code = name().toLowerCase(Locale.ROOT);
+
+    public String code() {
+        return code;
+    }
+
+    public static Optional<ReactionKind> parse(String raw) {
+        if (raw == null) {
+            return Optional.empty();
+        }
+        String clean = raw.strip().toLowerCase(Locale.ROOT);
+        for (ReactionKind kind : values()) {
+            if (kind.code.equals(clean)) {
+                return Optional.of(kind);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,108 @@
+package com.socialwebapp.api.reactions;
+
+import com.socialwebapp.api.feed.data.FeedPostStore;
+import com.socialwebapp.api.reactions.data.ReactionRepository;
+import com.socialwebapp.api.reactions.dto.ReactionsResponse;
+import com.socialwebapp.auth.data.UserEntity;
+import com.socialwebapp.auth.data.UserRepository;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * One reaction per user and post; counters move after commit and only when the row changed.
+ */
+@Service
+public class ReactionService {
+
+    private final ReactionRepository reactions;
+    private final ReactionCounters counters;
+    private final FeedPostStore store;
+    private final UserRepository userRepository;
+
+    public ReactionService(ReactionRepository reactions,
+                           ReactionCounters counters,
+                           FeedPostStore store,
+                           UserRepository userRepository) {
+        this.reactions = reactions;
+        this.counters = counters;
+        this.store = store;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @return the stored kind code
+     */
+    @Transactional
+    public String react(String postId, String rawKind, String currentUserEmail) {
+
+        ReactionKind kind = ReactionKind.parse(rawKind)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid kind"));
+
+        UUID post = livePost(postId);
+        long userId = currentUser(currentUserEmail).getId();
+        var now = OffsetDateTime.now();
+
+        if (reactions.insertIfAbsent(post, userId, kind.code(), now) == 1) {
+            counters.addAfterCommit(post, kind, null);
+        } else {
+            // Row lock: concurrent changes by the same user apply one after the other.
+            Optional<ReactionKind> previous = reactions.lockKind(post, userId).flatMap(ReactionKind::parse);
+            if (previous.isEmpty()) {
+                // Removed between our insert and the lock; the user's latest intent is this kind.
+                reactions.insertIfAbsent(post, userId, kind.code(), now);
+                counters.addAfterCommit(post, kind, null);
+            } else if (previous.get() != kind) {
+                reactions.updateKind(post, userId, kind.code(), now);
+                counters.addAfterCommit(post, kind, previous.get());
+            }
+        }
+
+        return kind.code();
+    }
+
+    /**
+     * Counts including the caller's change; call after react/unreact have committed.
+     */
+    public ReactionsResponse summary(String postId, String mine) {
+        UUID post = parseId(postId);
+        return new ReactionsResponse(post.toString(), counters.countsFor(post), mine);
+    }
+
+    @Transactional
+    public void unreact(String postId, String currentUserEmail) {
+
+        UUID post = parseId(postId);
+        long userId = currentUser(currentUserEmail).getId();
+
+        Optional<ReactionKind> previous = reactions.lockKind(post, userId).flatMap(ReactionKind::parse);
+        if (previous.isPresent() && reactions.deleteReaction(post, userId) == 1) {
+            counters.addAfterCommit(post, null, previous.get());
+        }
+    }
+
+    private UUID livePost(String postId) {
+        UUID id = parseId(postId);
+        if (store.findById(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found");
+        }
+        return id;
+    }
+
+    private static UUID parseId(String postId) {
+        try {
+            return UUID.fromString(postId);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid post id");
+        }
+    }
+
+    private UserEntity currentUser(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
+    }
+}
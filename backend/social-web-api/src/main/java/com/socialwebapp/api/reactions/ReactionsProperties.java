@@ -0,0 +1,18 @@
+package com.socialwebapp.api.reactions;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Reaction counters (see ReactionCounters).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.reactions")
+public record ReactionsProperties(
+        @DefaultValue("PT1S") Duration flushInterval,
+        @DefaultValue("PT30S") Duration totalsTtl,
+        @DefaultValue("10000") @Min(1) int totalsCacheSize
+) {}
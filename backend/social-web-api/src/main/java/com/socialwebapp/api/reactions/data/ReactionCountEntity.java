@@ -0,0 +1,70 @@
+package com.socialwebapp.api.reactions.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Flushed reaction totals per (post, kind). Only ReactionCounters writes them (batched upserts);
+ * mapped for schema creation and validation.
+ */
+@Entity
+@Table(name = "feed_post_reaction_counts")
+@IdClass(ReactionCountEntity.Key.class)
+public class ReactionCountEntity {
+
+    @Id
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Id
+    @Column(name = "kind", nullable = false, length = 16)
+    private String kind;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    protected ReactionCountEntity() {
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public static class Key implements Serializable {
+
+        private UUID postId;
+        private String kind;
+
+        protected Key() {
+        }
+
+        public Key(UUID postId, String kind) {
+            this.postId = postId;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(postId, k.postId) && Objects.equals(kind, k.kind);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(postId, kind);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.socialwebapp.api.reactions.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One user's reaction to one post. Written with native SQL in ReactionRepository
+ * (insert-if-absent, update under row lock); mapped for schema creation and validation.
+ */
+@Entity
+@Table(name = "feed_post_reactions")
+@IdClass(ReactionEntity.Key.class)
+public class ReactionEntity {
+
+    @Id
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "kind", nullable = false, length = 16)
+    private String kind;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    protected ReactionEntity() {
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public static class Key implements Serializable {
+
+        private UUID postId;
+        private Long userId;
+
+        protected Key() {
+        }
+
+        public Key(UUID postId, Long userId) {
+            this.postId = postId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(postId, k.postId) && Objects.equals(userId, k.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(postId, userId);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.socialwebapp.api.reactions.data;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Reaction rows. Callers hold a transaction: lockKind takes the row lock that makes
+ * a change of kind (and its counter deltas) happen exactly once under concurrent clicks.
+ */
+public interface ReactionRepository extends JpaRepository<ReactionEntity, ReactionEntity.Key> {
+
+    /** Returns 1 when the row was created, 0 when the user already reacted to the post. */
+    @Modifying
+    @Query(value = "insert into feed_post_reactions (post_id, user_id, kind, created_at) "
+            + "values (:postId, :userId, :kind, :createdAt) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(UUID postId, long userId, String kind, OffsetDateTime createdAt);
+
+    @Query(value = "select kind from feed_post_reactions where post_id = :postId and user_id = :userId for update",
+            nativeQuery = true)
+    Optional<String> lockKind(UUID postId, long userId);
+
+    @Modifying
+    @Query(value = "update feed_post_reactions set kind = :kind, created_at = :createdAt "
+            + "where post_id = :postId and user_id = :userId", nativeQuery = true)
+    int updateKind(UUID postId, long userId, String kind, OffsetDateTime createdAt);
+
+    @Modifying
+    @Query(value = "delete from feed_post_reactions where post_id = :postId and user_id = :userId",
+            nativeQuery = true)
+    int deleteReaction(UUID postId, long userId);
+}
@@ -0,0 +1,8 @@
+package com.socialwebapp.api.reactions.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record ReactRequest(
+        @NotBlank String kind
+) {
+}
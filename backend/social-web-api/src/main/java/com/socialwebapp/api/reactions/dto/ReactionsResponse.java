@@ -0,0 +1,13 @@
+package com.socialwebapp.api.reactions.dto;
+
+import java.util.Map;
+
+/**
+ * Reaction counts of a post (kind to count, zero counts left out) and the caller's own reaction.
+ */
+public record ReactionsResponse(
+        String postId,
+        Map<String, Long> counts,
+        String mine
+) {
+}
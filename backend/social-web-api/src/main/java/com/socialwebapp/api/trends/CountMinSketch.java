@@ -0,0 +1,73 @@
+package com.socialwebapp.api.trends;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch: never underestimates a key's count. Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int[][] counts;
+    private final int width;
+
+    CountMinSketch(int depth, int width) {
+        this.counts = new int[depth][width];
+        this.width = width;
+    }
+
+    int depth() {
+        return counts.length;
+    }
+
+    /**
+     * Counter index of {@code key} in every row (double hashing over a 64-bit FNV-1a hash).
+     */
+    int[] indexes(String key) {
+        long h = fnv1a64(key);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+
+        int[] idx = new int[counts.length];
+        for (int row = 0; row < idx.length; row++) {
+            idx[row] = Math.floorMod(h1 + row * h2, width);
+        }
+        return idx;
+    }
+
+    void add(int[] indexes, int n) {
+        for (int row = 0; row < counts.length; row++) {
+            int[] r = counts[row];
+            int i = indexes[row];
+            // Saturate instead of wrapping on absurd volumes.
+            r[i] = r[i] > Integer.MAX_VALUE - n ? Integer.MAX_VALUE : r[i] + n;
+        }
+    }
+
+    int count(int row, int index) {
+        return counts[row][index];
+    }
+
+    int estimate(int[] indexes) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            min = Math.min(min, counts[row][indexes[row]]);
+        }
+        return min;
+    }
+
+    void clear() {
+        for (int[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private static long fnv1a64(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,61 @@
+package com.socialwebapp.api.trends;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters with a fixed number of counters. Not thread-safe.
+ */
+final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, long[]> counters;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void add(String key, int n) {
+        long[] c = counters.get(key);
+        if (c != null) {
+            c[0] += n;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[]{n});
+            return;
+        }
+
+        // Linear scan: capacity is small (tens), cheaper than keeping a heap in sync.
+        String minKey = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> e : counters.entrySet()) {
+            if (e.getValue()[0] < min) {
+                min = e.getValue()[0];
+                minKey = e.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new long[]{min + n});
+    }
+
+    /** Tracked keys, highest count first. */
+    List<String> keys() {
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(counters.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed());
+        return entries.stream().map(Map.Entry::getKey).toList();
+    }
+
+    long count(String key) {
+        long[] c = counters.get(key);
+        return c == null ? 0 : c[0];
+    }
+
+    void clear() {
+        counters.clear();
+    }
+}
@@ -0,0 +1,145 @@
+package com.socialwebapp.api.trends;
+
+import com.socialwebapp.api.feed.events.FeedEvent;
+import com.socialwebapp.api.feed.events.FeedEventLog;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trending hashtags over a sliding window in fixed memory, fed from the post event log.
+ */
+@Component
+public class TrendingTags {
+
+    static final String CONSUMER = "trending-tags";
+
+    private final Bucket[] buckets;
+    private final long bucketMillis;
+    private final Duration window;
+    private final Clock clock;
+
+    @Autowired
+    public TrendingTags(TrendsProperties props, FeedEventLog events) {
+        this(props, Clock.systemUTC());
+        events.subscribeFrom(CONSUMER, window, this::apply);
+    }
+
+    TrendingTags(TrendsProperties props, Clock clock) {
+        this.bucketMillis = Math.max(1, props.window().toMillis() / props.buckets());
+        this.window = Duration.ofMillis(bucketMillis * props.buckets());
+        this.clock = clock;
+        this.buckets = new Bucket[props.buckets()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket(new CountMinSketch(props.sketchDepth(), props.sketchWidth()),
+                    new SpaceSaving(props.candidatesPerBucket()));
+        }
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    public void record(Collection<String> tags) {
+        record(tags, clock.instant());
+    }
+
+    /**
+     * Counts the tags in the bucket of {@code at}; too old for the window is ignored,
+     * in the future (another instance's clock) counts as now.
+     */
+    public synchronized void record(Collection<String> tags, Instant at) {
+        long now = epoch();
+        long epoch = Math.min(at.toEpochMilli() / bucketMillis, now);
+        if (tags.isEmpty() || epoch <= now - buckets.length) {
+            return;
+        }
+        Bucket bucket = bucket(epoch);
+        for (String tag : tags) {
+            bucket.sketch.add(bucket.sketch.indexes(tag), 1);
+            bucket.candidates.add(tag, 1);
+        }
+    }
+
+    private void apply(List<FeedEvent> events) {
+        for (FeedEvent event : events) {
+            record(event.addedTags(), event.occurredAt().toInstant());
+        }
+    }
+
+    public synchronized List<Trend> top(int n) {
+        long now = epoch();
+
+        Set<String> candidates = new LinkedHashSet<>();
+        for (Bucket b : buckets) {
+            if (isLive(b, now)) {
+                candidates.addAll(b.candidates.keys());
+            }
+        }
+
+        return candidates.stream()
+                .map(tag -> new Trend(tag, estimate(tag, now)))
+                .filter(t -> t.count() > 0)
+                .sorted(Comparator.comparingLong(Trend::count).reversed().thenComparing(Trend::tag))
+                .limit(n)
+                .toList();
+    }
+
+    /**
+     * Window estimate: per sketch row, sum the tag's counters over live buckets; take the minimum row.
+     */
+    private long estimate(String tag, long now) {
+        CountMinSketch any = buckets[0].sketch;
+        int[] idx = any.indexes(tag);
+
+        long best = Long.MAX_VALUE;
+        for (int row = 0; row < any.depth(); row++) {
+            long sum = 0;
+            for (Bucket b : buckets) {
+                if (isLive(b, now)) {
+                    sum += b.sketch.count(row, idx[row]);
+                }
+            }
+            best = Math.min(best, sum);
+        }
+        return best;
+    }
+
+    private Bucket bucket(long epoch) {
+        Bucket b = buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+        if (b.epoch != epoch) {
+            b.sketch.clear();
+            b.candidates.clear();
+            b.epoch = epoch;
+        }
+        return b;
+    }
+
+    private boolean isLive(Bucket b, long now) {
+        return b.epoch > now - buckets.length && b.epoch <= now;
+    }
+
+    private long epoch() {
+        return clock.millis() / bucketMillis;
+    }
+
+    public record Trend(String tag, long count) {}
+
+    private static final class Bucket {
+        final CountMinSketch sketch;
+        final SpaceSaving candidates;
+        long epoch = Long.MIN_VALUE;
+
+        Bucket(CountMinSketch sketch, SpaceSaving candidates) {
+            this.sketch = sketch;
+            this.candidates = candidates;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.socialwebapp.api.trends;
+
+import com.socialwebapp.api.trends.dto.TrendDto;
+import com.socialwebapp.api.trends.dto.TrendsResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/trends")
+public class TrendsController {
+
+    private final TrendingTags trendingTags;
+
+    public TrendsController(TrendingTags trendingTags) {
+        this.trendingTags = trendingTags;
+    }
+
+    @GetMapping
+    public ResponseEntity<TrendsResponse> getTrends(
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        if (limit < 1 || limit > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
+        }
+
+        var items = trendingTags.top(limit).stream()
+                .map(t -> new TrendDto(t.tag(), t.count()))
+                .toList();
+
+        return ResponseEntity.ok(new TrendsResponse(items, trendingTags.window().toString()));
+    }
+}
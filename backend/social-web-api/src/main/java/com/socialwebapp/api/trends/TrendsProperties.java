@@ -0,0 +1,21 @@
+package com.socialwebapp.api.trends;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Sizing of the in-memory trending tags window (see TrendingTags).
+ * Memory is fixed: buckets x (sketchDepth x sketchWidth ints + candidatesPerBucket counters).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.trends")
+public record TrendsProperties(
+        @DefaultValue("PT1H") Duration window,
+        @DefaultValue("12") @Min(1) int buckets,
+        @DefaultValue("4") @Min(1) int sketchDepth,
+        @DefaultValue("2048") @Min(16) int sketchWidth,
+        @DefaultValue("64") @Min(1) int candidatesPerBucket
+) {}
@@ -0,0 +1,4 @@
+package com.socialwebapp.api.trends.dto;
+
+public record TrendDto(String tag, long count) {
+}
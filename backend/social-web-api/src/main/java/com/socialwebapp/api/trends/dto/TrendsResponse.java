@@ -0,0 +1,9 @@
+package com.socialwebapp.api.trends.dto;
+
+import java.util.List;
+
+/**
+ * Trending tags, highest count first. {@code window} is the ISO-8601 duration counted.
+ */
+public record TrendsResponse(List<TrendDto> items, String window) {
+}
@@ -1,6 +1,7 @@
 package com.socialwebapp.auth;
 
 import com.socialwebapp.auth.data.UserRepository;
+import com.socialwebapp.security.JwtRevocations;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 
@@ -14,6 +15,8 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -28,17 +31,23 @@ public class AuthController {
     private final TokenService tokenService;
     private final RegisterService registerService;
     private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokens;
+    private final JwtRevocations revocations;
 
     public AuthController(
             AuthenticationManager authenticationManager,
             TokenService tokenService,
             RegisterService registerService,
-            UserRepository userRepository
+            UserRepository userRepository,
+            RefreshTokenService refreshTokens,
+            JwtRevocations revocations
     ) {
         this.authenticationManager = authenticationManager;
         this.tokenService = tokenService;
         this.registerService = registerService;
         this.userRepository = userRepository;
+        this.refreshTokens = refreshTokens;
+        this.revocations = revocations;
     }
 
     @GetMapping("/ping")
@@ -94,6 +103,31 @@ public class AuthController {
         }
     }
 
+    /**
+     * Renews a session: the refresh token from login (or the previous refresh) for a new access
+     * token and a new refresh token. Each refresh token works once; 401 means log in again.
+     */
+    @PostMapping("/refresh")
+    public TokenService.TokenResponse refresh(@Valid @RequestBody RefreshRequest req) {
+        return tokenService.refresh(req.refreshToken())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "invalid_refresh_token"));
+    }
+
+    /**
+     * Ends this session: revokes the access token it is called with and, when given, the
+     * session's refresh token. Other sessions of the user stay valid.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal Jwt jwt,
+                                       @RequestBody(required = false) LogoutRequest req) {
+        revocations.revokeToken(jwt.getId(), jwt.getExpiresAt());
+        if (req != null) {
+            refreshTokens.revoke(req.refreshToken(), jwt.getSubject());
+        }
+        log.info("Logout OK for email={}", jwt.getSubject());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     public RegisterResponse register(@Valid @RequestBody RegisterRequest req) {
         log.info("Register attempt for email={}", req.email());
@@ -134,6 +168,8 @@ public class AuthController {
     }
 
     public record LoginRequest(@NotBlank String email, @NotBlank String password) {}
+    public record RefreshRequest(@NotBlank String refreshToken) {}
+    public record LogoutRequest(String refreshToken) {}
     public record MeResponse(Long id, String subject) {}
     public record PingResponse(String status) {}
 }
\ No newline at end of file
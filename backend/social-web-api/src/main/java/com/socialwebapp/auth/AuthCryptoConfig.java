@@ -13,6 +13,6 @@ public class AuthCryptoConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder());
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.socialwebapp.auth;
 
 import com.socialwebapp.auth.data.UserRepository;
+import com.socialwebapp.db.ReplicaRoutingDataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,7 +14,8 @@ public class AuthUsersConfig {
 
     @Bean
     public UserDetailsService userDetailsService(UserRepository userRepository) {
-        return usernameOrEmail -> userRepository.findByEmail(usernameOrEmail)
+        // Credential checks always read the primary: a just-registered user may not be on a replica yet.
+        return usernameOrEmail -> ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail(usernameOrEmail))
                 .map(u -> User.withUsername(u.getEmail())
                         .password(u.getPasswordHash())
                         .roles("USER")
@@ -0,0 +1,20 @@
+package com.socialwebapp.auth;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Refresh tokens (see RefreshTokenService).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.auth.refresh")
+public record RefreshTokenProperties(
+        @DefaultValue("P14D") Duration ttl,
+        @DefaultValue("P90D") Duration maxLifetime,
+        @DefaultValue("10000") @Min(1) int cacheSize,
+        @DefaultValue("PT1H") Duration purgeInterval,
+        @DefaultValue("1000") @Min(1) int purgeBatchSize
+) {}
@@ -0,0 +1,275 @@
+package com.socialwebapp.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rotating opaque refresh tokens; only their SHA-256 is stored.
+ * Reusing a rotated token revokes its whole family.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int TOKEN_LENGTH = 43;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final RefreshTokenProperties props;
+    private final Clock clock;
+    private final Map<String, Live> live; // guarded by itself
+
+    @Autowired
+    public RefreshTokenService(JdbcTemplate jdbc, PlatformTransactionManager txManager, RefreshTokenProperties props) {
+        this(jdbc, txManager, props, Clock.systemUTC());
+    }
+
+    RefreshTokenService(JdbcTemplate jdbc, PlatformTransactionManager txManager, RefreshTokenProperties props,
+                        Clock clock) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.props = props;
+        this.clock = clock;
+        int cacheSize = props.cacheSize();
+        this.live = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Live> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /** Starts a family for a freshly authenticated subject and returns its first token. */
+    public String issue(String subject) {
+        Instant now = clock.instant();
+        Instant sessionExpires = now.plus(props.maxLifetime());
+        Live first = new Live(UUID.randomUUID(), subject, sessionExpires, sessionExpires).next(now, props);
+        String token = newToken();
+        String hash = hash(token);
+        insert(hash, first, now);
+        remember(hash, first);
+        return token;
+    }
+
+    /**
+     * Uses up {@code token}: returns its subject and the family's next token, or empty when it
+     * is unknown, expired, revoked or was used before (then its family is revoked too).
+     */
+    public Optional<Rotation> rotate(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return Optional.empty();
+        }
+        String hash = hash(token);
+        Instant now = clock.instant();
+
+        Live current = cached(hash);
+        if (current == null) {
+            Stored stored = load(hash);
+            if (stored == null || stored.revoked()) {
+                return Optional.empty();
+            }
+            if (stored.rotated()) {
+                revokeFamily(stored.token(), "reused");
+                return Optional.empty();
+            }
+            current = stored.token();
+        }
+        if (!now.isBefore(current.expiresAt())) {
+            forget(hash);
+            return Optional.empty();
+        }
+
+        Live next = current.next(now, props);
+        String subject = current.subject();
+        String nextToken = newToken();
+        String nextHash = hash(nextToken);
+        Boolean rotated = tx.execute(status -> {
+            if (!lockUser(subject)) {
+                return null;
+            }
+            int updated = jdbc.update(
+                    "update refresh_tokens set rotated_at = ? where token_hash = ? and rotated_at is null and revoked_at is null",
+                    Timestamp.from(now), hash);
+            if (updated == 0) {
+                return false;
+            }
+            insert(nextHash, next, now);
+            return true;
+        });
+        forget(hash);
+        if (rotated == null) {
+            log.warn("REFRESH_TOKEN_REJECTED reason=no_user subject={}", subject);
+            return Optional.empty();
+        }
+        if (!rotated) {
+            // Used or revoked meanwhile, here or on another instance.
+            revokeFamily(current, "reused");
+            return Optional.empty();
+        }
+        remember(nextHash, next);
+        return Optional.of(new Rotation(current.subject(), nextToken));
+    }
+
+    /**
+     * Logout of {@code subject}: ends the session {@code token} belongs to, if it is a refresh
+     * token of one of theirs. Another subject's token is left alone.
+     */
+    public void revoke(String token, String subject) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return;
+        }
+        Stored stored = load(hash(token));
+        if (stored == null || stored.revoked()) {
+            return;
+        }
+        if (!stored.token().subject().equals(subject)) {
+            log.warn("REFRESH_TOKEN_LOGOUT_IGNORED reason=other_subject subject={} family={}",
+                    subject, stored.token().family());
+            return;
+        }
+        revokeFamily(stored.token(), "logout");
+    }
+
+    /**
+     * Revoke all sessions: ends every session of {@code subject}, including one a concurrent
+     * rotation is extending. Logging in again starts a new one.
+     */
+    public void revokeSubject(String subject) {
+        Integer revoked = tx.execute(status -> {
+            lockUser(subject);
+            return jdbc.update("update refresh_tokens set revoked_at = ? where subject = ? and revoked_at is null",
+                    Timestamp.from(clock.instant()), subject);
+        });
+        synchronized (live) {
+            live.values().removeIf(t -> t.subject().equals(subject));
+        }
+        log.info("REFRESH_TOKENS_REVOKED reason=revoke_all subject={} tokens={}", subject, revoked);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.auth.refresh.purge-interval:PT1H}",
+            initialDelayString = "${app.auth.refresh.purge-interval:PT1H}"
+    )
+    public void purge() {
+        Timestamp cutoff = Timestamp.from(clock.instant());
+        int total = 0;
+        int removed;
+        do {
+            removed = jdbc.update("delete from refresh_tokens where token_hash in "
+                    + "(select token_hash from refresh_tokens where expires_at < ? limit ?)", cutoff, props.purgeBatchSize());
+            total += removed;
+        } while (removed >= props.purgeBatchSize());
+        if (total > 0) {
+            log.info("REFRESH_TOKENS_PURGED rows={}", total);
+        }
+    }
+
+    private void revokeFamily(Live token, String reason) {
+        int revoked = jdbc.update("update refresh_tokens set revoked_at = ? where family_id = ? and revoked_at is null",
+                Timestamp.from(clock.instant()), token.family());
+        synchronized (live) {
+            live.values().removeIf(t -> t.family().equals(token.family()));
+        }
+        if ("reused".equals(reason)) {
+            log.warn("REFRESH_TOKEN_FAMILY_REVOKED reason={} subject={} family={} tokens={}",
+                    reason, token.subject(), token.family(), revoked);
+        } else {
+            log.info("REFRESH_TOKEN_FAMILY_REVOKED reason={} subject={} family={} tokens={}",
+                    reason, token.subject(), token.family(), revoked);
+        }
+    }
+
+    private void insert(String hash, Live token, Instant now) {
+        jdbc.update("insert into refresh_tokens (token_hash, family_id, subject, issued_at, expires_at, session_expires_at) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                hash, token.family(), token.subject(), Timestamp.from(now), Timestamp.from(token.expiresAt()),
+                Timestamp.from(token.sessionExpiresAt()));
+    }
+
+    /** Locks the subject's users row until the transaction ends; false if there is none. */
+    private boolean lockUser(String subject) {
+        return !jdbc.queryForList("select id from users where email = ? for update", Long.class, subject).isEmpty();
+    }
+
+    private Stored load(String hash) {
+        List<Stored> rows = jdbc.query(
+                "select family_id, subject, expires_at, session_expires_at, rotated_at, revoked_at "
+                        + "from refresh_tokens where token_hash = ?",
+                (rs, i) -> new Stored(
+                        new Live(rs.getObject(1, UUID.class), rs.getString(2), rs.getTimestamp(3).toInstant(),
+                                rs.getTimestamp(4).toInstant()),
+                        rs.getTimestamp(5) != null, rs.getTimestamp(6) != null),
+                hash);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    private Live cached(String hash) {
+        synchronized (live) {
+            return live.get(hash);
+        }
+    }
+
+    private void remember(String hash, Live token) {
+        synchronized (live) {
+            live.put(hash, token);
+        }
+    }
+
+    private void forget(String hash) {
+        synchronized (live) {
+            live.remove(hash);
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return BASE64URL.encodeToString(bytes);
+    }
+
+    static String hash(String token) {
+        try {
+            return BASE64URL.encodeToString(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** A successful refresh: whose it was and the token to use next time. */
+    public record Rotation(String subject, String token) {}
+
+    private record Live(UUID family, String subject, Instant expiresAt, Instant sessionExpiresAt) {
+
+        Live next(Instant now, RefreshTokenProperties props) {
+            Instant expires = now.plus(props.ttl());
+            return new Live(family, subject, expires.isAfter(sessionExpiresAt) ? sessionExpiresAt : expires,
+                    sessionExpiresAt);
+        }
+    }
+
+    private record Stored(Live token, boolean rotated, boolean revoked) {}
+}
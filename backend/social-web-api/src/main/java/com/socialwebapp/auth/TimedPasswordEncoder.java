@@ -0,0 +1,43 @@
+package com.socialwebapp.auth;
+
+import com.socialwebapp.diagnostics.PasswordHashEvent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Emits a PasswordHashEvent around each hash and check of the wrapped encoder, so BCrypt time
+ * shows up in JFR recordings next to the requests that paid it.
+ */
+class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    TimedPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        String hash = delegate.encode(rawPassword);
+        event.operation = "encode";
+        event.commit();
+        return hash;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        event.operation = "matches";
+        event.matched = matched;
+        event.commit();
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
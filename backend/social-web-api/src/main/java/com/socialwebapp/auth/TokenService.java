@@ -1,7 +1,10 @@
 package com.socialwebapp.auth;
 
 import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
 
+import com.socialwebapp.diagnostics.TokenIssueEvent;
 import com.socialwebapp.security.JwtProperties;
 
 import org.slf4j.Logger;
@@ -20,29 +23,49 @@ public class TokenService {
 
     private static final Logger log = LoggerFactory.getLogger(TokenService.class);
 
-    public record TokenResponse(String accessToken, String tokenType) {}
+    public record TokenResponse(String accessToken, String tokenType, String refreshToken) {}
 
     private final JwtEncoder jwtEncoder;
     private final JwtProperties props;
+    private final RefreshTokenService refreshTokens;
 
-    public TokenService(JwtEncoder jwtEncoder, JwtProperties props) {
+    public TokenService(JwtEncoder jwtEncoder, JwtProperties props, RefreshTokenService refreshTokens) {
         this.jwtEncoder = jwtEncoder;
         this.props = props;
+        this.refreshTokens = refreshTokens;
     }
 
+    /** After a login: an access token and the first refresh token of a new session. */
     public TokenResponse issue(Authentication auth) {
 
         log.info("TOKEN_ISSUE principalClass={}, name={}",
                 auth.getPrincipal().getClass().getName(),
                 auth.getName());
 
+        return new TokenResponse(accessToken(auth.getName()), "Bearer", refreshTokens.issue(auth.getName()));
+    }
+
+    /**
+     * Trades a refresh token for a new access token and the session's next refresh token; empty
+     * when the refresh token is not (or no longer) valid. No password check: microseconds, not BCrypt.
+     */
+    public Optional<TokenResponse> refresh(String refreshToken) {
+        return refreshTokens.rotate(refreshToken)
+                .map(rotation -> new TokenResponse(accessToken(rotation.subject()), "Bearer", rotation.token()));
+    }
+
+    private String accessToken(String subject) {
+        TokenIssueEvent event = new TokenIssueEvent();
+        event.begin();
+
         Instant now = Instant.now();
 
         JwtClaimsSet claims = JwtClaimsSet.builder()
                 .issuer(props.issuer())
                 .issuedAt(now)
                 .expiresAt(now.plusSeconds(props.ttlSeconds()))
-                .subject(auth.getName())
+                .subject(subject)
+                .id(UUID.randomUUID().toString()) // jti: what logout revokes
                 .build();
 
         JwsHeader headers = JwsHeader.with(MacAlgorithm.HS256).build();
@@ -51,6 +74,9 @@ public class TokenService {
                 .encode(JwtEncoderParameters.from(headers, claims))
                 .getTokenValue();
 
-        return new TokenResponse(tokenValue, "Bearer");
+        event.algorithm = MacAlgorithm.HS256.getName();
+        event.commit();
+
+        return tokenValue;
     }
 }
\ No newline at end of file
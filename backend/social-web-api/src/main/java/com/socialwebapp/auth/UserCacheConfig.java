@@ -0,0 +1,77 @@
+package com.socialwebapp.auth;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.socialwebapp.auth.data.UserEntity;
+import com.socialwebapp.db.InvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate second-level cache for users, by id and by email natural id.
+ */
+@Configuration
+@ConditionalOnBooleanProperty(prefix = "app.auth.user-cache", name = "enabled", matchIfMissing = true)
+public class UserCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    UserCacheRegions userCacheRegions(UserCacheProperties props) {
+        return new UserCacheRegions(props);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer userCacheHibernateProperties(UserCacheRegions regions) {
+        return hibernate -> {
+            hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernate.put(AvailableSettings.USE_QUERY_CACHE, false);
+            hibernate.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernate.put(AvailableSettings.CACHE_REGION_PREFIX, regions.prefix);
+            hibernate.put(ConfigSettings.CACHE_MANAGER, regions.cacheManager);
+            // Regions are created here, bounded; never let Hibernate create an unbounded one.
+            hibernate.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernate.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    UserCacheInvalidation userCacheInvalidation(EntityManagerFactory emf, InvalidationBus invalidations) {
+        return new UserCacheInvalidation(emf, invalidations);
+    }
+
+    /**
+     * The regions, in the JVM-wide Caffeine CacheManager under a prefix of their own (each
+     * application context, e.g. in tests, gets separate regions); destroyed with the context.
+     */
+    static final class UserCacheRegions implements AutoCloseable {
+
+        private static final List<String> REGIONS = List.of(UserEntity.CACHE_REGION, UserEntity.EMAIL_CACHE_REGION);
+
+        final String prefix = "social-web-" + UUID.randomUUID();
+        final CacheManager cacheManager =
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+        UserCacheRegions(UserCacheProperties props) {
+            for (String region : REGIONS) {
+                CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+                config.setMaximumSize(OptionalLong.of(props.maxSize()));
+                config.setExpireAfterWrite(OptionalLong.of(props.ttl().toNanos()));
+                cacheManager.createCache(prefix + "." + region, config);
+            }
+        }
+
+        @Override
+        public void close() {
+            REGIONS.forEach(region -> cacheManager.destroyCache(prefix + "." + region));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.socialwebapp.auth;
+
+import com.socialwebapp.auth.data.UserEntity;
+import com.socialwebapp.db.InvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Evicts a changed user from the other instances' second-level caches.
+ * Updates through JPQL or SQL bypass Hibernate's entity events; publish for them yourself.
+ */
+class UserCacheInvalidation implements PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String TOPIC = "users";
+
+    private static final Set<String> WATCHED = Set.of("email", "passwordHash");
+
+    private final InvalidationBus invalidations;
+    private final Cache cache;
+
+    UserCacheInvalidation(EntityManagerFactory emf, InvalidationBus invalidations) {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        this.invalidations = invalidations;
+        this.cache = sessionFactory.getCache();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        invalidations.subscribe(TOPIC, this::evict);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof UserEntity user && touchesCredentials(event)) {
+            invalidations.publishToOthersNow(TOPIC, List.of(String.valueOf(user.getId())));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof UserEntity) {
+            invalidations.publishToOthersNow(TOPIC, List.of(String.valueOf(event.getId())));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static boolean touchesCredentials(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int i : dirty) {
+            if (WATCHED.contains(names[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evict(Set<String> ids) {
+        if (ids.isEmpty()) {
+            cache.evictEntityData(UserEntity.class);
+        } else {
+            ids.forEach(id -> cache.evictEntityData(UserEntity.class, Long.valueOf(id)));
+        }
+        cache.evictNaturalIdData(UserEntity.class);
+    }
+}
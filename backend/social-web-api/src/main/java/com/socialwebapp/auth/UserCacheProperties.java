@@ -0,0 +1,18 @@
+package com.socialwebapp.auth;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Second-level cache for users (see UserCacheConfig).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.auth.user-cache")
+public record UserCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") @Min(1) long maxSize,
+        @DefaultValue("PT10M") Duration ttl
+) {}
@@ -0,0 +1,39 @@
+package com.socialwebapp.auth;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin bulk user import (admins only, see AdminAuthorization); the body is read as it arrives,
+ * UTF-8. See UserImportService for the formats and outcomes.
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+public class UserImportController {
+
+    private final UserImportService importService;
+
+    public UserImportController(UserImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public UserImportService.Result importCsv(InputStream body) throws IOException {
+        return importService.importUsers(reader(body), UserImportService.Format.CSV);
+    }
+
+    @PostMapping(path = "/import", consumes = "application/x-ndjson")
+    public UserImportService.Result importNdjson(InputStream body) throws IOException {
+        return importService.importUsers(reader(body), UserImportService.Format.NDJSON);
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,18 @@
+package com.socialwebapp.auth;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Bulk user import (see UserImportService).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.auth.import")
+public record UserImportProperties(
+        @DefaultValue("0") @Min(0) int hashParallelism,
+        @DefaultValue("200") @Min(1) @Max(10000) int batchSize,
+        @DefaultValue("50000") @Min(1) int maxRows
+) {}
@@ -0,0 +1,318 @@
+package com.socialwebapp.auth;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Creates users in bulk from a streamed CSV or NDJSON upload, one transaction per batch.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    // As RegisterRequest (@Email, @Size(min = 6, max = 100)), and what users.email holds.
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+");
+    private static final int MAX_EMAIL = 255;
+    private static final int MIN_PASSWORD = 6;
+    private static final int MAX_PASSWORD = 100;
+
+    private static final String INSERT_GUARDED =
+            "insert into users (email, password_hash, created_at) select ?, ?, ? "
+                    + "where not exists (select 1 from users where email = ?)";
+
+    public enum Format { CSV, NDJSON }
+
+    public enum Status { CREATED, EXISTS, DUPLICATE, INVALID }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final PasswordEncoder passwordEncoder;
+    private final JsonMapper json;
+    private final UserImportProperties props;
+    private final ForkJoinPool hashers;
+    private volatile Boolean postgres;
+
+    public UserImportService(JdbcTemplate jdbc, TransactionTemplate tx, PasswordEncoder passwordEncoder,
+                             JsonMapper json, UserImportProperties props) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.passwordEncoder = passwordEncoder;
+        this.json = json;
+        this.props = props;
+        this.hashers = new ForkJoinPool(props.hashParallelism() > 0
+                ? props.hashParallelism() : Runtime.getRuntime().availableProcessors());
+    }
+
+    public Result importUsers(BufferedReader in, Format format) throws IOException {
+        List<Outcome> outcomes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<Row> batch = new ArrayList<>(props.batchSize());
+        int[] columns = null;
+        int line = 0;
+        int rows = 0;
+        boolean truncated = false;
+
+        String text;
+        while ((text = in.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = csvColumns(text);
+                continue;
+            }
+            if (rows == props.maxRows()) {
+                truncated = true;
+                break;
+            }
+            rows++;
+
+            Row row;
+            try {
+                row = format == Format.CSV ? csvRow(line, text, columns) : jsonRow(line, text);
+            } catch (IllegalArgumentException ex) {
+                outcomes.add(new Outcome(line, null, Status.INVALID, null, ex.getMessage()));
+                continue;
+            }
+            String problem = problem(row);
+            if (problem != null) {
+                outcomes.add(new Outcome(line, row.email(), Status.INVALID, null, problem));
+            } else if (!seen.add(row.email())) {
+                outcomes.add(new Outcome(line, row.email(), Status.DUPLICATE, null, null));
+            } else {
+                batch.add(row);
+                if (batch.size() == props.batchSize()) {
+                    insert(batch, outcomes);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, outcomes);
+        }
+
+        outcomes.sort(Comparator.comparingInt(Outcome::line));
+        Result result = Result.of(outcomes, truncated);
+        log.info("USER_IMPORT format={} rows={} created={} existing={} duplicates={} invalid={} truncated={}",
+                format, rows, result.created(), result.existing(), result.duplicates(), result.invalid(), truncated);
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashers.shutdownNow();
+    }
+
+    private void insert(List<Row> batch, List<Outcome> outcomes) {
+        List<String> hashes = hash(batch);
+        Timestamp now = Timestamp.from(Instant.now());
+        Map<String, Long> created = tx.execute(status -> isPostgres()
+                ? insertReturning(batch, hashes, now)
+                : insertGuarded(batch, hashes, now));
+        for (Row row : batch) {
+            Long id = created.get(row.email());
+            outcomes.add(new Outcome(row.line(), row.email(), id != null ? Status.CREATED : Status.EXISTS, id, null));
+        }
+    }
+
+    private List<String> hash(List<Row> batch) {
+        List<Callable<String>> tasks = new ArrayList<>(batch.size());
+        batch.forEach(row -> tasks.add(() -> passwordEncoder.encode(row.password())));
+        List<String> hashes = new ArrayList<>(batch.size());
+        try {
+            for (Future<String> hash : hashers.invokeAll(tasks)) {
+                hashes.add(hash.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while hashing passwords", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("password hashing failed", ex.getCause());
+        }
+        return hashes;
+    }
+
+    private Map<String, Long> insertReturning(List<Row> batch, List<String> hashes, Timestamp now) {
+        String sql = "insert into users (email, password_hash, created_at) values "
+                + String.join(",", Collections.nCopies(batch.size(), "(?, ?, ?)"))
+                + " on conflict (email) do nothing returning id, email";
+        List<Object> args = new ArrayList<>(batch.size() * 3);
+        for (int i = 0; i < batch.size(); i++) {
+            args.add(batch.get(i).email());
+            args.add(hashes.get(i));
+            args.add(now);
+        }
+        Map<String, Long> created = new HashMap<>();
+        jdbc.query(sql, rs -> {
+            created.put(rs.getString(2), rs.getLong(1));
+        }, args.toArray());
+        return created;
+    }
+
+    private Map<String, Long> insertGuarded(List<Row> batch, List<String> hashes, Timestamp now) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            args.add(new Object[]{batch.get(i).email(), hashes.get(i), now, batch.get(i).email()});
+        }
+        int[] counts = jdbc.batchUpdate(INSERT_GUARDED, args);
+        List<String> inserted = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                inserted.add(batch.get(i).email());
+            }
+        }
+        Map<String, Long> created = new HashMap<>();
+        if (!inserted.isEmpty()) {
+            jdbc.query("select id, email from users where email in ("
+                            + String.join(",", Collections.nCopies(inserted.size(), "?")) + ")",
+                    rs -> {
+                        created.put(rs.getString(2), rs.getLong(1));
+                    }, inserted.toArray());
+        }
+        return created;
+    }
+
+    private static String problem(Row row) {
+        if (row.email() == null || row.email().isBlank()) {
+            return "email_required";
+        }
+        if (row.email().length() > MAX_EMAIL || !EMAIL.matcher(row.email()).matches()) {
+            return "email_invalid";
+        }
+        if (row.password() == null || row.password().isBlank()) {
+            return "password_required";
+        }
+        if (row.password().length() < MIN_PASSWORD || row.password().length() > MAX_PASSWORD) {
+            return "password_length";
+        }
+        return null;
+    }
+
+    /** Indexes of the email and password columns, from the header. */
+    private static int[] csvColumns(String header) {
+        List<String> names = csvFields(header);
+        int email = -1;
+        int password = -1;
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            if (name.equals("email")) {
+                email = i;
+            } else if (name.equals("password")) {
+                password = i;
+            }
+        }
+        if (email < 0 || password < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "csv_header_needs_email_and_password");
+        }
+        return new int[]{email, password};
+    }
+
+    private static Row csvRow(int line, String text, int[] columns) {
+        List<String> fields = csvFields(text);
+        if (fields.size() <= Math.max(columns[0], columns[1])) {
+            throw new IllegalArgumentException("missing_columns");
+        }
+        return new Row(line, fields.get(columns[0]).trim(), fields.get(columns[1]));
+    }
+
+    /** One CSV record on one line: comma-separated, fields optionally quoted ("" for a quote). */
+    private static List<String> csvFields(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated_quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private Row jsonRow(int line, String text) {
+        JsonRow row;
+        try {
+            row = json.readValue(text, JsonRow.class);
+        } catch (JacksonException ex) {
+            throw new IllegalArgumentException("malformed_json");
+        }
+        return new Row(line, row.email() == null ? null : row.email().trim(), row.password());
+    }
+
+    private boolean isPostgres() {
+        Boolean pg = postgres;
+        if (pg == null) {
+            pg = Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) con ->
+                    "PostgreSQL".equals(con.getMetaData().getDatabaseProductName())));
+            postgres = pg;
+        }
+        return pg;
+    }
+
+    private record Row(int line, String email, String password) {}
+
+    private record JsonRow(String email, String password) {}
+
+    /** One input row (line numbers count from 1, header included). */
+    public record Outcome(int line, String email, Status status, Long id, String error) {}
+
+    /** Totals and per-row outcomes, in input order; truncated when rows past maxRows were not read. */
+    public record Result(int created, int existing, int duplicates, int invalid, boolean truncated,
+                         List<Outcome> rows) {
+
+        static Result of(List<Outcome> rows, boolean truncated) {
+            int[] counts = new int[Status.values().length];
+            rows.forEach(o -> counts[o.status().ordinal()]++);
+            return new Result(counts[Status.CREATED.ordinal()], counts[Status.EXISTS.ordinal()],
+                    counts[Status.DUPLICATE.ordinal()], counts[Status.INVALID.ordinal()], truncated, rows);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.socialwebapp.auth;
+
+import com.socialwebapp.security.JwtRevocations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Revoke all sessions of a user (admins only). Not a lockout: the user can log in again.
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+public class UserSessionsController {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSessionsController.class);
+
+    private final JwtRevocations revocations;
+    private final RefreshTokenService refreshTokens;
+
+    public UserSessionsController(JwtRevocations revocations, RefreshTokenService refreshTokens) {
+        this.revocations = revocations;
+        this.refreshTokens = refreshTokens;
+    }
+
+    @DeleteMapping("/{email}/sessions")
+    public ResponseEntity<Void> revokeSessions(@PathVariable String email) {
+        // Refresh tokens first: none can mint a token after the access tokens' cut-off.
+        refreshTokens.revokeSubject(email);
+        revocations.revokeSubject(email);
+        log.info("SESSIONS_REVOKED email={}", email);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.socialwebapp.auth.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One refresh token, by its hash. Mapped so Hibernate creates (tests) and validates
+ * (Flyway V12) it; reads and writes go through RefreshTokenService's SQL.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshTokenEntity {
+
+    @Id
+    @Column(name = "token_hash", nullable = false, length = 43)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "subject", nullable = false, length = 255)
+    private String subject;
+
+    @Column(name = "issued_at", nullable = false)
+    private OffsetDateTime issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "session_expires_at", nullable = false)
+    private OffsetDateTime sessionExpiresAt;
+
+    @Column(name = "rotated_at")
+    private OffsetDateTime rotatedAt;
+
+    @Column(name = "revoked_at")
+    private OffsetDateTime revokedAt;
+
+    protected RefreshTokenEntity() {
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public UUID getFamilyId() {
+        return familyId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public OffsetDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public OffsetDateTime getSessionExpiresAt() {
+        return sessionExpiresAt;
+    }
+
+    public OffsetDateTime getRotatedAt() {
+        return rotatedAt;
+    }
+
+    public OffsetDateTime getRevokedAt() {
+        return revokedAt;
+    }
+}
@@ -4,20 +4,34 @@ import jakarta.persistence.*;
 
 import java.time.Instant;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 /**
  * Persistence model for application users.
+ * Cached in the second-level cache by id and by email (see UserCacheConfig).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserEntity.CACHE_REGION)
+@NaturalIdCache(region = UserEntity.EMAIL_CACHE_REGION)
 @Table(
         name = "users",
         uniqueConstraints = @UniqueConstraint(name = "uk_users_email", columnNames = "email")
 )
 public class UserEntity {
 
+    public static final String CACHE_REGION = "users";
+    public static final String EMAIL_CACHE_REGION = "users-by-email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, length = 255)
     private String email;
 
@@ -27,6 +41,14 @@ public class UserEntity {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    /**
+     * Mapped for the schema only: set in the database, never through JPA, and read by
+     * AdminAuthorization with SQL (a cached copy here could be stale).
+     */
+    @ColumnDefault("false")
+    @Column(name = "is_admin", nullable = false, insertable = false, updatable = false)
+    private boolean admin;
+
     protected UserEntity() {
         // for JPA
     }
@@ -0,0 +1,11 @@
+package com.socialwebapp.auth.data;
+
+import java.util.Optional;
+
+/**
+ * User lookups that go through the second-level cache rather than a query.
+ */
+public interface UserLookup {
+
+    Optional<UserEntity> findByEmail(String email);
+}
@@ -3,8 +3,10 @@ package com.socialwebapp.auth.data;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserLookup {
 
+    /** By natural id, through the second-level cache (see UserLookupImpl). */
+    @Override
     Optional<UserEntity> findByEmail(String email);
 
     boolean existsByEmail(String email);
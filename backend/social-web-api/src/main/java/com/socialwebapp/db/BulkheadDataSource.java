@@ -0,0 +1,149 @@
+package com.socialwebapp.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Caps how many threads can hold a connection at once. A thread that already holds one gets
+ * further connections without waiting.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int size;
+    private final long maxWaitNanos;
+    private final ThreadLocal<Hold> held = new ThreadLocal<>();
+    private final LongAdder rejected = new LongAdder();
+
+    public BulkheadDataSource(DataSource target, int permits, Duration maxWait) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.size = permits;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Hold hold = enter();
+        try {
+            return wrap(super.getConnection(), hold);
+        } catch (SQLException | RuntimeException ex) {
+            exit(hold);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Hold hold = enter();
+        try {
+            return wrap(super.getConnection(username, password), hold);
+        } catch (SQLException | RuntimeException ex) {
+            exit(hold);
+            throw ex;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /** Whether the calling thread holds a connection (and so a permit) right now. */
+    public boolean heldByCurrentThread() {
+        Hold hold = held.get();
+        return hold != null && hold.connections.get() > 0;
+    }
+
+    private Hold enter() throws SQLException {
+        Hold hold = held.get();
+        while (hold != null) {
+            int n = hold.connections.get();
+            if (n == 0) {
+                break;
+            }
+            if (hold.connections.compareAndSet(n, n + 1)) {
+                return hold;
+            }
+        }
+
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new BulkheadFullException(size);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", ex);
+        }
+
+        hold = new Hold();
+        held.set(hold);
+        return hold;
+    }
+
+    private void exit(Hold hold) {
+        if (hold.connections.decrementAndGet() == 0) {
+            permits.release();
+            if (held.get() == hold) {
+                held.remove();
+            }
+        }
+    }
+
+    private Connection wrap(Connection target, Hold hold) {
+        AtomicBoolean closed = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                try {
+                    target.close();
+                } finally {
+                    exit(hold);
+                }
+                return null;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                BulkheadDataSource.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static final class Hold {
+
+        final AtomicInteger connections = new AtomicInteger(1);
+    }
+
+    public static class BulkheadFullException extends SQLTransientConnectionException {
+
+        BulkheadFullException(int permits) {
+            super("All " + permits + " connection permits are in use");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.socialwebapp.db;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Connection bulkhead (see BulkheadDataSource). permits=0 means the primary pool's
+ * spring.datasource.hikari.maximum-pool-size.
+ */
+@ConfigurationProperties(prefix = "app.datasource.bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0") int permits,
+        @DefaultValue("PT1S") Duration maxWait
+) {}
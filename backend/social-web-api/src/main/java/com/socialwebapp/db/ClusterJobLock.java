@@ -0,0 +1,54 @@
+package com.socialwebapp.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Lets one instance at a time run a scheduled job, through a Postgres advisory lock; the others
+ * skip that run. Other databases always run the job.
+ */
+final class ClusterJobLock {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterJobLock.class);
+
+    private final JdbcTemplate jdbc;
+
+    ClusterJobLock(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Runs {@code job} unless another instance holds {@code key}; returns whether it ran.
+     */
+    boolean runExclusively(long key, String name, Runnable job) {
+        Boolean ran = jdbc.execute((ConnectionCallback<Boolean>) con -> {
+            if (!"PostgreSQL".equals(con.getMetaData().getDatabaseProductName())) {
+                job.run();
+                return true;
+            }
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try {
+                boolean granted;
+                try (var st = con.prepareStatement("select pg_try_advisory_xact_lock(?)")) {
+                    st.setLong(1, key);
+                    try (var rs = st.executeQuery()) {
+                        granted = rs.next() && rs.getBoolean(1);
+                    }
+                }
+                if (!granted) {
+                    log.info("JOB_SKIPPED job={} reason=running_elsewhere", name);
+                    return false;
+                }
+                job.run();
+                return true;
+            } finally {
+                con.rollback(); // ends the transaction, which releases the lock
+                con.setAutoCommit(autoCommit);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+}
@@ -0,0 +1,81 @@
+package com.socialwebapp.db;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Wraps the application DataSource in a BulkheadDataSource when app.datasource.bulkhead.enabled=true
+ * (by default: whenever spring.threads.virtual.enabled=true), and publishes its meters.
+ */
+@Configuration
+@ConditionalOnBooleanProperty(prefix = "app.datasource.bulkhead", name = "enabled")
+public class ConnectionBulkheadConfig {
+
+    // Static: post-processors are created before the regular beans (and property binding).
+    @Bean
+    static BeanPostProcessor connectionBulkhead(Environment env) {
+        return new BulkheadPostProcessor(env);
+    }
+
+    @Bean
+    MeterBinder connectionBulkheadMetrics(DataSource dataSource) throws SQLException {
+        BulkheadDataSource bulkhead = dataSource.unwrap(BulkheadDataSource.class);
+        return registry -> {
+            Gauge.builder("app.db.bulkhead.available", bulkhead, BulkheadDataSource::available)
+                    .description("Free connection permits")
+                    .register(registry);
+            Gauge.builder("app.db.bulkhead.waiting", bulkhead, BulkheadDataSource::waiting)
+                    .description("Threads waiting for a connection permit")
+                    .register(registry);
+            FunctionCounter.builder("app.db.bulkhead.rejected", bulkhead, BulkheadDataSource::rejected)
+                    .description("Connection requests that timed out waiting for a permit")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Puts the bulkhead under the lazy proxy (LazyConnectionConfig), so a permit is taken when
+     * a statement first needs a connection, not when a transaction begins.
+     */
+    private static final class BulkheadPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment env;
+
+        BulkheadPostProcessor(Environment env) {
+            this.env = env;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource ds) || !"dataSource".equals(beanName)) {
+                return bean;
+            }
+            Binder binder = Binder.get(env);
+            BulkheadProperties props = binder.bindOrCreate("app.datasource.bulkhead", BulkheadProperties.class);
+            int permits = props.permits() > 0
+                    ? props.permits()
+                    : binder.bind("spring.datasource.hikari.maximum-pool-size", Integer.class).orElse(10);
+            if (ds instanceof LazyConnectionDataSourceProxy lazy) {
+                lazy.setTargetDataSource(new BulkheadDataSource(lazy.getTargetDataSource(), permits, props.maxWait()));
+                return lazy;
+            }
+            return new BulkheadDataSource(ds, permits, props.maxWait());
+        }
+
+        @Override
+        public int getOrder() {
+            return LazyConnectionConfig.ORDER - 1;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.socialwebapp.db;
+
+import com.socialwebapp.api.feed.data.ShardedFeedPostStore;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps monthly feed_posts partitions ahead of time and retires old ones. There is no DEFAULT
+ * partition, so inserts fail if this falls behind.
+ */
+@Component
+@ConditionalOnBooleanProperty(prefix = "app.feed.partitions", name = "enabled")
+public class FeedPostPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedPostPartitionMaintenance.class);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("feed_posts_p(\\d{4})(\\d{2})");
+
+    /** Advisory lock key of maintain() (see ClusterJobLock). */
+    static final long LOCK_KEY = 0x66656564_70617274L; // "feedpart"
+
+    private final JdbcTemplate jdbc;
+    private final PartitionProperties props;
+    private final ObjectProvider<ShardedFeedPostStore> shards;
+    private final Clock clock;
+    private final ClusterJobLock lock;
+
+    @Autowired
+    public FeedPostPartitionMaintenance(
+            JdbcTemplate jdbc,
+            PartitionProperties props,
+            ObjectProvider<ShardedFeedPostStore> shards
+    ) {
+        this(jdbc, props, shards, Clock.systemUTC());
+    }
+
+    public FeedPostPartitionMaintenance(JdbcTemplate jdbc, PartitionProperties props) {
+        this(jdbc, props, null, Clock.systemUTC());
+    }
+
+    FeedPostPartitionMaintenance(
+            JdbcTemplate jdbc,
+            PartitionProperties props,
+            ObjectProvider<ShardedFeedPostStore> shards,
+            Clock clock
+    ) {
+        this.jdbc = jdbc;
+        this.props = props;
+        this.shards = shards;
+        this.clock = clock;
+        this.lock = new ClusterJobLock(jdbc);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.feed.partitions.cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        lock.runExclusively(LOCK_KEY, "partition-maintenance", () -> {
+            YearMonth now = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+            ensureRange(now, now.plusMonths(props.premakeMonths()));
+            retireBefore(now.minusMonths(props.retentionMonths()));
+        });
+    }
+
+    /**
+     * Creates the partitions for every month in [from, to] that does not exist yet.
+     */
+    public void ensureRange(YearMonth from, YearMonth to) {
+        for (JdbcTemplate db : databases()) {
+            for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+                db.queryForObject("select feed_posts_ensure_partition(?)", String.class,
+                        Date.valueOf(m.atDay(1)));
+            }
+        }
+    }
+
+    /**
+     * Detaches (and archives/drops) partitions whose month is before cutoff.
+     *
+     * @return names of retired partitions
+     */
+    public List<String> retireBefore(YearMonth cutoff) {
+        List<String> retired = new ArrayList<>();
+        for (JdbcTemplate db : databases()) {
+            retired.addAll(retireBefore(db, cutoff));
+        }
+        return retired;
+    }
+
+    private List<String> retireBefore(JdbcTemplate db, YearMonth cutoff) {
+        List<String> retired = new ArrayList<>();
+
+        for (String name : attachedPartitions(db)) {
+            Matcher m = PARTITION_NAME.matcher(name);
+            if (!m.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+
+            db.execute("ALTER TABLE feed_posts DETACH PARTITION " + name);
+            switch (props.retireMode()) {
+                case DETACH -> { }
+                case ARCHIVE -> {
+                    db.execute("CREATE SCHEMA IF NOT EXISTS " + props.archiveSchema());
+                    db.execute("ALTER TABLE " + name + " SET SCHEMA " + props.archiveSchema());
+                }
+                case DROP -> db.execute("DROP TABLE " + name);
+            }
+
+            log.info("PARTITION_RETIRED name={} mode={}", name, props.retireMode());
+            retired.add(name);
+        }
+
+        return retired;
+    }
+
+    List<String> attachedPartitions() {
+        return attachedPartitions(jdbc);
+    }
+
+    private List<JdbcTemplate> databases() {
+        ShardedFeedPostStore sharded = shards == null ? null : shards.getIfAvailable();
+        if (sharded == null) {
+            return List.of(jdbc);
+        }
+        List<JdbcTemplate> all = new ArrayList<>(sharded.shards());
+        all.add(0, jdbc);
+        return all;
+    }
+
+    private static List<String> attachedPartitions(JdbcTemplate db) {
+        return db.queryForList("""
+                select c.relname
+                from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                where i.inhparent = 'feed_posts'::regclass
+                order by c.relname
+                """, String.class);
+    }
+}
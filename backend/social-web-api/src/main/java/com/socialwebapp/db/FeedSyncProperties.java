@@ -0,0 +1,19 @@
+package com.socialwebapp.db;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Delta sync tombstones (see FeedTombstonePurger).
+ * A client that has not synced for longer than tombstoneRetention has to reload its feed.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.feed.sync")
+public record FeedSyncProperties(
+        @DefaultValue("P7D") Duration tombstoneRetention,
+        @DefaultValue("PT10M") Duration purgeInterval,
+        @DefaultValue("1000") @Min(1) int purgeBatchSize
+) {}
@@ -0,0 +1,74 @@
+package com.socialwebapp.db;
+
+import com.socialwebapp.api.feed.data.FeedChangeLog;
+import com.socialwebapp.api.feed.data.FeedPostStore;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hard-deletes old feed_posts tombstones, recording the purge horizon first.
+ */
+@Component
+public class FeedTombstonePurger {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedTombstonePurger.class);
+
+    /** Advisory lock key of purge() (see ClusterJobLock). */
+    static final long LOCK_KEY = 0x66656564_70757267L; // "feedpurg"
+
+    private final FeedPostStore store;
+    private final FeedChangeLog changeLog;
+    private final FeedSyncProperties props;
+    private final Clock clock;
+    private final ClusterJobLock lock;
+
+    @Autowired
+    public FeedTombstonePurger(FeedPostStore store, FeedChangeLog changeLog, FeedSyncProperties props,
+                               JdbcTemplate jdbc) {
+        this(store, changeLog, props, Clock.systemUTC(), new ClusterJobLock(jdbc));
+    }
+
+    FeedTombstonePurger(FeedPostStore store, FeedChangeLog changeLog, FeedSyncProperties props, Clock clock,
+                        ClusterJobLock lock) {
+        this.store = store;
+        this.changeLog = changeLog;
+        this.props = props;
+        this.clock = clock;
+        this.lock = lock;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.feed.sync.purge-interval:PT10M}",
+            initialDelayString = "${app.feed.sync.purge-interval:PT10M}"
+    )
+    public void purge() {
+        lock.runExclusively(LOCK_KEY, "tombstone-purge", this::purgeNow);
+    }
+
+    private void purgeNow() {
+        OffsetDateTime cutoff = OffsetDateTime.now(clock).minus(props.tombstoneRetention());
+        long horizon = store.tombstoneHorizon(cutoff);
+        if (horizon == 0) {
+            return;
+        }
+
+        changeLog.advancePurgedThrough(horizon);
+
+        long started = System.nanoTime();
+        int total = 0;
+        int removed;
+        do {
+            removed = store.purgeTombstones(horizon, props.purgeBatchSize());
+            total += removed;
+        } while (removed >= props.purgeBatchSize());
+
+        log.info("FEED_TOMBSTONES_PURGED throughSeq={} rows={} elapsedMs={}",
+                horizon, total, (System.nanoTime() - started) / 1_000_000);
+    }
+}
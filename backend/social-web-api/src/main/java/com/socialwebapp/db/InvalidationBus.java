@@ -0,0 +1,322 @@
+package com.socialwebapp.db;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells every API instance which of its in-process cache entries a write made stale.
+ * Keys must not contain '|', ';', '=' or ','.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    // NOTIFY payloads must stay below 8000 bytes; past this, topics are invalidated whole.
+    static final int MAX_PAYLOAD = 7900;
+    private static final long PEER_IDLE_NANOS = 3_600_000_000_000L;
+
+    private final JdbcTemplate jdbc;
+    private final String channel;
+    private final long gapGraceNanos;
+    private final LongSupplier nanoClock;
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicLong seq = new AtomicLong();
+    private final Map<String, List<Consumer<Set<String>>>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Peer> peers = new HashMap<>();
+    private final AtomicLong resyncs = new AtomicLong();
+    private volatile Boolean postgres;
+
+    @Autowired
+    public InvalidationBus(JdbcTemplate jdbc, InvalidationProperties props) {
+        this(jdbc, props, System::nanoTime);
+    }
+
+    InvalidationBus(JdbcTemplate jdbc, InvalidationProperties props, LongSupplier nanoClock) {
+        this.jdbc = jdbc;
+        this.channel = props.channel();
+        this.gapGraceNanos = props.gapGrace().toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Registers {@code evict} for a topic. It gets the stale keys, or an empty set for "everything".
+     */
+    public void subscribe(String topic, Consumer<Set<String>> evict) {
+        subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(evict);
+    }
+
+    public void publish(String topic, Collection<String> keys) {
+        publish(topic, keys, true);
+    }
+
+    public void publishToOthers(String topic, Collection<String> keys) {
+        publish(topic, keys, false);
+    }
+
+    /**
+     * publishToOthers, sent at once instead of just before commit: for callers that run while
+     * their transaction is already committing (Hibernate flush listeners), when that hook has
+     * passed. In a transaction the NOTIFY is still only delivered if it commits.
+     */
+    public void publishToOthersNow(String topic, Collection<String> keys) {
+        checkToken(topic);
+        keys.forEach(InvalidationBus::checkToken);
+        Pending single = new Pending();
+        single.add(topic, keys, false);
+        send(single.remote);
+    }
+
+    public long resyncs() {
+        return resyncs.get();
+    }
+
+    String channel() {
+        return channel;
+    }
+
+    String origin() {
+        return origin;
+    }
+
+    private void publish(String topic, Collection<String> keys, boolean local) {
+        checkToken(topic);
+        keys.forEach(InvalidationBus::checkToken);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Pending single = new Pending();
+            single.add(topic, keys, local);
+            send(single.remote);
+            deliver(single.local);
+            return;
+        }
+
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            Pending registered = pending;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(registered.remote);
+                }
+
+                @Override
+                public void afterCommit() {
+                    deliver(registered.local);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBus.this);
+                }
+            });
+        }
+        pending.add(topic, keys, local);
+    }
+
+    private void send(Map<String, Set<String>> topics) {
+        if (topics.isEmpty() || !isPostgres()) {
+            return;
+        }
+        String body = encode(topics, false);
+        if (body.length() > MAX_PAYLOAD) {
+            body = encode(topics, true);
+        }
+        String payload = origin + "|" + seq.incrementAndGet() + "|" + body;
+        jdbc.query("select pg_notify(?, ?)", rs -> { }, channel, payload);
+    }
+
+    /**
+     * Called by the LISTEN connection for every notification on the channel.
+     */
+    void receive(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("INVALIDATION_MALFORMED payload={}", payload);
+            return;
+        }
+        if (origin.equals(parts[0])) {
+            return;
+        }
+
+        long n;
+        try {
+            n = Long.parseLong(parts[1]);
+        } catch (NumberFormatException ex) {
+            log.warn("INVALIDATION_MALFORMED payload={}", payload);
+            return;
+        }
+        synchronized (peers) {
+            peers.computeIfAbsent(parts[0], o -> new Peer(n)).saw(n, nanoClock.getAsLong());
+        }
+        deliver(decode(parts[2]));
+    }
+
+    /**
+     * Resyncs when a peer's missing notification has not shown up within gapGrace.
+     */
+    void checkGaps() {
+        long now = nanoClock.getAsLong();
+        boolean gap = false;
+        synchronized (peers) {
+            Iterator<Peer> it = peers.values().iterator();
+            while (it.hasNext()) {
+                Peer peer = it.next();
+                if (peer.holeSince != 0 && now - peer.holeSince > gapGraceNanos) {
+                    peer.skipHoles();
+                    gap = true;
+                } else if (peer.holeSince == 0 && now - peer.lastSeen > PEER_IDLE_NANOS) {
+                    it.remove();
+                }
+            }
+        }
+        if (gap) {
+            resync("gap");
+        }
+    }
+
+    /**
+     * Drops everything every subscriber caches: some invalidations may have been missed.
+     */
+    void resync(String reason) {
+        resyncs.incrementAndGet();
+        log.info("INVALIDATION_RESYNC reason={}", reason);
+        Map<String, Set<String>> all = new HashMap<>();
+        subscribers.keySet().forEach(topic -> all.put(topic, Set.of()));
+        deliver(all);
+    }
+
+    private void deliver(Map<String, Set<String>> topics) {
+        topics.forEach((topic, keys) -> {
+            for (Consumer<Set<String>> evict : subscribers.getOrDefault(topic, List.of())) {
+                try {
+                    evict.accept(keys);
+                } catch (RuntimeException ex) {
+                    log.warn("INVALIDATION_HANDLER_FAILED topic={} error={}", topic, ex.toString());
+                }
+            }
+        });
+    }
+
+    private boolean isPostgres() {
+        Boolean pg = postgres;
+        if (pg == null) {
+            pg = Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) con ->
+                    "PostgreSQL".equals(con.getMetaData().getDatabaseProductName())));
+            postgres = pg;
+        }
+        return pg;
+    }
+
+    // topic=k1,k2;topic2=   (no keys: the whole topic)
+    static String encode(Map<String, Set<String>> topics, boolean wholeTopics) {
+        List<String> parts = new ArrayList<>(topics.size());
+        topics.forEach((topic, keys) -> parts.add(topic + "=" + (wholeTopics ? "" : String.join(",", keys))));
+        return String.join(";", parts);
+    }
+
+    static Map<String, Set<String>> decode(String body) {
+        Map<String, Set<String>> topics = new LinkedHashMap<>();
+        for (String part : body.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String keys = part.substring(eq + 1);
+            topics.put(part.substring(0, eq), keys.isEmpty() ? Set.of() : Set.of(keys.split(",")));
+        }
+        return topics;
+    }
+
+    private static void checkToken(String token) {
+        if (token == null || token.isEmpty() || token.chars().anyMatch(c -> c == '|' || c == ';' || c == '=' || c == ',')) {
+            throw new IllegalArgumentException("invalid invalidation topic or key: " + token);
+        }
+    }
+
+    /** One transaction's invalidations, merged per topic (an empty set means the whole topic). */
+    private static final class Pending {
+
+        final Map<String, Set<String>> remote = new LinkedHashMap<>();
+        final Map<String, Set<String>> local = new LinkedHashMap<>();
+
+        void add(String topic, Collection<String> keys, boolean includeLocal) {
+            merge(remote, topic, keys);
+            if (includeLocal) {
+                merge(local, topic, keys);
+            }
+        }
+
+        private static void merge(Map<String, Set<String>> into, String topic, Collection<String> keys) {
+            Set<String> existing = into.get(topic);
+            if (keys.isEmpty() || (existing != null && existing.isEmpty())) {
+                into.put(topic, Set.of());
+            } else if (existing == null) {
+                into.put(topic, new HashSet<>(keys));
+            } else {
+                existing.addAll(keys);
+            }
+        }
+    }
+
+    /** Sequence tracking for one other instance. */
+    private static final class Peer {
+
+        long next;
+        final TreeSet<Long> ahead = new TreeSet<>();
+        long holeSince;
+        long lastSeen;
+
+        Peer(long first) {
+            this.next = first;
+        }
+
+        void saw(long n, long now) {
+            lastSeen = now;
+            if (n == next) {
+                next++;
+                while (ahead.remove(next)) {
+                    next++;
+                }
+                if (ahead.isEmpty()) {
+                    holeSince = 0;
+                }
+            } else if (n > next) {
+                ahead.add(n);
+                if (holeSince == 0) {
+                    holeSince = now;
+                }
+            }
+        }
+
+        void skipHoles() {
+            next = ahead.last() + 1;
+            ahead.clear();
+            holeSince = 0;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.socialwebapp.db;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds this instance's LISTEN connection, outside the pool, and feeds the InvalidationBus.
+ */
+@Component
+public class InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationListener.class);
+
+    private final InvalidationBus bus;
+    private final DataSource dataSource;
+    private final InvalidationProperties props;
+    private final boolean enabled;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+    private volatile Connection connection;
+
+    @Autowired
+    public InvalidationListener(InvalidationBus bus, DataSourceProperties properties, InvalidationProperties props) {
+        this(bus, new DriverManagerDataSource(
+                        properties.determineUrl(), properties.determineUsername(), properties.determinePassword()),
+                props, props.listen() && properties.determineUrl().startsWith("jdbc:postgresql:"));
+    }
+
+    InvalidationListener(InvalidationBus bus, DataSource dataSource, InvalidationProperties props, boolean enabled) {
+        this.bus = bus;
+        this.dataSource = dataSource;
+        this.props = props;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("invalidation-listener").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        Thread t = thread;
+        if (t != null) {
+            t.interrupt();
+            closeQuietly(connection);
+        }
+    }
+
+    boolean isListening() {
+        return connection != null;
+    }
+
+    private void run() {
+        long delay = props.reconnectDelay().toMillis();
+        int pollMillis = (int) Math.max(1, props.pollInterval().toMillis());
+
+        while (running) {
+            try (Connection con = dataSource.getConnection()) {
+                PGConnection pg = con.unwrap(PGConnection.class);
+                try (Statement st = con.createStatement()) {
+                    st.execute("LISTEN " + bus.channel());
+                }
+                connection = con;
+                delay = props.reconnectDelay().toMillis();
+                log.info("INVALIDATION_LISTENING channel={}", bus.channel());
+                bus.resync("connected");
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollMillis);
+                    if (notifications != null && notifications.length > 0) {
+                        for (PGNotification n : notifications) {
+                            bus.receive(n.getParameter());
+                        }
+                    } else {
+                        try (Statement st = con.createStatement()) {
+                            st.execute("select 1");
+                        }
+                    }
+                    bus.checkGaps();
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    break;
+                }
+                log.warn("INVALIDATION_LISTEN_FAILED retryInMs={} error={}", delay, ex.toString());
+            } finally {
+                connection = null;
+            }
+
+            if (!sleep(delay)) {
+                break;
+            }
+            delay = Math.min(delay * 2, props.maxReconnectDelay().toMillis());
+        }
+        log.info("INVALIDATION_STOPPED channel={}", bus.channel());
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(Duration.ofMillis(millis));
+            return running;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection con) {
+        if (con == null) {
+            return;
+        }
+        try {
+            con.close();
+        } catch (SQLException ignored) {
+            // shutting down
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.socialwebapp.db;
+
+import jakarta.validation.constraints.Pattern;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Cross-instance cache invalidation (see InvalidationBus, InvalidationListener).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.invalidation")
+public record InvalidationProperties(
+        @DefaultValue("true") boolean listen,
+        @DefaultValue("app_invalidation") @Pattern(regexp = "[a-z_][a-z0-9_]*") String channel,
+        @DefaultValue("PT10S") Duration pollInterval,
+        @DefaultValue("PT1S") Duration reconnectDelay,
+        @DefaultValue("PT30S") Duration maxReconnectDelay,
+        @DefaultValue("PT5S") Duration gapGrace
+) {}
@@ -0,0 +1,42 @@
+package com.socialwebapp.db;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Makes the application DataSource lazy: a transaction takes a connection at its first statement,
+ * so one that only waits (e.g. on a coalesced feed read) holds none.
+ */
+@Configuration
+public class LazyConnectionConfig {
+
+    // After the bulkhead, before unordered wrappers such as the slow query timing.
+    static final int ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+
+    // Static: post-processors are created before the regular beans.
+    @Bean
+    static BeanPostProcessor lazyConnections() {
+        return new LazyPostProcessor();
+    }
+
+    private static final class LazyPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource ds && "dataSource".equals(beanName)
+                    && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                return new LazyConnectionDataSourceProxy(ds);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.socialwebapp.db;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Monthly feed_posts partition maintenance (see FeedPostPartitionMaintenance).
+ * Retired partitions are handled per {@link RetireMode}.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.feed.partitions")
+public record PartitionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("3") @Min(1) int premakeMonths,
+        @DefaultValue("24") @Min(1) int retentionMonths,
+        @DefaultValue("ARCHIVE") RetireMode retireMode,
+        @DefaultValue("feed_archive") @NotBlank @Pattern(regexp = "[a-z_][a-z0-9_]*") String archiveSchema
+) {
+
+    public enum RetireMode {
+        /** Detach only; the table stays next to feed_posts. */
+        DETACH,
+        /** Detach and move the table into archiveSchema. */
+        ARCHIVE,
+        /** Detach and drop the table. */
+        DROP
+    }
+}
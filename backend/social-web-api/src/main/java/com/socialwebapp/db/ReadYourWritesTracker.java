@@ -0,0 +1,67 @@
+package com.socialwebapp.db;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Remembers which subjects wrote recently, so their reads stay on the primary (read-your-writes).
+ */
+public class ReadYourWritesTracker {
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    public ReadYourWritesTracker(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(Duration window, LongSupplier clock) {
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+    }
+
+    public void markWrite(String subject) {
+        if (subject == null || windowNanos <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        pinnedUntil.put(subject, now + windowNanos);
+
+        if (pinnedUntil.size() > SWEEP_THRESHOLD) {
+            pinnedUntil.values().removeIf(deadline -> deadline - now <= 0);
+        }
+    }
+
+    public boolean isPinned(String subject) {
+        if (subject == null) {
+            return false;
+        }
+        Long deadline = pinnedUntil.get(subject);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline - clock.getAsLong() <= 0) {
+            pinnedUntil.remove(subject, deadline);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * JWT subject of the current request thread, or null when unauthenticated.
+     */
+    public static String currentSubject() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
@@ -0,0 +1,21 @@
+package com.socialwebapp.db;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replicas used for @Transactional(readOnly = true) work.
+ */
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<String> urls,
+        String username,
+        String password,
+        @DefaultValue("5") int maxPoolSize,
+        @DefaultValue("PT1S") Duration connectionTimeout,
+        @DefaultValue("PT5S") Duration stickiness,
+        @DefaultValue("PT30S") Duration retryAfter
+) {}
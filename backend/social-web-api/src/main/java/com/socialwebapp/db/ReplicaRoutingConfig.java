@@ -0,0 +1,73 @@
+package com.socialwebapp.db;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the auto-configured DataSource with primary + replica pools when
+ * app.datasource.replicas.enabled=true. Off by default: one datasource, no routing.
+ */
+@Configuration
+@ConditionalOnBooleanProperty(prefix = "app.datasource.replicas", name = "enabled")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replicas) {
+        return new ReadYourWritesTracker(replicas.stickiness());
+    }
+
+    /** Owns the replica pools: closed (with them) when the context closes. */
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ReplicaProperties replicas,
+            ReadYourWritesTracker tracker
+    ) {
+        List<DataSource> pools = new ArrayList<>();
+        List<String> urls = replicas.urls().stream().filter(url -> !url.isBlank()).toList();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(orDefault(replicas.username(), properties.determineUsername()));
+            replica.setPassword(orDefault(replicas.password(), properties.determinePassword()));
+            replica.setMaximumPoolSize(replicas.maxPoolSize());
+            // Hikari's default 30s would stall every routed read on a dead replica.
+            replica.setConnectionTimeout(replicas.connectionTimeout().toMillis());
+            replica.setReadOnly(true);
+            // Do not fail startup when a replica is down; routing falls back to the primary.
+            replica.setInitializationFailTimeout(-1);
+            pools.add(replica);
+        }
+
+        return new ReplicaRoutingDataSource(primaryDataSource, pools, tracker, replicas.retryAfter());
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
@@ -0,0 +1,148 @@
+package com.socialwebapp.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to replicas and everything else to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            List<DataSource> replicas,
+            ReadYourWritesTracker tracker,
+            Duration retryAfter
+    ) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.tracker = tracker;
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    /**
+     * Runs the action with all connections taken from the primary (e.g. credential checks,
+     * which must never see a stale row).
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(ds -> ds.getConnection(username, password));
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable pool) {
+                try {
+                    pool.close();
+                } catch (Exception ex) {
+                    log.warn("REPLICA_POOL_CLOSE_FAILED index={} error={}", replicas.indexOf(replica), ex.toString());
+                }
+            }
+        }
+    }
+
+    private Connection route(Connect connect) throws SQLException {
+        if (!routeToReplica()) {
+            return connect.from(primary);
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isUsable()) {
+                continue;
+            }
+            try {
+                return connect.from(replica.dataSource);
+            } catch (SQLException ex) {
+                replica.markDown(retryAfterNanos);
+                log.warn("REPLICA_DOWN index={} retryAfterMs={} msg={}",
+                        replicas.indexOf(replica), retryAfterNanos / 1_000_000, ex.getMessage());
+            }
+        }
+
+        return connect.from(primary);
+    }
+
+    private boolean routeToReplica() {
+        if (replicas.isEmpty() || Boolean.TRUE.equals(FORCE_PRIMARY.get())) {
+            return false;
+        }
+
+        String subject = ReadYourWritesTracker.currentSubject();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.markWrite(subject);
+            }
+            return false;
+        }
+
+        return !tracker.isPinned(subject);
+    }
+
+    @FunctionalInterface
+    private interface Connect {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        final DataSource dataSource;
+        volatile long downUntil;
+        volatile boolean down;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        boolean isUsable() {
+            return !down || System.nanoTime() - downUntil >= 0;
+        }
+
+        void markDown(long forNanos) {
+            downUntil = System.nanoTime() + forNanos;
+            down = true;
+        }
+    }
+}
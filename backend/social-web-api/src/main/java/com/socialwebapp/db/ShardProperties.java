@@ -0,0 +1,20 @@
+package com.socialwebapp.db;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Author-sharded feed_posts storage (see ShardedFeedPostStore).
+ * Order of urls is the shard number: append to grow, never reorder.
+ */
+@ConfigurationProperties(prefix = "app.feed.shards")
+public record ShardProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<String> urls,
+        String username,
+        String password,
+        @DefaultValue("5") int maxPoolSize,
+        @DefaultValue("PT0.5S") Duration timeout
+) {}
@@ -0,0 +1,86 @@
+package com.socialwebapp.db;
+
+import com.socialwebapp.api.feed.data.ShardedFeedPostStore;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Builds one pool per feed_posts shard when app.feed.shards.enabled=true.
+ */
+@Configuration
+@ConditionalOnBooleanProperty(prefix = "app.feed.shards", name = "enabled")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    ExecutorService shardQueryExecutor(ShardProperties props, Environment env) {
+        if (Threading.VIRTUAL.isActive(env)) {
+            // Shard pools and their timeouts bound the work; no need to bound the threads too.
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shard-query-", 1).factory());
+        }
+        AtomicInteger n = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(2, props.urls().size() * 2), r -> {
+            Thread t = new Thread(r, "shard-query-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Bean
+    ShardedFeedPostStore shardedFeedPostStore(
+            ShardProperties props,
+            DataSourceProperties primary,
+            ExecutorService shardQueryExecutor
+    ) {
+        List<JdbcTemplate> shards = new ArrayList<>();
+        for (int i = 0; i < props.urls().size(); i++) {
+            String url = props.urls().get(i);
+
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("shard-" + i);
+            ds.setJdbcUrl(url);
+            ds.setUsername(orDefault(props.username(), primary.determineUsername()));
+            ds.setPassword(orDefault(props.password(), primary.determinePassword()));
+            ds.setMaximumPoolSize(props.maxPoolSize());
+            ds.setConnectionTimeout(Math.max(250, props.timeout().toMillis()));
+
+            if (url.startsWith("jdbc:h2:")) {
+                new ResourceDatabasePopulator(new ClassPathResource("db/shard/feed_posts_h2.sql")).execute(ds);
+            } else {
+                Flyway.configure()
+                        .dataSource(ds)
+                        .locations("classpath:db/shard/postgres")
+                        .table("shard_schema_history")
+                        // Shards migrated with db/migration before: baseline below V1, which is idempotent.
+                        .baselineOnMigrate(true)
+                        .baselineVersion("0")
+                        .load()
+                        .migrate();
+            }
+
+            JdbcTemplate jdbc = new JdbcTemplate(ds);
+            // Server-side cancel as well, so a timed-out shard stops working on the query.
+            jdbc.setQueryTimeout((int) Math.max(1, props.timeout().toSeconds()));
+            shards.add(jdbc);
+        }
+
+        return new ShardedFeedPostStore(shards, shardQueryExecutor, props.timeout());
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
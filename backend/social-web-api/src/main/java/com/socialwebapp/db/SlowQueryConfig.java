@@ -0,0 +1,43 @@
+package com.socialwebapp.db;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Times the application DataSource's statements into a SlowQueryLog (app.db.slow-queries.enabled,
+ * on by default) and exposes it as /actuator/slowqueries.
+ */
+@Configuration
+@ConditionalOnBooleanProperty(prefix = "app.db.slow-queries", name = "enabled", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    // Static: needed by the post-processor below, which is created before property binding.
+    @Bean
+    static SlowQueryLog slowQueryLog(Environment env) {
+        return new SlowQueryLog(Binder.get(env).bindOrCreate("app.db.slow-queries", SlowQueryProperties.class));
+    }
+
+    @Bean
+    static BeanPostProcessor slowQueryTiming(ObjectProvider<SlowQueryLog> slowQueries) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && "dataSource".equals(beanName)) {
+                    return slowQueries.getObject().wrap(ds);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueries) {
+        return new SlowQueryEndpoint(slowQueries);
+    }
+}
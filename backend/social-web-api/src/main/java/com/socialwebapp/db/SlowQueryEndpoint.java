@@ -0,0 +1,35 @@
+package com.socialwebapp.db;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * /actuator/slowqueries: GET the slowest normalized queries with their captured plans,
+ * DELETE to start over (e.g. after a deploy).
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueries;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueries) {
+        this.slowQueries = slowQueries;
+    }
+
+    @ReadOperation
+    public Report report() {
+        SlowQueryProperties props = slowQueries.properties();
+        return new Report(props.window().toString(), props.trackAbove().toMillis(), props.explainAbove().toMillis(),
+                slowQueries.untracked(), slowQueries.top());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueries.reset();
+    }
+
+    public record Report(String window, long trackAboveMs, long explainAboveMs, long untracked,
+                         List<SlowQueryLog.QueryStats> queries) {}
+}
@@ -0,0 +1,333 @@
+package com.socialwebapp.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every JDBC statement on the application DataSource and keeps the slowest queries,
+ * grouped by normalized SQL.
+ */
+public class SlowQueryLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int MAX_SQL_LENGTH = 4000;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern SPACE = Pattern.compile("\\s+");
+
+    private final SlowQueryProperties props;
+    private final LongSupplier nanoClock;
+    private final long trackNanos;
+    private final long explainNanos;
+    private final long windowNanos;
+    private final long explainIntervalNanos;
+    private final ThreadPoolExecutor explainer;
+
+    private final ConcurrentHashMap<String, Long> explainedAt = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Plan> plans = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+
+    private volatile Generation current;
+    private volatile Generation previous;
+    private volatile DataSource explainTarget;
+    private volatile Boolean postgres;
+
+    public SlowQueryLog(SlowQueryProperties props) {
+        this(props, System::nanoTime);
+    }
+
+    SlowQueryLog(SlowQueryProperties props, LongSupplier nanoClock) {
+        this.props = props;
+        this.nanoClock = nanoClock;
+        this.trackNanos = props.trackAbove().toNanos();
+        this.explainNanos = props.explainAbove().toNanos();
+        this.windowNanos = props.window().toNanos();
+        this.explainIntervalNanos = props.explainInterval().toNanos();
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.explainQueue())),
+                Thread.ofPlatform().daemon().name("slow-query-explain").factory(),
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.current = new Generation(nanoClock.getAsLong());
+    }
+
+    /**
+     * Wraps {@code target} so its statements are timed; plans are captured on {@code target} itself.
+     */
+    public DataSource wrap(DataSource target) {
+        this.explainTarget = target;
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return timed(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return timed(super.getConnection(username, password));
+            }
+        };
+    }
+
+    public void record(String sql, long nanos) {
+        if (nanos < trackNanos || sql == null) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        Generation gen = rotate(now);
+        String key = normalize(sql);
+
+        Stats stats = gen.queries.get(key);
+        if (stats == null) {
+            if (gen.queries.size() >= props.maxTracked()) {
+                untracked.increment();
+                return;
+            }
+            stats = gen.queries.computeIfAbsent(key, k -> new Stats());
+        }
+        stats.add(nanos);
+
+        if (nanos >= explainNanos) {
+            slow(key, sql, nanos, now);
+        }
+    }
+
+    /** The topN queries of the last one to two windows, slowest first (by max, then total time). */
+    public List<QueryStats> top() {
+        rotate(nanoClock.getAsLong());
+        Map<String, QueryStats> merged = new HashMap<>();
+        for (Generation gen : new Generation[]{previous, current}) {
+            if (gen == null) {
+                continue;
+            }
+            gen.queries.forEach((sql, stats) -> merged.merge(sql, stats.snapshot(sql, plans.get(sql)), QueryStats::plus));
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingDouble(QueryStats::maxMs).reversed()
+                        .thenComparing(Comparator.comparingDouble(QueryStats::totalMs).reversed()))
+                .limit(props.topN())
+                .toList();
+    }
+
+    public long untracked() {
+        return untracked.sum();
+    }
+
+    public SlowQueryProperties properties() {
+        return props;
+    }
+
+    public synchronized void reset() {
+        previous = null;
+        current = new Generation(nanoClock.getAsLong());
+        plans.clear();
+        explainedAt.clear();
+        untracked.reset();
+    }
+
+    @Override
+    public void close() {
+        explainer.shutdownNow();
+    }
+
+    static String normalize(String sql) {
+        String s = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) : sql;
+        s = STRING_LITERAL.matcher(s).replaceAll("?");
+        s = NUMBER.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?...)");
+        return SPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    /** JDBC ? placeholders (outside quotes) as Postgres $n, which EXPLAIN (GENERIC_PLAN) accepts unbound. */
+    static String numbered(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        int n = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '?') {
+                out.append('$').append(++n);
+                continue;
+            }
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    private Generation rotate(long now) {
+        Generation gen = current;
+        if (now - gen.startedAt < windowNanos) {
+            return gen;
+        }
+        synchronized (this) {
+            if (current == gen) {
+                previous = gen;
+                current = new Generation(now);
+                plans.keySet().retainAll(gen.queries.keySet());
+                explainedAt.keySet().retainAll(gen.queries.keySet());
+            }
+            return current;
+        }
+    }
+
+    private void slow(String key, String sql, long nanos, long now) {
+        boolean[] due = {false};
+        explainedAt.compute(key, (k, last) -> {
+            if (last == null || now - last >= explainIntervalNanos) {
+                due[0] = true;
+                return now;
+            }
+            return last;
+        });
+        if (!due[0]) {
+            return;
+        }
+        log.warn("SLOW_QUERY ms={} sql=\"{}\"", nanos / 1_000_000, key);
+        if (props.explain() && explainTarget != null && isExplainable(sql)) {
+            explainer.execute(() -> explain(key, sql));
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("with") || head.startsWith("insert")
+                || head.startsWith("update") || head.startsWith("delete");
+    }
+
+    private void explain(String key, String sql) {
+        try (Connection con = explainTarget.getConnection(); Statement st = con.createStatement()) {
+            if (postgres == null) {
+                postgres = "PostgreSQL".equals(con.getMetaData().getDatabaseProductName());
+            }
+            if (!postgres) {
+                return;
+            }
+            st.setQueryTimeout(5);
+            List<String> lines = new ArrayList<>();
+            try (ResultSet rs = st.executeQuery("EXPLAIN (GENERIC_PLAN) " + numbered(sql))) {
+                while (rs.next()) {
+                    lines.add(rs.getString(1));
+                }
+            }
+            plans.put(key, new Plan(String.join("\n", lines), Instant.now()));
+            log.info("SLOW_QUERY_PLAN sql=\"{}\" top=\"{}\"", key, lines.isEmpty() ? "" : lines.getFirst().trim());
+        } catch (SQLException | RuntimeException ex) {
+            plans.put(key, new Plan("EXPLAIN failed: " + ex.getMessage(), Instant.now()));
+        }
+    }
+
+    private Connection timed(Connection con) {
+        InvocationHandler handler = (p, method, args) -> {
+            Object result = invoke(con, method, args);
+            if (result instanceof Statement statement && method.getReturnType().isInterface()
+                    && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return timed(method.getReturnType(), statement, sql);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private Object timed(Class<?> type, Statement statement, String preparedSql) {
+        InvocationHandler handler = (p, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            long started = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                record(sql, System.nanoTime() - started);
+            }
+        };
+        return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * One normalized query: counts and times in milliseconds, plus its last captured plan (or null).
+     */
+    public record QueryStats(String sql, long count, double totalMs, double maxMs, String plan, String planCapturedAt) {
+
+        public double meanMs() {
+            return count == 0 ? 0 : totalMs / count;
+        }
+
+        QueryStats plus(QueryStats other) {
+            return new QueryStats(sql, count + other.count, totalMs + other.totalMs, Math.max(maxMs, other.maxMs),
+                    plan, planCapturedAt);
+        }
+    }
+
+    private record Plan(String text, Instant capturedAt) {}
+
+    private static final class Generation {
+
+        final long startedAt;
+        final ConcurrentHashMap<String, Stats> queries = new ConcurrentHashMap<>();
+
+        Generation(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    private static final class Stats {
+
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        QueryStats snapshot(String sql, Plan plan) {
+            return new QueryStats(sql, count.sum(), totalNanos.sum() / 1e6, maxNanos.get() / 1e6,
+                    plan == null ? null : plan.text(), plan == null ? null : plan.capturedAt().toString());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.socialwebapp.db;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Slow-query log (see SlowQueryLog).
+ */
+@ConfigurationProperties(prefix = "app.db.slow-queries")
+public record SlowQueryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT0.01S") Duration trackAbove,
+        @DefaultValue("PT0.2S") Duration explainAbove,
+        @DefaultValue("20") int topN,
+        @DefaultValue("PT15M") Duration window,
+        @DefaultValue("1000") int maxTracked,
+        @DefaultValue("true") boolean explain,
+        @DefaultValue("PT10M") Duration explainInterval,
+        @DefaultValue("16") int explainQueue
+) {}
@@ -0,0 +1,44 @@
+package com.socialwebapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One lookup in an in-process cache, for one key or a batch of them.
+ */
+@Name(CacheLookupEvent.NAME)
+@Label("Cache Lookup")
+@Category({"Social Web", "Cache"})
+@Description("Keys looked up in an in-process cache and how many were hits")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    public static final String NAME = "socialweb.CacheLookup";
+
+    private static final EventType TYPE = EventType.getEventType(CacheLookupEvent.class);
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Keys")
+    public int keys;
+
+    @Label("Hits")
+    public int hits;
+
+    public static void record(String cache, int keys, int hits) {
+        if (!TYPE.isEnabled()) {
+            return;
+        }
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.cache = cache;
+        event.keys = keys;
+        event.hits = hits;
+        event.commit();
+    }
+}
@@ -0,0 +1,25 @@
+package com.socialwebapp.diagnostics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * JFR events for feed requests (FeedRequestTiming) and /actuator/jfr (app.jfr.enabled, on by default).
+ */
+@Configuration
+public class DiagnosticsConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new FeedRequestTiming()).addPathPatterns("/api/feed", "/api/feed/user/*");
+    }
+
+    @Bean
+    @ConditionalOnBooleanProperty(prefix = "app.jfr", name = "enabled", matchIfMissing = true)
+    JfrRecordingEndpoint jfrRecordingEndpoint(JfrProperties props) {
+        return new JfrRecordingEndpoint(props);
+    }
+}
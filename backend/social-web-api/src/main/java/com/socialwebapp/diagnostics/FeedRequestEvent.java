@@ -0,0 +1,51 @@
+package com.socialwebapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One feed or wall page request, from the controller until its JSON is written (see FeedRequestTiming).
+ */
+@Name(FeedRequestEvent.NAME)
+@Label("Feed Request")
+@Category({"Social Web", "Feed"})
+@Description("A feed or wall page: rows served, time reading them and time writing the JSON")
+@StackTrace(false)
+public class FeedRequestEvent extends Event {
+
+    public static final String NAME = "socialweb.FeedRequest";
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Page")
+    public int page;
+
+    @Label("Limit")
+    public int limit;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Stale")
+    @Description("Served from the breaker's snapshot")
+    public boolean stale;
+
+    @Label("Database Time")
+    @Description("Reading and hydrating the page, in its read-only transaction")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbTime;
+
+    @Label("Serialization Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long serializationTime;
+
+    // Not recorded (transient): bookkeeping between the controller and the interceptor.
+    transient long readStartedAt;
+    transient long serializationStartedAt;
+}
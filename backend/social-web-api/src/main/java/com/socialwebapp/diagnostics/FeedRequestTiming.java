@@ -0,0 +1,55 @@
+package com.socialwebapp.diagnostics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Emits a FeedRequestEvent per feed or wall page request, committed in afterCompletion so it
+ * includes writing the JSON.
+ */
+public class FeedRequestTiming implements HandlerInterceptor {
+
+    private static final String ATTRIBUTE = FeedRequestTiming.class.getName();
+
+    public static FeedRequestEvent begin(String endpoint, int page, int limit) {
+        FeedRequestEvent event = new FeedRequestEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.endpoint = endpoint;
+        event.page = page;
+        event.limit = limit;
+        event.begin();
+        event.readStartedAt = System.nanoTime();
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(ATTRIBUTE, event, RequestAttributes.SCOPE_REQUEST);
+        }
+        return event;
+    }
+
+    public static void read(FeedRequestEvent event, int rows, boolean stale) {
+        if (event == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        event.rows = rows;
+        event.stale = stale;
+        event.dbTime = now - event.readStartedAt;
+        event.serializationStartedAt = now;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ATTRIBUTE) instanceof FeedRequestEvent event) {
+            if (event.serializationStartedAt != 0) {
+                event.serializationTime = System.nanoTime() - event.serializationStartedAt;
+            }
+            event.commit();
+        }
+    }
+}
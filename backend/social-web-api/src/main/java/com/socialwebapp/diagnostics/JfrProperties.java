@@ -0,0 +1,19 @@
+package com.socialwebapp.diagnostics;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * On-demand JFR recordings (see JfrRecordingEndpoint).
+ */
+@ConfigurationProperties(prefix = "app.jfr")
+public record JfrProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("default") String defaultProfile,
+        @DefaultValue("PT30M") Duration maxDuration,
+        @DefaultValue("256MB") DataSize maxSize,
+        @DefaultValue("") String dumpDirectory,
+        @DefaultValue("5") int keepDumps
+) {}
@@ -0,0 +1,211 @@
+package com.socialwebapp.diagnostics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * /actuator/jfr: starts and stops one Flight Recorder recording at a time. Admins only.
+ */
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    private static final int STATUS_CONFLICT = 409;
+
+    private static final String CURRENT = "current";
+    private static final String PREFIX = "social-web-";
+    private static final String SUFFIX = ".jfr";
+    private static final DateTimeFormatter STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final JfrProperties props;
+
+    // Guarded by this.
+    private Path dumpDirectory;
+    private Recording recording;
+    private String profile;
+
+    public JfrRecordingEndpoint(JfrProperties props) {
+        this.props = props;
+    }
+
+    @ReadOperation
+    public synchronized Status status() {
+        return new Status(current(), dumps());
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Object> control(@Selector String action, @Nullable String profile) {
+        return switch (action) {
+            case "start" -> start(profile == null || profile.isBlank() ? props.defaultProfile() : profile.trim());
+            case "stop" -> stop();
+            default -> new WebEndpointResponse<>(new Error("unknown action: " + action),
+                    WebEndpointResponse.STATUS_NOT_FOUND);
+        };
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String name) {
+        Path file;
+        if (CURRENT.equals(name)) {
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            file = directory().resolve(fileName(profile + "-snapshot"));
+            try {
+                recording.dump(file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            prune();
+        } else {
+            // Only names from the listing, never a path.
+            if (!dumps().contains(name)) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            file = directory().resolve(name);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private WebEndpointResponse<Object> start(String profile) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(new Error("a recording is running"), STATUS_CONFLICT);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(profile);
+        } catch (IOException | ParseException ex) {
+            return new WebEndpointResponse<>(new Error("unknown profile: " + profile + ", use one of "
+                    + Configuration.getConfigurations().stream().map(Configuration::getName).toList()),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        close();
+
+        Recording started = new Recording(configuration);
+        started.setName(PREFIX + profile);
+        started.setToDisk(true);
+        started.setMaxSize(props.maxSize().toBytes());
+        started.setDuration(props.maxDuration());
+        try {
+            started.setDestination(directory().resolve(fileName(profile)));
+        } catch (IOException ex) {
+            started.close();
+            throw new UncheckedIOException(ex);
+        }
+        started.start();
+        recording = started;
+        this.profile = profile;
+        prune();
+        log.info("JFR_RECORDING_STARTED profile={} maxDuration={} destination={}",
+                profile, props.maxDuration(), started.getDestination());
+        return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+    }
+
+    private WebEndpointResponse<Object> stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(new Error("no recording is running"), WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path destination = recording.getDestination();
+        recording.stop();
+        close();
+        prune();
+        log.info("JFR_RECORDING_STOPPED dump={}", destination);
+        return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+    }
+
+    private Info current() {
+        if (recording == null) {
+            return null;
+        }
+        Instant startedAt = recording.getStartTime();
+        return new Info(recording.getName(), profile, recording.getState().name(),
+                startedAt == null ? null : startedAt.toString(),
+                startedAt == null || recording.getDuration() == null ? null
+                        : startedAt.plus(recording.getDuration()).toString(),
+                recording.getSize(), recording.getDestination() == null ? null
+                        : recording.getDestination().getFileName().toString());
+    }
+
+    private List<String> dumps() {
+        try (Stream<Path> files = Files.list(directory())) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .sorted(Comparator.reverseOrder()) // names start with a timestamp: newest first
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void prune() {
+        Path writing = recording == null ? null : recording.getDestination();
+        List<String> kept = dumps();
+        for (String name : kept.subList(Math.min(kept.size(), Math.max(0, props.keepDumps())), kept.size())) {
+            Path file = directory().resolve(name);
+            if (!file.equals(writing)) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ex) {
+                    log.warn("JFR_DUMP_DELETE_FAILED file={} error={}", file, ex.toString());
+                }
+            }
+        }
+    }
+
+    private Path directory() {
+        if (dumpDirectory == null) {
+            try {
+                dumpDirectory = props.dumpDirectory().isBlank()
+                        ? Files.createTempDirectory("social-web-jfr")
+                        : Files.createDirectories(Path.of(props.dumpDirectory()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return dumpDirectory;
+    }
+
+    private static String fileName(String label) {
+        return PREFIX + STAMP.format(Instant.now()) + "-" + label + SUFFIX;
+    }
+
+    public record Status(Info recording, List<String> dumps) {}
+
+    /** The recording: its state, when it stops by itself, bytes so far and the file it goes to. */
+    public record Info(String name, String profile, String state, String startedAt, String stopsAt, long bytes,
+                       String destination) {}
+
+    public record Error(String message) {}
+}
@@ -0,0 +1,28 @@
+package com.socialwebapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One BCrypt hash (register) or check (login); the event's duration is the BCrypt time.
+ */
+@Name(PasswordHashEvent.NAME)
+@Label("Password Hash")
+@Category({"Social Web", "Auth"})
+@Description("BCrypt work for a register (encode) or a login (matches)")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    public static final String NAME = "socialweb.PasswordHash";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Matched")
+    @Description("For matches: whether the password was right")
+    public boolean matched;
+}
@@ -0,0 +1,24 @@
+package com.socialwebapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Signing one access token at login; the event's duration is the signing time.
+ */
+@Name(TokenIssueEvent.NAME)
+@Label("Token Issue")
+@Category({"Social Web", "Auth"})
+@Description("Building and signing a JWT access token")
+@StackTrace(false)
+public class TokenIssueEvent extends Event {
+
+    public static final String NAME = "socialweb.TokenIssue";
+
+    @Label("Algorithm")
+    public String algorithm;
+}
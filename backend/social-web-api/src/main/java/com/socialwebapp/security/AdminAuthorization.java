@@ -0,0 +1,44 @@
+package com.socialwebapp.security;
+
+import java.util.List;
+import java.util.function.Supplier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Access rule for the admin endpoints: users.is_admin, read on each admin request.
+ */
+@Component
+public class AdminAuthorization implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+    private final JdbcTemplate jdbc;
+
+    public AdminAuthorization(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication,
+                                         RequestAuthorizationContext context) {
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return DENIED;
+        }
+        return isAdmin(auth.getName()) ? GRANTED : DENIED;
+    }
+
+    boolean isAdmin(String subject) {
+        List<Boolean> admin = jdbc.queryForList(
+                "select is_admin from users where email = ?", Boolean.class, subject);
+        return !admin.isEmpty() && Boolean.TRUE.equals(admin.getFirst());
+    }
+}
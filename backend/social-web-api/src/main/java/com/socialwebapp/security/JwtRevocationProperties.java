@@ -0,0 +1,22 @@
+package com.socialwebapp.security;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Access token revocation (see JwtRevocations).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.jwt.revocation")
+public record JwtRevocationProperties(
+        @DefaultValue("PT1M") Duration rebuildInterval,
+        @DefaultValue("10000") @Min(1) int minCapacity,
+        @DefaultValue("0.01") @DecimalMin("0.0001") @DecimalMax("0.5") double falsePositiveRate,
+        @DefaultValue("PT1H") Duration purgeInterval,
+        @DefaultValue("1000") @Min(1) int purgeBatchSize
+) {}
@@ -0,0 +1,272 @@
+package com.socialwebapp.security;
+
+import com.socialwebapp.db.InvalidationBus;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revoked access tokens, held in memory on every instance behind a Bloom filter.
+ * Loaded before the application serves requests.
+ */
+@Component
+public class JwtRevocations implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtRevocations.class);
+
+    static final String TOPIC = "jwt-revocations";
+
+    private static final String JTI = "jti:";
+    private static final String SUBJECT = "sub:";
+    private static final OAuth2Error REVOKED =
+            new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "The token has been revoked", null);
+
+    private final JdbcTemplate jdbc;
+    private final InvalidationBus invalidations;
+    private final JwtRevocationProperties props;
+    private final long accessTtlSeconds;
+    private final Clock clock;
+    private final Object rebuilding = new Object();
+
+    private volatile Snapshot current;
+    private List<Revocation> pending; // guarded by this: revocations made while a rebuild loads
+
+    @Autowired
+    public JwtRevocations(JdbcTemplate jdbc, InvalidationBus invalidations, JwtRevocationProperties props,
+                          JwtProperties jwt) {
+        this(jdbc, invalidations, props, jwt, Clock.systemUTC());
+    }
+
+    JwtRevocations(JdbcTemplate jdbc, InvalidationBus invalidations, JwtRevocationProperties props,
+                   JwtProperties jwt, Clock clock) {
+        this.jdbc = jdbc;
+        this.invalidations = invalidations;
+        this.props = props;
+        this.accessTtlSeconds = jwt.ttlSeconds();
+        this.clock = clock;
+        this.current = new Snapshot(props.minCapacity(), props.falsePositiveRate());
+        invalidations.subscribe(TOPIC, this::received);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!reload()) {
+            throw new IllegalStateException("JWT revocations could not be loaded; see JWT_REVOCATIONS_RELOAD_FAILED");
+        }
+    }
+
+    /** For NimbusJwtDecoder#setJwtValidator, after the default (expiry) validators. */
+    public OAuth2TokenValidator<Jwt> validator() {
+        return jwt -> isRevoked(jwt) ? OAuth2TokenValidatorResult.failure(REVOKED) : OAuth2TokenValidatorResult.success();
+    }
+
+    public boolean isRevoked(Jwt jwt) {
+        Instant issuedAt = jwt.getIssuedAt();
+        long iat = issuedAt == null ? Long.MIN_VALUE : issuedAt.getEpochSecond();
+        Snapshot snapshot = current;
+        return (jwt.getId() != null && snapshot.covers(JTI + jwt.getId(), iat))
+                || (jwt.getSubject() != null && snapshot.covers(SUBJECT + jwt.getSubject(), iat));
+    }
+
+    /** Logout: revokes the token with this id, which expires at {@code expiresAt}. */
+    public void revokeToken(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(clock.instant())) {
+            return;
+        }
+        try {
+            jdbc.update("insert into jwt_revocations (revocation_key, revoked_before, expires_at, created_at) "
+                            + "values (?, null, ?, ?)",
+                    JTI + jti, Timestamp.from(expiresAt), Timestamp.from(clock.instant()));
+        } catch (DuplicateKeyException ignored) {
+            // Already revoked.
+        }
+        applied(new Revocation(JTI + jti, Long.MAX_VALUE));
+    }
+
+    /**
+     * Revoke all sessions: revokes every token of {@code subject} issued until now. Token times are whole
+     * seconds, so this covers the current second: a token issued later in it is refused too.
+     */
+    public void revokeSubject(String subject) {
+        Instant before = clock.instant().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        Timestamp revokedBefore = Timestamp.from(before);
+        Timestamp expiresAt = Timestamp.from(before.plusSeconds(accessTtlSeconds));
+        String key = SUBJECT + subject;
+        try {
+            jdbc.update("insert into jwt_revocations (revocation_key, revoked_before, expires_at, created_at) "
+                    + "values (?, ?, ?, ?)", key, revokedBefore, expiresAt, Timestamp.from(clock.instant()));
+        } catch (DuplicateKeyException ex) {
+            jdbc.update("update jwt_revocations set revoked_before = ?, expires_at = ? "
+                    + "where revocation_key = ? and revoked_before < ?", revokedBefore, expiresAt, key, revokedBefore);
+        }
+        applied(new Revocation(key, before.getEpochSecond()));
+        log.info("JWT_SUBJECT_REVOKED subject={} issuedBefore={}", subject, before);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.jwt.revocation.rebuild-interval:PT1M}",
+            initialDelayString = "${app.jwt.revocation.rebuild-interval:PT1M}"
+    )
+    public void rebuild() {
+        reload();
+    }
+
+    /** Replaces the set with the stored revocations; false (keeping the set) when they cannot be read. */
+    private boolean reload() {
+        synchronized (rebuilding) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            List<Revocation> loaded;
+            try {
+                loaded = jdbc.query(
+                        "select revocation_key, revoked_before from jwt_revocations where expires_at > ?",
+                        (rs, i) -> {
+                            Timestamp before = rs.getTimestamp(2);
+                            return new Revocation(rs.getString(1),
+                                    before == null ? Long.MAX_VALUE : before.toInstant().getEpochSecond());
+                        },
+                        Timestamp.from(clock.instant()));
+            } catch (DataAccessException ex) {
+                synchronized (this) {
+                    pending = null;
+                }
+                log.warn("JWT_REVOCATIONS_RELOAD_FAILED keeping={} error={}", current.exact.size(), ex.toString());
+                return false;
+            }
+            Snapshot next = new Snapshot(Math.max(props.minCapacity(), loaded.size() * 2), props.falsePositiveRate());
+            loaded.forEach(next::add);
+            synchronized (this) {
+                pending.forEach(next::add);
+                pending = null;
+                current = next;
+            }
+            log.debug("JWT_REVOCATIONS_RELOADED revocations={} filterBits={} probes={}",
+                    next.exact.size(), next.filter.bitSize(), next.filter.hashCount());
+            return true;
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.jwt.revocation.purge-interval:PT1H}",
+            initialDelayString = "${app.jwt.revocation.purge-interval:PT1H}"
+    )
+    public void purge() {
+        Timestamp cutoff = Timestamp.from(clock.instant());
+        int total = 0;
+        int removed;
+        do {
+            removed = jdbc.update("delete from jwt_revocations where revocation_key in "
+                    + "(select revocation_key from jwt_revocations where expires_at <= ? limit ?)",
+                    cutoff, props.purgeBatchSize());
+            total += removed;
+        } while (removed >= props.purgeBatchSize());
+        if (total > 0) {
+            log.info("JWT_REVOCATIONS_PURGED rows={}", total);
+        }
+    }
+
+    private void applied(Revocation revocation) {
+        synchronized (this) {
+            current.add(revocation);
+            if (pending != null) {
+                pending.add(revocation);
+            }
+        }
+        invalidations.publishToOthers(TOPIC, List.of(revocation.busKey()));
+    }
+
+    private void received(Set<String> keys) {
+        if (keys.isEmpty()) {
+            rebuild();
+            return;
+        }
+        List<Revocation> revocations = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Revocation revocation = Revocation.fromBusKey(key);
+            if (revocation == null) {
+                log.warn("JWT_REVOCATION_MALFORMED key={}", key);
+                rebuild();
+                return;
+            }
+            revocations.add(revocation);
+        }
+        synchronized (this) {
+            for (Revocation revocation : revocations) {
+                current.add(revocation);
+                if (pending != null) {
+                    pending.add(revocation);
+                }
+            }
+        }
+    }
+
+    /** A revoked key: tokens it matches issued before revokedBefore (epoch seconds) are revoked. */
+    private record Revocation(String key, long revokedBefore) {
+
+        private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+        private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+        /** As sent on the bus: subjects may hold characters bus keys must not (',', '='). */
+        String busKey() {
+            return ENCODER.encodeToString(key.getBytes(StandardCharsets.UTF_8)) + "." + revokedBefore;
+        }
+
+        static Revocation fromBusKey(String busKey) {
+            int dot = busKey.lastIndexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            try {
+                return new Revocation(new String(DECODER.decode(busKey.substring(0, dot)), StandardCharsets.UTF_8),
+                        Long.parseLong(busKey.substring(dot + 1)));
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Snapshot {
+
+        final BloomFilter filter;
+        final ConcurrentHashMap<String, Long> exact = new ConcurrentHashMap<>();
+
+        Snapshot(int capacity, double falsePositiveRate) {
+            this.filter = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        void add(Revocation revocation) {
+            exact.merge(revocation.key(), revocation.revokedBefore(), Math::max);
+            filter.add(revocation.key());
+        }
+
+        boolean covers(String key, long issuedAt) {
+            if (!filter.mightContain(key)) {
+                return false;
+            }
+            Long before = exact.get(key);
+            return before != null && issuedAt < before;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.socialwebapp.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Applies the first matching RateLimitProperties rule; 429 with Retry-After when its bucket is empty.
+ * Not a bean, so it is not also registered as a servlet filter.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter limiter;
+    private final boolean enabled;
+    private final List<CompiledRule> rules;
+
+    public RateLimitFilter(RateLimiter limiter, RateLimitProperties props) {
+        this.limiter = limiter;
+        this.enabled = props.enabled();
+        this.rules = props.rules().stream()
+                .map(r -> new CompiledRule(r, r.method() == null || r.method().isBlank()
+                        ? PathPatternRequestMatcher.withDefaults().matcher(r.path())
+                        : PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.valueOf(r.method()), r.path())))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        RateLimitProperties.Rule rule = enabled ? match(request) : null;
+        if (rule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limiter.tryAcquire(rule, client(rule, request));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("""
+                {"timestamp":"%s","status":429,"error":"Too Many Requests","code":"rate_limited",\
+                "message":"Too many requests, retry in %d s","path":"%s"}"""
+                .formatted(Instant.now(), retryAfterSeconds, request.getRequestURI().replace("\"", "")));
+    }
+
+    private RateLimitProperties.Rule match(HttpServletRequest request) {
+        for (CompiledRule r : rules) {
+            if (r.matcher().matches(request)) {
+                return r.rule();
+            }
+        }
+        return null;
+    }
+
+    private static String client(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.keyBy() == RateLimitProperties.KeyBy.SUBJECT) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+                return "sub:" + auth.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record CompiledRule(RateLimitProperties.Rule rule, RequestMatcher matcher) {}
+}
@@ -0,0 +1,43 @@
+package com.socialwebapp.security;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Per-route token buckets (see RateLimitFilter). The first rule matching a request applies.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") @Min(1) int maxKeys,
+        @DefaultValue("PT1M") Duration sweepInterval,
+        @DefaultValue List<@Valid Rule> rules
+) {
+
+    public enum KeyBy {
+        /** JWT subject; falls back to the client IP when the request is not authenticated. */
+        SUBJECT,
+        IP
+    }
+
+    /**
+     * @param method HTTP method, or null for any
+     * @param path Spring path pattern, e.g. {@code /api/feed/*}{@code /comments}
+     */
+    public record Rule(
+            @NotBlank String name,
+            String method,
+            @NotBlank String path,
+            @NotNull KeyBy keyBy,
+            @Min(1) int capacity,
+            @NotNull Duration refillEvery
+    ) {}
+}
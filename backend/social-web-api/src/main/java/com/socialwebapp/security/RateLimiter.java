@@ -0,0 +1,163 @@
+package com.socialwebapp.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lock-free token buckets keyed by rule and client, stored as GCRA arrival times.
+ * A full bucket is the same as none, so sweeping it away is free.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    static final int OVERFLOW_SHARDS = 256;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong lastInlineSweep;
+    private final LongAdder overflowed = new LongAdder();
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties props) {
+        this(props, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties props, LongSupplier nanoClock) {
+        this.maxKeys = props.maxKeys();
+        this.sweepIntervalNanos = props.sweepInterval().toNanos();
+        this.nanoClock = nanoClock;
+        this.lastInlineSweep = new AtomicLong(nanoClock.getAsLong() - sweepIntervalNanos);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.rate-limit.keys", buckets, Map::size)
+                .description("Rate limit buckets held in memory")
+                .register(registry);
+        FunctionCounter.builder("app.rate-limit.overflow", overflowed, LongAdder::sum)
+                .description("Requests counted against a shared overflow bucket because the bucket map was full")
+                .register(registry);
+    }
+
+    /**
+     * Takes one token from {@code client}'s bucket for {@code rule}.
+     *
+     * @return 0 when allowed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(RateLimitProperties.Rule rule, String client) {
+        long interval = rule.refillEvery().toNanos();
+        long tolerance = interval * (rule.capacity() - 1);
+        AtomicLong bucket = bucket(rule.name(), client);
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long tat = bucket.get();
+            long start = tat - now > 0 ? tat : now;
+            long waitNanos = start - tolerance - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(tat, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String rule, String client) {
+        String key = rule + '|' + client;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            sweepInline();
+            if (buckets.size() >= maxKeys) {
+                overflowed.increment();
+                String overflowKey = rule + "|*" + Math.floorMod(network(client).hashCode(), OVERFLOW_SHARDS);
+                return buckets.computeIfAbsent(overflowKey, k -> new AtomicLong(nanoClock.getAsLong()));
+            }
+        }
+        AtomicLong fresh = new AtomicLong(nanoClock.getAsLong());
+        AtomicLong raced = buckets.putIfAbsent(key, fresh);
+        return raced != null ? raced : fresh;
+    }
+
+    private void sweepInline() {
+        long now = nanoClock.getAsLong();
+        long last = lastInlineSweep.get();
+        if (now - last >= sweepIntervalNanos && lastInlineSweep.compareAndSet(last, now)) {
+            sweep();
+        }
+    }
+
+    /**
+     * The client's /24 (IPv4) or /64 (IPv6) network; other clients as they are.
+     */
+    static String network(String client) {
+        if (!client.startsWith("ip:")) {
+            return client;
+        }
+        String ip = client.substring(3);
+        if (ip.indexOf(':') < 0) {
+            int lastDot = ip.lastIndexOf('.');
+            return lastDot < 0 ? client : client.substring(0, 3 + lastDot);
+        }
+        try {
+            // An IPv6 literal, so no lookup happens.
+            byte[] address = InetAddress.getByName(ip).getAddress();
+            return "ip:" + HexFormat.of().formatHex(address, 0, Math.min(8, address.length));
+        } catch (UnknownHostException ex) {
+            return client;
+        }
+    }
+
+    /**
+     * Drops full buckets. A request racing with the removal of its bucket may get one extra token.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.rate-limit.sweep-interval:PT1M}",
+            initialDelayString = "${app.rate-limit.sweep-interval:PT1M}"
+    )
+    public void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = nanoClock.getAsLong();
+            int before = buckets.size();
+            buckets.values().removeIf(tat -> tat.get() - now <= 0);
+            log.debug("RATE_LIMIT_SWEEP before={} after={}", before, buckets.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    long overflowed() {
+        return overflowed.sum();
+    }
+}
@@ -26,11 +26,15 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -41,9 +45,14 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     private final Environment env;
+    private final RateLimitFilter rateLimitFilter;
+    private final AdminAuthorization admins;
 
-    public SecurityConfig(Environment env) {
+    public SecurityConfig(Environment env, RateLimiter rateLimiter, RateLimitProperties rateLimits,
+                          AdminAuthorization admins) {
         this.env = env;
+        this.rateLimitFilter = new RateLimitFilter(rateLimiter, rateLimits);
+        this.admins = admins;
     }
 
     @Value("${APP_JWT_SECRET:}")
@@ -57,10 +66,13 @@ public class SecurityConfig {
     @Order(1)
     SecurityFilterChain authChain(HttpSecurity http) throws Exception {
         http
-                .securityMatcher("/api/auth/login", "/api/auth/register")
+                .securityMatcher("/api/auth/login", "/api/auth/register", "/api/auth/refresh")
                 .cors(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // ✅ Login/register/refresh are rate limited per client IP (BCrypt is expensive;
+                //    refresh tokens are not guessable, but each try still costs a lookup).
+                .addFilterBefore(rateLimitFilter, AuthorizationFilter.class)
                 .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
 
         return http.build();
@@ -78,11 +90,15 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
-                // ✅ Validate Bearer tokens for protected endpoints.
+                // ✅ Validate Bearer tokens for protected endpoints (tokens carry no roles).
                 .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
 
+                // ✅ Rate limit after the token is validated, so limits apply per JWT subject.
+                .addFilterAfter(rateLimitFilter, BearerTokenAuthenticationFilter.class)
+
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .requestMatchers("/actuator/metrics/**", "/actuator/slowqueries/**", "/actuator/jfr/**", "/api/admin/**").access(admins)
                         .requestMatchers("/actuator/**").permitAll()
                         .anyRequest().authenticated()
                 );
@@ -101,12 +117,18 @@ public class SecurityConfig {
         return new NimbusJwtEncoder(new ImmutableSecret<>(key));
     }
 
+    /**
+     * Signature, then expiry, then revocation (JwtRevocations: in memory, no database access).
+     */
     @Bean
-    JwtDecoder jwtDecoder() {
+    JwtDecoder jwtDecoder(JwtRevocations revocations) {
         SecretKey key = jwtSecretKey();
-        return NimbusJwtDecoder.withSecretKey(key)
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key)
                 .macAlgorithm(MacAlgorithm.HS256)
                 .build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(),
+                revocations.validator()));
+        return decoder;
     }
 
     private SecretKey jwtSecretKey() {
@@ -0,0 +1,48 @@
+package com.socialwebapp.security.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+
+/**
+ * One access token revocation (by token id or by subject). Mapped so Hibernate creates (tests)
+ * and validates (Flyway V13) it; reads and writes go through JwtRevocations' SQL.
+ */
+@Entity
+@Table(name = "jwt_revocations")
+public class JwtRevocationEntity {
+
+    @Id
+    @Column(name = "revocation_key", nullable = false, length = 300)
+    private String revocationKey;
+
+    @Column(name = "revoked_before")
+    private OffsetDateTime revokedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    protected JwtRevocationEntity() {
+    }
+
+    public String getRevocationKey() {
+        return revocationKey;
+    }
+
+    public OffsetDateTime getRevokedBefore() {
+        return revokedBefore;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.socialwebapp.seed;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import java.time.Instant;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Shape of a synthetic data set (see {@link SyntheticDataGenerator}).
+ * The same values always produce the same rows.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.seed")
+public record SeedProperties(
+        @DefaultValue("42") long seed,
+        @DefaultValue("10000") @Min(1) int users,
+        @DefaultValue("100000") @Min(0) int posts,
+        @DefaultValue("1.1") @DecimalMin("0.0") double zipfExponent,
+        @DefaultValue("1000") @Min(1) int batchSize,
+        @DefaultValue("2026-01-01T00:00:00Z") Instant anchor,
+        @DefaultValue("365") @Min(1) int spanDays,
+        @DefaultValue("Password123!") @NotBlank String password
+) {}
@@ -0,0 +1,204 @@
+package com.socialwebapp.seed;
+
+import com.socialwebapp.api.feed.data.FeedChangeLog;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk-loads deterministic users and feed_posts rows for scale testing.
+ */
+public class SyntheticDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    static final int MAX_CONTENT_LENGTH = 1000;
+
+    private static final String INSERT_USER =
+            "insert into users (email, password_hash, created_at) values (?, ?, ?)";
+
+    private static final String INSERT_POST =
+            "insert into feed_posts (id, created_at, author_id, author_display_name, content, kind, "
+                    + "change_seq, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] WORDS = {
+            "the", "a", "and", "to", "of", "in", "is", "it", "for", "on", "with", "this", "that",
+            "today", "really", "just", "new", "great", "coffee", "weekend", "project", "team",
+            "release", "music", "morning", "city", "photo", "idea", "book", "game", "trip",
+            "dinner", "friends", "learning", "shipping", "finally", "love", "work", "home"
+    };
+
+    private static final String[] TAGS = {
+            "#java", "#spring", "#postgres", "#travel", "#food", "#music", "#coding", "#news"
+    };
+
+    private final JdbcTemplate jdbc;
+    private final PasswordEncoder passwordEncoder;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbc, PasswordEncoder passwordEncoder) {
+        this.jdbc = jdbc;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public Result generate(SeedProperties spec) {
+        long started = System.nanoTime();
+
+        String firstEmail = email(spec, 0);
+        Integer existing = jdbc.queryForObject(
+                "select count(*) from users where email = ?", Integer.class, firstEmail);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Seed " + spec.seed() + " is already loaded (" + firstEmail + ")");
+        }
+
+        SplittableRandom root = new SplittableRandom(spec.seed());
+        SplittableRandom userRandom = root.split();
+        SplittableRandom postRandom = root.split();
+
+        insertUsers(spec, userRandom);
+        long[] userIds = loadUserIds(spec);
+        insertPosts(spec, postRandom, userIds);
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        log.info("SEED_DONE seed={} users={} posts={} elapsedMs={}",
+                spec.seed(), spec.users(), spec.posts(), elapsed.toMillis());
+
+        return new Result(spec.users(), spec.posts(), elapsed);
+    }
+
+    /**
+     * Email of the i-th synthetic user (0-based). Also used as the post display name.
+     */
+    public static String email(SeedProperties spec, int index) {
+        return "seed" + spec.seed() + "-user" + index + "@synthetic.test";
+    }
+
+    private void insertUsers(SeedProperties spec, SplittableRandom random) {
+        // One hash per run: BCrypt per synthetic user would dominate load time.
+        String passwordHash = passwordEncoder.encode(spec.password());
+        long spanSeconds = Duration.ofDays(spec.spanDays()).toSeconds();
+
+        List<Object[]> batch = new ArrayList<>(spec.batchSize());
+        for (int i = 0; i < spec.users(); i++) {
+            OffsetDateTime createdAt = spec.anchor()
+                    .minusSeconds(spanSeconds + random.nextLong(spanSeconds))
+                    .atOffset(ZoneOffset.UTC);
+
+            batch.add(new Object[]{email(spec, i), passwordHash, createdAt});
+            if (batch.size() == spec.batchSize()) {
+                flush(INSERT_USER, batch);
+            }
+        }
+        flush(INSERT_USER, batch);
+    }
+
+    private long[] loadUserIds(SeedProperties spec) {
+        String prefix = "seed" + spec.seed() + "-user";
+        long[] ids = new long[spec.users()];
+
+        jdbc.query("select id, email from users where email like ?", rs -> {
+            String email = rs.getString(2);
+            int index = Integer.parseInt(email.substring(prefix.length(), email.indexOf('@')));
+            ids[index] = rs.getLong(1);
+        }, prefix + "%");
+
+        return ids;
+    }
+
+    private void insertPosts(SeedProperties spec, SplittableRandom random, long[] userIds) {
+        ZipfSampler popularity = new ZipfSampler(userIds.length, spec.zipfExponent());
+        int[] authorByRank = shuffledIndexes(userIds.length, random);
+        long spanSeconds = Duration.ofDays(spec.spanDays()).toSeconds();
+        long firstSeq = reserveChangeSeqs(spec.posts());
+
+        List<Object[]> batch = new ArrayList<>(spec.batchSize());
+        for (int i = 0; i < spec.posts(); i++) {
+            int userIndex = authorByRank[popularity.sample(random)];
+            long userId = userIds[userIndex];
+
+            UUID id = randomUuid(random);
+            OffsetDateTime createdAt = spec.anchor()
+                    .minusSeconds(random.nextLong(spanSeconds))
+                    .atOffset(ZoneOffset.UTC);
+            // Same mapping FeedPostService.createPost uses for real users.
+            UUID authorId = UUID.nameUUIDFromBytes(Long.toString(userId).getBytes(StandardCharsets.UTF_8));
+
+            batch.add(new Object[]{
+                    id, createdAt, authorId, email(spec, userIndex), content(random), "post",
+                    firstSeq + i, createdAt
+            });
+            if (batch.size() == spec.batchSize()) {
+                flush(INSERT_POST, batch);
+                if ((i + 1) % (spec.batchSize() * 100) == 0) {
+                    log.info("SEED_PROGRESS seed={} posts={}/{}", spec.seed(), i + 1, spec.posts());
+                }
+            }
+        }
+        flush(INSERT_POST, batch);
+    }
+
+    private long reserveChangeSeqs(int count) {
+        if (count == 0) {
+            return 0;
+        }
+        var tx = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+        Long first = tx.execute(status -> new FeedChangeLog(jdbc).reserve(count));
+        return first == null ? 0 : first;
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    static String content(SplittableRandom random) {
+        int length = (int) Math.round(Math.exp(Math.log(90) + 0.9 * random.nextGaussian()));
+        length = Math.min(Math.max(length, 1), MAX_CONTENT_LENGTH);
+
+        StringBuilder sb = new StringBuilder(length + 16);
+        if (random.nextInt(10) == 0) {
+            sb.append(TAGS[random.nextInt(TAGS.length)]).append(' ');
+        }
+        while (sb.length() < length) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        sb.setLength(length);
+
+        String text = sb.toString().trim();
+        return text.isEmpty() ? WORDS[0] : text;
+    }
+
+    private static UUID randomUuid(SplittableRandom random) {
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static int[] shuffledIndexes(int n, SplittableRandom random) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+
+    public record Result(int users, int posts, Duration elapsed) {}
+}
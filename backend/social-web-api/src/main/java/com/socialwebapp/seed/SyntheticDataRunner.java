@@ -0,0 +1,67 @@
+package com.socialwebapp.seed;
+
+import com.socialwebapp.db.FeedPostPartitionMaintenance;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * CLI entry point for the synthetic data generator.
+ * Usage (from backend/social-web-api):
+ * <pre>
+ * ./mvnw spring-boot:run -Dspring-boot.run.profiles=local,seed \
+ *   -Dspring-boot.run.arguments="--app.seed.users=1000000 --app.seed.posts=10000000"
+ * </pre>
+ */
+@Profile("seed")
+@Component
+public class SyntheticDataRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataRunner.class);
+
+    private final SyntheticDataGenerator generator;
+    private final SeedProperties props;
+    private final ObjectProvider<FeedPostPartitionMaintenance> partitions;
+    private final ConfigurableApplicationContext context;
+
+    public SyntheticDataRunner(
+            JdbcTemplate jdbc,
+            PasswordEncoder passwordEncoder,
+            SeedProperties props,
+            ObjectProvider<FeedPostPartitionMaintenance> partitions,
+            ConfigurableApplicationContext context
+    ) {
+        this.generator = new SyntheticDataGenerator(jdbc, passwordEncoder);
+        this.props = props;
+        this.partitions = partitions;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("SEED_START seed={} users={} posts={} zipfExponent={} batchSize={}",
+                props.seed(), props.users(), props.posts(), props.zipfExponent(), props.batchSize());
+
+        // Seeded posts are backdated; their months need partitions before the insert.
+        YearMonth first = YearMonth.from(
+                props.anchor().minus(Duration.ofDays(props.spanDays())).atZone(ZoneOffset.UTC));
+        YearMonth last = YearMonth.from(props.anchor().atZone(ZoneOffset.UTC));
+        partitions.ifAvailable(p -> p.ensureRange(first, last));
+
+        generator.generate(props);
+
+        // Pools and listener threads are not daemons: close the context and leave explicitly.
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,42 @@
+package com.socialwebapp.seed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^exponent}.
+ * Rank 0 is the most popular. Uses a precomputed CDF (8 bytes per rank) and binary search.
+ */
+public final class ZipfSampler {
+
+    private final double[] cdf;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be >= 1");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent must be >= 0");
+        }
+
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        cdf[n - 1] = 1.0;
+    }
+
+    public int sample(SplittableRandom random) {
+        int idx = Arrays.binarySearch(cdf, random.nextDouble());
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+}
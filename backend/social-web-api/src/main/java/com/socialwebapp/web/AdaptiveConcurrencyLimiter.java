@@ -0,0 +1,107 @@
+package com.socialwebapp.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * In-flight request limit that follows latency (TCP Vegas style).
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        READ,
+        WRITE
+    }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double writeShare;
+    private final long minRttWindowNanos;
+    private final LongSupplier nanoClock;
+
+    private volatile int limit;
+
+    // Guarded by this.
+    private double estimatedLimit;
+    private long minRtt = Long.MAX_VALUE;
+    private long minRttResetAt;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties props) {
+        this(props, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties props, LongSupplier nanoClock) {
+        this.minLimit = props.minLimit();
+        this.maxLimit = Math.max(props.maxLimit(), props.minLimit());
+        this.writeShare = props.writeShare();
+        this.minRttWindowNanos = props.minRttWindow().toNanos();
+        this.nanoClock = nanoClock;
+        this.estimatedLimit = Math.min(Math.max(props.initialLimit(), minLimit), maxLimit);
+        this.limit = (int) estimatedLimit;
+        this.minRttResetAt = nanoClock.getAsLong() + minRttWindowNanos;
+    }
+
+    /**
+     * @return requests in flight including this one, or -1 when the request must be shed
+     */
+    public int tryAcquire(Priority priority) {
+        int allowed = priority == Priority.READ ? limit : Math.max(1, (int) (limit * writeShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * @param inFlightAtStart what {@link #tryAcquire} returned
+     */
+    public void release(int inFlightAtStart, long rttNanos) {
+        inFlight.decrementAndGet();
+        onSample(inFlightAtStart, Math.max(1, rttNanos));
+    }
+
+    /**
+     * Releases without a latency sample, for requests whose latency says nothing about load
+     * (deliberately slow like BCrypt logins, or rejected early).
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(int inFlightAtStart, long rtt) {
+        long now = nanoClock.getAsLong();
+        if (now - minRttResetAt >= 0) {
+            minRtt = Long.MAX_VALUE;
+            minRttResetAt = now + minRttWindowNanos;
+        }
+        minRtt = Math.min(minRtt, rtt);
+
+        if (inFlightAtStart * 2L < estimatedLimit) {
+            return;
+        }
+
+        double queue = Math.ceil(estimatedLimit * (1 - (double) minRtt / rtt));
+        double step = Math.max(1, Math.log10(estimatedLimit));
+        if (queue <= 3 * step) {
+            estimatedLimit += step;
+        } else if (queue >= 6 * step) {
+            estimatedLimit -= step;
+        }
+        estimatedLimit = Math.min(Math.max(estimatedLimit, minLimit), maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,39 @@
+package com.socialwebapp.web;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers ConcurrencyLimitFilter ahead of the Spring Security chains and publishes
+ * app.concurrency.limit / app.concurrency.in_flight gauges.
+ */
+@Configuration
+@ConditionalOnBooleanProperty(prefix = "app.concurrency-limit", name = "enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ConcurrencyLimitProperties props, MeterRegistry registry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(props);
+        Gauge.builder("app.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive in-flight request limit")
+                .register(registry);
+        Gauge.builder("app.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests currently admitted by the adaptive limit")
+                .register(registry);
+        return limiter;
+    }
+
+    @Bean
+    FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter limiter, MeterRegistry registry) {
+        var registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, registry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
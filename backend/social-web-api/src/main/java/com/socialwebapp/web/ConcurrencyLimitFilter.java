@@ -0,0 +1,86 @@
+package com.socialwebapp.web;
+
+import com.socialwebapp.web.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sheds /api/** requests over the adaptive limit with 503 + Retry-After.
+ * Only successful requests outside /api/auth are sampled.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter shedReads;
+    private final Counter shedWrites;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.shedReads = shedCounter(registry, Priority.READ);
+        this.shedWrites = shedCounter(registry, Priority.WRITE);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Priority priority = priority(request);
+        int inFlight = limiter.tryAcquire(priority);
+        if (inFlight < 0) {
+            (priority == Priority.READ ? shedReads : shedWrites).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("""
+                    {"timestamp":"%s","status":503,"error":"Service Unavailable","code":"overloaded",\
+                    "message":"Server is busy, retry shortly","path":"%s"}"""
+                    .formatted(Instant.now(), request.getRequestURI().replace("\"", "")));
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && sampled(request, response)) {
+                limiter.release(inFlight, System.nanoTime() - started);
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    static boolean sampled(HttpServletRequest request, HttpServletResponse response) {
+        return response.getStatus() < 400 && !request.getRequestURI().startsWith("/api/auth/");
+    }
+
+    static Priority priority(HttpServletRequest request) {
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        return read && !request.getRequestURI().startsWith("/api/auth/") ? Priority.READ : Priority.WRITE;
+    }
+
+    private static Counter shedCounter(MeterRegistry registry, Priority priority) {
+        return Counter.builder("app.concurrency.shed")
+                .description("Requests rejected with 503 by the adaptive concurrency limit")
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.socialwebapp.web;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Adaptive in-flight limit for /api/** (see AdaptiveConcurrencyLimiter).
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50") @Min(1) int initialLimit,
+        @DefaultValue("8") @Min(1) int minLimit,
+        @DefaultValue("400") @Min(1) int maxLimit,
+        @DefaultValue("0.75") @DecimalMin("0.1") @DecimalMax("1.0") double writeShare,
+        @DefaultValue("PT60S") Duration minRttWindow
+) {}
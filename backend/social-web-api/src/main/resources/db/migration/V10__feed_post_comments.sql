@@ -0,0 +1,24 @@
+-- V10__feed_post_comments.sql
+-- Comments on feed posts. The index serves both the comment list (keyset, newest first)
+-- and the "latest two per post" hydration of a feed page.
+-- No FK to feed_posts: it would block detaching old partitions.
+
+CREATE TABLE feed_post_comments (
+    id uuid NOT NULL,
+    post_id uuid NOT NULL,
+    created_at timestamptz NOT NULL,
+    author_id uuid NOT NULL,
+    author_display_name varchar(120) NOT NULL,
+    content varchar(1000) NOT NULL,
+    CONSTRAINT feed_post_comments_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX ix_feed_post_comments_post_created
+    ON feed_post_comments (post_id, created_at DESC, id DESC);
+
+-- Maintained in the same transaction as each comment insert/delete, so it is never recounted.
+CREATE TABLE feed_post_comment_counts (
+    post_id uuid NOT NULL,
+    total bigint NOT NULL,
+    CONSTRAINT feed_post_comment_counts_pkey PRIMARY KEY (post_id)
+);
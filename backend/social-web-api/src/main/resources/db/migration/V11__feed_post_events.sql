@@ -0,0 +1,31 @@
+-- V11__feed_post_events.sql
+-- Outbox of post writes (created/updated/deleted), inserted in the same transaction as the
+-- feed_posts row. FeedEventLog relays it in seq order to in-process consumers.
+--
+-- Notes:
+-- - seq is the write's change_seq (FeedChangeLog), so seq order is commit order and a relay
+--   that has read seq N never sees a smaller seq appear later.
+-- - tags holds the tags the write added, space-separated (at most 20 of 64 characters).
+-- - feed_event_offsets keeps each durable consumer's last processed seq; old events are
+--   purged only once every active consumer is past them.
+
+CREATE TABLE feed_post_events (
+    seq bigint NOT NULL,
+    event_type varchar(16) NOT NULL,
+    post_id uuid NOT NULL,
+    author_id uuid NOT NULL,
+    tags varchar(1300) NOT NULL,
+    occurred_at timestamptz NOT NULL,
+    CONSTRAINT feed_post_events_pkey PRIMARY KEY (seq)
+);
+
+-- Replay from a point in time, and retention.
+CREATE INDEX ix_feed_post_events_occurred_at
+    ON feed_post_events (occurred_at);
+
+CREATE TABLE feed_event_offsets (
+    consumer varchar(64) NOT NULL,
+    last_seq bigint NOT NULL,
+    updated_at timestamptz NOT NULL,
+    CONSTRAINT feed_event_offsets_pkey PRIMARY KEY (consumer)
+);
@@ -0,0 +1,29 @@
+-- V12__refresh_tokens.sql
+-- Opaque refresh tokens (RefreshTokenService). Only a SHA-256 of each token is stored.
+--
+-- Notes:
+-- - Each refresh replaces the token with a new one of the same family and marks the old one
+--   rotated. A rotated token presented again means it leaked: its whole family is revoked.
+-- - session_expires_at is carried over from token to token: a session that keeps refreshing
+--   still ends maxLifetime after its login.
+-- - Rows are purged once expired.
+
+CREATE TABLE refresh_tokens (
+    token_hash varchar(43) NOT NULL,
+    family_id uuid NOT NULL,
+    subject varchar(255) NOT NULL,
+    issued_at timestamptz NOT NULL,
+    expires_at timestamptz NOT NULL,
+    session_expires_at timestamptz NOT NULL,
+    rotated_at timestamptz,
+    revoked_at timestamptz,
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (token_hash)
+);
+
+-- Revoking a family on reuse.
+CREATE INDEX ix_refresh_tokens_family_id
+    ON refresh_tokens (family_id);
+
+-- Purge.
+CREATE INDEX ix_refresh_tokens_expires_at
+    ON refresh_tokens (expires_at);
@@ -0,0 +1,23 @@
+-- V13__jwt_revocations.sql
+-- Revoked access tokens (JwtRevocations), kept until no token they cover can still be valid.
+--
+-- Notes:
+-- - revocation_key is 'jti:<token id>' (logout: that token) or 'sub:<subject>' (lockout: every
+--   token of the subject issued before revoked_before).
+-- - expires_at: the token's expiry, or revoked_before plus the access token lifetime.
+
+CREATE TABLE jwt_revocations (
+    revocation_key varchar(300) NOT NULL,
+    revoked_before timestamptz,
+    expires_at timestamptz NOT NULL,
+    created_at timestamptz NOT NULL,
+    CONSTRAINT jwt_revocations_pkey PRIMARY KEY (revocation_key)
+);
+
+-- Rebuilds load the unexpired rows; purge removes the rest.
+CREATE INDEX ix_jwt_revocations_expires_at
+    ON jwt_revocations (expires_at);
+
+-- Lockout revokes every session of a subject.
+CREATE INDEX ix_refresh_tokens_subject
+    ON refresh_tokens (subject);
@@ -0,0 +1,8 @@
+-- V14__users_is_admin.sql
+-- Admin accounts (AdminAuthorization): a flag on the users row instead of a list of emails.
+--
+-- Notes:
+-- - Registration and import never set it; grant it here or by hand:
+--   update users set is_admin = true where email = '...';
+
+ALTER TABLE users ADD COLUMN is_admin boolean NOT NULL DEFAULT false;
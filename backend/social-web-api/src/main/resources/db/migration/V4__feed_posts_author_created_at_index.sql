@@ -0,0 +1,9 @@
+-- V4__feed_posts_author_created_at_index.sql
+-- Wall query (findByAuthorIdOrderByCreatedAtDesc) filters by author_id and sorts by created_at.
+-- A composite index serves both, so the planner needs no Sort node.
+
+CREATE INDEX IF NOT EXISTS ix_feed_posts_author_id_created_at_desc
+    ON feed_posts (author_id, created_at DESC);
+
+-- Same leading column as the composite index above, so it is redundant.
+DROP INDEX IF EXISTS ix_feed_posts_author_id;
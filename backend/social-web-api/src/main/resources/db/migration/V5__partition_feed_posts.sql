@@ -0,0 +1,85 @@
+-- V5__partition_feed_posts.sql
+-- Monthly RANGE partitions on created_at, so indexes and vacuum work stay per month
+-- and old months can be detached/archived (see FeedPostPartitionMaintenance).
+--
+-- Notes:
+-- - The primary key must contain the partition key: (id, created_at).
+-- - No DEFAULT partition: it would disable ordered Append, so "newest first" feed
+--   pages could no longer stop after the newest partition. Partitions are pre-created
+--   ahead of time instead.
+
+-- Creates the partition for the month containing month_start (idempotent).
+CREATE OR REPLACE FUNCTION feed_posts_ensure_partition(month_start date) RETURNS text
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    start_date date := date_trunc('month', month_start)::date;
+    end_date   date := (date_trunc('month', month_start) + interval '1 month')::date;
+    part_name  text := format('feed_posts_p%s', to_char(start_date, 'YYYYMM'));
+BEGIN
+    IF to_regclass(part_name) IS NULL THEN
+        EXECUTE format(
+                'CREATE TABLE %I PARTITION OF feed_posts FOR VALUES FROM (%L) TO (%L)',
+                part_name,
+                to_char(start_date, 'YYYY-MM-DD') || ' 00:00:00+00',
+                to_char(end_date, 'YYYY-MM-DD') || ' 00:00:00+00'
+                );
+    END IF;
+    RETURN part_name;
+END
+$$;
+
+ALTER TABLE feed_posts RENAME TO feed_posts_unpartitioned;
+ALTER TABLE feed_posts_unpartitioned RENAME CONSTRAINT feed_posts_pkey TO feed_posts_unpartitioned_pkey;
+DROP INDEX IF EXISTS ix_feed_posts_created_at_desc;
+DROP INDEX IF EXISTS ix_feed_posts_author_id_created_at_desc;
+DROP INDEX IF EXISTS ix_feed_posts_kind;
+
+CREATE TABLE feed_posts (
+    id uuid NOT NULL,
+    created_at timestamptz NOT NULL,
+    author_id uuid NOT NULL,
+    author_display_name varchar(120) NOT NULL,
+    content varchar(2000) NOT NULL,
+    kind varchar(30) NOT NULL,
+    CONSTRAINT feed_posts_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Declared on the parent, created on every partition.
+CREATE INDEX ix_feed_posts_created_at_desc
+    ON feed_posts (created_at DESC);
+
+CREATE INDEX ix_feed_posts_author_id_created_at_desc
+    ON feed_posts (author_id, created_at DESC);
+
+CREATE INDEX ix_feed_posts_kind
+    ON feed_posts (kind);
+
+-- Partitions for all existing rows plus three months ahead.
+DO
+$$
+DECLARE
+    this_month date := date_trunc('month', now() AT TIME ZONE 'UTC')::date;
+    first_month date;
+    last_month date;
+BEGIN
+    SELECT date_trunc('month', min(created_at) AT TIME ZONE 'UTC')::date,
+           date_trunc('month', max(created_at) AT TIME ZONE 'UTC')::date
+    INTO first_month, last_month
+    FROM feed_posts_unpartitioned;
+
+    first_month := least(coalesce(first_month, this_month), this_month);
+    last_month := greatest(coalesce(last_month, this_month), (this_month + interval '3 months')::date);
+
+    WHILE first_month <= last_month LOOP
+        PERFORM feed_posts_ensure_partition(first_month);
+        first_month := (first_month + interval '1 month')::date;
+    END LOOP;
+END
+$$;
+
+INSERT INTO feed_posts (id, created_at, author_id, author_display_name, content, kind)
+SELECT id, created_at, author_id, author_display_name, content, kind
+FROM feed_posts_unpartitioned;
+
+DROP TABLE feed_posts_unpartitioned;
@@ -0,0 +1,53 @@
+-- V6__feed_posts_change_log.sql
+-- Delta sync (GET /api/feed/changes): every insert/update/delete gets a change_seq,
+-- deletes leave a tombstone (deleted_at) that FeedTombstonePurger removes later.
+--
+-- Notes:
+-- - change_seq is handed out by FeedChangeLog from feed_sync_state.last_seq; the row lock
+--   makes sequence order equal commit order.
+-- - Feed and wall indexes become partial (live rows only), matching the
+--   "deleted_at is null" filter Hibernate adds to every entity query.
+
+CREATE TABLE feed_sync_state (
+    id smallint PRIMARY KEY,
+    last_seq bigint NOT NULL,
+    purged_through_seq bigint NOT NULL
+);
+
+ALTER TABLE feed_posts ADD COLUMN change_seq bigint;
+ALTER TABLE feed_posts ADD COLUMN updated_at timestamptz;
+ALTER TABLE feed_posts ADD COLUMN deleted_at timestamptz;
+
+-- Existing rows enter the log in creation order.
+UPDATE feed_posts p
+SET change_seq = o.seq,
+    updated_at = p.created_at
+FROM (SELECT id, created_at, row_number() OVER (ORDER BY created_at, id) AS seq
+      FROM feed_posts) o
+WHERE p.id = o.id
+  AND p.created_at = o.created_at;
+
+INSERT INTO feed_sync_state (id, last_seq, purged_through_seq)
+SELECT 1, coalesce(max(change_seq), 0), 0
+FROM feed_posts;
+
+ALTER TABLE feed_posts ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE feed_posts ALTER COLUMN updated_at SET NOT NULL;
+
+CREATE INDEX ix_feed_posts_change_seq
+    ON feed_posts (change_seq);
+
+-- Purge looks up old tombstones only.
+CREATE INDEX ix_feed_posts_deleted_at
+    ON feed_posts (deleted_at)
+    WHERE deleted_at IS NOT NULL;
+
+DROP INDEX ix_feed_posts_created_at_desc;
+CREATE INDEX ix_feed_posts_created_at_desc
+    ON feed_posts (created_at DESC)
+    WHERE deleted_at IS NULL;
+
+DROP INDEX ix_feed_posts_author_id_created_at_desc;
+CREATE INDEX ix_feed_posts_author_id_created_at_desc
+    ON feed_posts (author_id, created_at DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,17 @@
+-- V7__feed_posts_search.sql
+-- Full-text search (GET /api/feed/search): a stored tsvector kept up to date by Postgres,
+-- with a GIN index over live posts.
+--
+-- Notes:
+-- - 'english' stems words ("shipping" matches "shipped"); the same config must be used
+--   by the query side (FeedPostSearch).
+-- - Adding a STORED generated column rewrites every partition once.
+-- - Partial on deleted_at IS NULL like the feed indexes: tombstones are never searched.
+
+ALTER TABLE feed_posts
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (to_tsvector('english'::regconfig, content)) STORED;
+
+CREATE INDEX ix_feed_posts_search_vector
+    ON feed_posts USING gin (search_vector)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,27 @@
+-- V8__feed_post_tags.sql
+-- Hashtag index for GET /api/feed/tag/{tag}. Rows are written by FeedPostService
+-- (see Hashtags for the parsing rules) and removed when a post is edited or deleted.
+--
+-- Notes:
+-- - PK (tag, created_at, post_id): a tag page is one index range scan, newest first.
+-- - No foreign key to feed_posts: it would block detaching old partitions. Tag rows of
+--   retired months simply stop joining.
+
+CREATE TABLE feed_post_tags (
+    tag varchar(64) NOT NULL,
+    created_at timestamptz NOT NULL,
+    post_id uuid NOT NULL,
+    CONSTRAINT feed_post_tags_pkey PRIMARY KEY (tag, created_at, post_id)
+);
+
+CREATE INDEX ix_feed_post_tags_post_id
+    ON feed_post_tags (post_id);
+
+-- Backfill live posts (same rules as Hashtags.extract, minus the per-post cap).
+INSERT INTO feed_post_tags (tag, created_at, post_id)
+SELECT DISTINCT lower(m[1]), p.created_at, p.id
+FROM feed_posts p,
+     regexp_matches(p.content, '(?<![[:alnum:]_#])#([[:alnum:]_]{1,64})(?![[:alnum:]_])', 'g') AS m
+WHERE p.deleted_at IS NULL
+  AND p.content LIKE '%#%'
+  AND m[1] ~ '[[:alpha:]]';
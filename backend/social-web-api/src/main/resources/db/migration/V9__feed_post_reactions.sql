@@ -0,0 +1,19 @@
+-- V9__feed_post_reactions.sql
+-- Reactions: one row per (post, user), so reacting is idempotent and never contends
+-- on a shared row. Totals live in feed_post_reaction_counts and are written only by
+-- ReactionCounters in periodic batched upserts, not once per click.
+
+CREATE TABLE feed_post_reactions (
+    post_id uuid NOT NULL,
+    user_id bigint NOT NULL,
+    kind varchar(16) NOT NULL,
+    created_at timestamptz NOT NULL,
+    CONSTRAINT feed_post_reactions_pkey PRIMARY KEY (post_id, user_id)
+);
+
+CREATE TABLE feed_post_reaction_counts (
+    post_id uuid NOT NULL,
+    kind varchar(16) NOT NULL,
+    total bigint NOT NULL,
+    CONSTRAINT feed_post_reaction_counts_pkey PRIMARY KEY (post_id, kind)
+);
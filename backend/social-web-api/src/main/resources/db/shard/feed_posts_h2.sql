@@ -0,0 +1,26 @@
+-- feed_posts for an in-memory H2 shard (local runs and tests).
+-- Postgres shards are migrated with db/shard/postgres instead.
+CREATE TABLE IF NOT EXISTS feed_posts (
+    id uuid PRIMARY KEY,
+    created_at timestamp with time zone NOT NULL,
+    author_id uuid NOT NULL,
+    author_display_name varchar(120) NOT NULL,
+    content varchar(2000) NOT NULL,
+    kind varchar(30) NOT NULL,
+    change_seq bigint NOT NULL,
+    updated_at timestamp with time zone NOT NULL,
+    deleted_at timestamp with time zone
+);
+
+CREATE INDEX IF NOT EXISTS ix_feed_posts_created_at_desc ON feed_posts (created_at DESC);
+CREATE INDEX IF NOT EXISTS ix_feed_posts_author_id_created_at_desc ON feed_posts (author_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS ix_feed_posts_change_seq ON feed_posts (change_seq);
+
+CREATE TABLE IF NOT EXISTS feed_post_tags (
+    tag varchar(64) NOT NULL,
+    created_at timestamp with time zone NOT NULL,
+    post_id uuid NOT NULL,
+    PRIMARY KEY (tag, created_at, post_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_feed_post_tags_post_id ON feed_post_tags (post_id);
@@ -0,0 +1,86 @@
+-- V1__feed_posts_shard.sql
+-- Schema of a Postgres feed_posts shard (ShardingConfig): only what ShardedFeedPostStore
+-- keeps there, i.e. feed_posts (as of db/migration V7) and feed_post_tags (V8).
+-- Users, the change log, outbox, reactions, comments and tokens stay on the primary.
+--
+-- Notes:
+-- - Idempotent: shards created before this location existed were migrated with db/migration
+--   and already hold these objects (plus primary-only tables, which are left alone).
+-- - Partitions past the first months are added by FeedPostPartitionMaintenance, on every shard.
+
+CREATE OR REPLACE FUNCTION feed_posts_ensure_partition(month_start date) RETURNS text
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    start_date date := date_trunc('month', month_start)::date;
+    end_date   date := (date_trunc('month', month_start) + interval '1 month')::date;
+    part_name  text := format('feed_posts_p%s', to_char(start_date, 'YYYYMM'));
+BEGIN
+    IF to_regclass(part_name) IS NULL THEN
+        EXECUTE format(
+                'CREATE TABLE %I PARTITION OF feed_posts FOR VALUES FROM (%L) TO (%L)',
+                part_name,
+                to_char(start_date, 'YYYY-MM-DD') || ' 00:00:00+00',
+                to_char(end_date, 'YYYY-MM-DD') || ' 00:00:00+00'
+                );
+    END IF;
+    RETURN part_name;
+END
+$$;
+
+CREATE TABLE IF NOT EXISTS feed_posts (
+    id uuid NOT NULL,
+    created_at timestamptz NOT NULL,
+    author_id uuid NOT NULL,
+    author_display_name varchar(120) NOT NULL,
+    content varchar(2000) NOT NULL,
+    kind varchar(30) NOT NULL,
+    change_seq bigint NOT NULL,
+    updated_at timestamptz NOT NULL,
+    deleted_at timestamptz,
+    search_vector tsvector GENERATED ALWAYS AS (to_tsvector('english'::regconfig, content)) STORED,
+    CONSTRAINT feed_posts_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS ix_feed_posts_created_at_desc
+    ON feed_posts (created_at DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS ix_feed_posts_author_id_created_at_desc
+    ON feed_posts (author_id, created_at DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS ix_feed_posts_kind
+    ON feed_posts (kind);
+
+CREATE INDEX IF NOT EXISTS ix_feed_posts_change_seq
+    ON feed_posts (change_seq);
+
+CREATE INDEX IF NOT EXISTS ix_feed_posts_deleted_at
+    ON feed_posts (deleted_at)
+    WHERE deleted_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_feed_posts_search_vector
+    ON feed_posts USING gin (search_vector)
+    WHERE deleted_at IS NULL;
+
+DO
+$$
+DECLARE
+    this_month date := date_trunc('month', now() AT TIME ZONE 'UTC')::date;
+BEGIN
+    FOR i IN 0..3 LOOP
+        PERFORM feed_posts_ensure_partition((this_month + make_interval(months => i))::date);
+    END LOOP;
+END
+$$;
+
+CREATE TABLE IF NOT EXISTS feed_post_tags (
+    tag varchar(64) NOT NULL,
+    created_at timestamptz NOT NULL,
+    post_id uuid NOT NULL,
+    CONSTRAINT feed_post_tags_pkey PRIMARY KEY (tag, created_at, post_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_feed_post_tags_post_id
+    ON feed_post_tags (post_id);
@@ -2,26 +2,50 @@ package com.socialwebapp.api.feed;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialwebapp.api.feed.dto.FeedItemDto;
+import com.socialwebapp.api.feed.dto.FeedResponse;
+import com.socialwebapp.diagnostics.FeedRequestEvent;
+import com.socialwebapp.infra.RequestBudget;
+import com.socialwebapp.infra.SqlStatementCounter;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ActiveProfiles("test")
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(RequestBudget.class)
 class FeedControllerTests {
 
+    // Feed page + reaction totals + comment counts + latest comments, however many posts.
+    private static final long FEED_PAGE_STATEMENT_BUDGET = 4;
+
     @LocalServerPort
     int port;
 
+    @Autowired
+    FeedPostService feedPostService;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
     private final ObjectMapper om = new ObjectMapper();
     private final HttpClient client = HttpClient.newHttpClient();
 
@@ -107,13 +131,376 @@ class FeedControllerTests {
         assertEquals(uniqueContent, created.get("content").asText());
     }
 
+    @Test
+    void getChanges_returnsLatestStateOfEachChangedPost_inCommitOrder() throws Exception {
+        String token = registerAndLoginFreshUserAndGetAccessToken();
+
+        JsonNode start = getJson("/api/feed/changes", token);
+        String since = start.get("watermark").asText();
+        assertEquals(0, start.get("changes").size());
+
+        String inserted = sendJson("POST", "/api/feed", token, "one").get("id").asText();
+        String updated = sendJson("POST", "/api/feed", token, "two").get("id").asText();
+        String deleted = sendJson("POST", "/api/feed", token, "three").get("id").asText();
+        sendJson("PUT", "/api/feed/" + updated, token, "two, edited");
+        HttpResponse<String> deleteRes = client.send(HttpRequest.newBuilder()
+                .uri(uri("/api/feed/" + deleted))
+                .header("Authorization", "Bearer " + token)
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(204, deleteRes.statusCode());
+
+        JsonNode res = getJson("/api/feed/changes?since=" + since, token);
+        assertFalse(res.get("resyncRequired").asBoolean());
+
+        var mine = new java.util.ArrayList<String>();
+        long lastSeq = Long.parseLong(since);
+        for (JsonNode change : res.get("changes")) {
+            assertTrue(change.get("seq").asLong() > lastSeq, "changes must be in seq order");
+            lastSeq = change.get("seq").asLong();
+            String id = change.get("id").asText();
+            if (id.equals(inserted) || id.equals(updated) || id.equals(deleted)) {
+                mine.add(change.get("op").asText() + ":" + change.path("item").path("content").asText(null));
+            }
+        }
+        assertEquals(java.util.List.of("insert:one", "update:two, edited", "delete:null"), mine);
+        assertEquals(String.valueOf(lastSeq), res.get("watermark").asText());
+
+        JsonNode again = getJson("/api/feed/changes?since=" + res.get("watermark").asText(), token);
+        assertTrue(again.get("changes").isEmpty());
+    }
+
+    @Test
+    void getChanges_limitTooHigh_returns400() throws Exception {
+        String token = registerAndLoginFreshUserAndGetAccessToken();
+
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder()
+                .uri(uri("/api/feed/changes?since=0&limit=501"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, res.statusCode());
+    }
+
+    @Test
+    void search_blankQuery_returns400() throws Exception {
+        String token = registerAndLoginFreshUserAndGetAccessToken();
+
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder()
+                .uri(uri("/api/feed/search?q=%20"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, res.statusCode());
+    }
+
+    @Test
+    void search_withoutPostgres_returns501() throws Exception {
+        String token = registerAndLoginFreshUserAndGetAccessToken();
+
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder()
+                .uri(uri("/api/feed/search?q=hello"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // Tests run on H2; full-text search needs the tsvector column from Flyway V7.
+        assertEquals(501, res.statusCode());
+    }
+
+    @Test
+    void postWithHashtags_isListedUnderTag_andTrends() throws Exception {
+        String token = registerAndLoginFreshUserAndGetAccessToken();
+        String tag = "it" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+
+        String first = sendJson("POST", "/api/feed", token, "hello #" + tag).get("id").asText();
+        String second = sendJson("POST", "/api/feed", token, "again #" + tag.toUpperCase()).get("id").asText();
+        sendJson("POST", "/api/feed", token, "no tags here");
+
+        JsonNode page = getJson("/api/feed/tag/" + tag + "?limit=1", token);
+        assertEquals(second, page.get("items").get(0).get("id").asText());
+        assertTrue(page.get("pageInfo").get("hasMore").asBoolean());
+
+        // Editing the tag away removes the post from the tag page.
+        sendJson("PUT", "/api/feed/" + second, token, "tag removed");
+        JsonNode after = getJson("/api/feed/tag/%23" + tag, token);
+        assertEquals(1, after.get("items").size());
+        assertEquals(first, after.get("items").get(0).get("id").asText());
+
+        // Trends are fed by the post event relay, so they catch up within a poll interval.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        JsonNode trends;
+        boolean trending;
+        do {
+            Thread.sleep(50);
+            trends = getJson("/api/trends?limit=50", token);
+            trending = false;
+            for (JsonNode t : trends.get("items")) {
+                trending |= tag.equals(t.get("tag").asText()) && t.get("count").asLong() >= 2;
+            }
+        } while (!trending && System.nanoTime() < deadline);
+        assertTrue(trending, "expected #" + tag + " in " + trends);
+    }
+
+    @Test
+    void reactions_areOnePerUser_andShowInFeedItems() throws Exception {
+        String alice = registerAndLoginFreshUserAndGetAccessToken();
+        String bob = registerAndLoginFreshUserAndGetAccessToken();
+        String tag = "rx" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        String id = sendJson("POST", "/api/feed", alice, "react to me #" + tag).get("id").asText();
+
+        assertEquals(1, react(id, alice, "like").get("counts").get("like").asLong());
+        assertEquals(1, react(id, alice, "LIKE").get("counts").get("like").asLong());
+        react(id, bob, "love");
+
+        JsonNode moved = react(id, alice, "love");
+        assertEquals("love", moved.get("mine").asText());
+        assertEquals(2, moved.get("counts").get("love").asLong());
+        assertFalse(moved.get("counts").has("like"));
+
+        HttpResponse<String> removed = client.send(HttpRequest.newBuilder()
+                .uri(uri("/api/feed/" + id + "/reactions"))
+                .header("Authorization", "Bearer " + bob)
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(204, removed.statusCode());
+
+        JsonNode item = getJson("/api/feed/tag/" + tag, alice).get("items").get(0);
+        assertEquals(id, item.get("id").asText());
+        assertEquals(1, item.get("reactions").get("love").asLong());
+        assertEquals(1, item.get("reactions").size());
+    }
+
+    @Test
+    void comments_arePagedByKeyset_andPreviewedInFeedItems() throws Exception {
+        String alice = registerAndLoginFreshUserAndGetAccessToken();
+        String bob = registerAndLoginFreshUserAndGetAccessToken();
+        String tag = "cm" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        String id = sendJson("POST", "/api/feed", alice, "comment on me #" + tag).get("id").asText();
+
+        List<String> commentIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            commentIds.add(0, sendJson("POST", "/api/feed/" + id + "/comments", i % 2 == 0 ? bob : alice,
+                    "comment " + i).get("id").asText());
+        }
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = getJson("/api/feed/" + id + "/comments?limit=2"
+                    + (cursor == null ? "" : "&cursor=" + cursor), alice);
+            page.get("items").forEach(c -> paged.add(c.get("id").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        assertEquals(commentIds, paged);
+
+        HttpResponse<String> forbidden = delete("/api/feed/" + id + "/comments/" + commentIds.get(0), alice);
+        assertEquals(403, forbidden.statusCode());
+        assertEquals(204, delete("/api/feed/" + id + "/comments/" + commentIds.get(0), bob).statusCode());
+
+        JsonNode item = getJson("/api/feed/tag/" + tag, alice).get("items").get(0);
+        assertEquals(4, item.get("commentCount").asLong());
+        assertEquals(2, item.get("latestComments").size());
+        assertEquals(commentIds.get(1), item.get("latestComments").get(0).get("id").asText());
+        assertEquals(commentIds.get(2), item.get("latestComments").get(1).get("id").asText());
+    }
+
+    @Test
+    void feedPageOf50_staysWithinStatementBudget() throws Exception {
+        String token = registerAndLoginFreshUserAndGetAccessToken();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(sendJson("POST", "/api/feed", token, "budget " + i).get("id").asText());
+        }
+        for (int i = 0; i < 50; i += 5) {
+            sendJson("POST", "/api/feed/" + ids.get(i) + "/comments", token, "first");
+            sendJson("POST", "/api/feed/" + ids.get(i) + "/comments", token, "second");
+            sendJson("POST", "/api/feed/" + ids.get(i) + "/comments", token, "third");
+            react(ids.get(i), token, "like");
+        }
+
+        var counted = SqlStatementCounter.count(() -> feedPostService.getFeed(1, 50));
+
+        FeedResponse page = counted.result();
+        assertEquals(50, page.items().size());
+        assertEquals(ids.get(45), page.items().get(4).id());
+        FeedItemDto commented = page.items().get(4);
+        assertEquals(3, commented.commentCount());
+        assertEquals("third", commented.latestComments().get(0).content());
+        assertEquals(1L, commented.reactions().get("like"));
+        assertTrue(counted.statements() > 0, "statement counter is not wired");
+        assertTrue(counted.statements() <= FEED_PAGE_STATEMENT_BUDGET,
+                "feed page of 50 ran " + counted.statements() + " statements");
+    }
+
+    @Test
+    void endpoints_stayWithinRequestBudgets() throws Exception {
+        String token = registerAndLoginFreshUserAndGetAccessToken();
+        String authorId = sendJson("POST", "/api/feed", token, "budget seed").get("author").get("id").asText();
+        String since = getJson("/api/feed/changes", token).get("watermark").asText();
+
+        // Statements: everything a request can need with cold caches. Bytes: about twice what the
+        // serving thread allocated when these were set (hydration forks are not counted).
+        List<RequestBudget.Budget> budgets = List.of(
+                // user lookup, change seq (2), load post, tags, event, insert
+                new RequestBudget.Budget("POST /api/feed", 7, 512 * 1024),
+                // page + reaction totals + comment counts + latest comments
+                new RequestBudget.Budget("GET /api/feed?page=1&limit=20", 4, 512 * 1024),
+                new RequestBudget.Budget("GET /api/feed/user/" + authorId + "?page=1&limit=20", 4, 512 * 1024),
+                // purge horizon + changes + the same hydration
+                new RequestBudget.Budget("GET /api/feed/changes?since=" + since, 5, 512 * 1024));
+        for (int round = 0; round < 5; round++) {
+            for (var budget : budgets) {
+                measure(budget.endpoint(), token);
+            }
+        }
+
+        for (var budget : budgets) {
+            var usage = measure(budget.endpoint(), token);
+            for (int run = 0; run < 2; run++) {
+                usage = usage.and(measure(budget.endpoint(), token));
+            }
+            budget.assertWithin(usage);
+        }
+    }
+
+    @Test
+    void metrics_areForAdmins() throws Exception {
+        HttpResponse<String> anonymous = client.send(HttpRequest.newBuilder()
+                .uri(uri("/actuator/metrics/http.server.requests"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(401, anonymous.statusCode());
+
+        String user = registerAndLoginFreshUserAndGetAccessToken();
+        assertEquals(403, send("GET", "/actuator/metrics", user).statusCode());
+
+        String admin = adminToken("metrics-admin+" + UUID.randomUUID() + "@example.com");
+        assertEquals(200, send("GET", "/actuator/metrics", admin).statusCode());
+    }
+
+    @Test
+    void jfrRecording_isForAdmins_andRecordsFeedRequests() throws Exception {
+        String user = registerAndLoginFreshUserAndGetAccessToken();
+        assertEquals(403, send("GET", "/actuator/jfr", user).statusCode());
+        assertEquals(403, send("POST", "/actuator/jfr/start", user).statusCode());
+
+        String admin = adminToken("jfr-admin+" + UUID.randomUUID() + "@example.com");
+        assertEquals(200, send("POST", "/actuator/jfr/start", admin).statusCode());
+        try {
+            sendJson("POST", "/api/feed", admin, "recorded");
+            getJson("/api/feed?page=1&limit=5", admin);
+
+            HttpResponse<byte[]> dump = client.send(HttpRequest.newBuilder()
+                    .uri(uri("/actuator/jfr/current"))
+                    .header("Authorization", "Bearer " + admin)
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, dump.statusCode());
+            Path file = Files.createTempFile("feed", ".jfr");
+            Files.write(file, dump.body());
+            var feedRequests = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(FeedRequestEvent.NAME))
+                    .filter(e -> "feed".equals(e.getString("endpoint")) && e.getInt("limit") == 5)
+                    .toList();
+            Files.delete(file);
+            assertFalse(feedRequests.isEmpty(), "no feed request event recorded");
+            assertEquals(5, feedRequests.getFirst().getInt("rows"));
+            assertTrue(feedRequests.getFirst().getDuration("serializationTime").toNanos() > 0);
+        } finally {
+            assertEquals(200, send("POST", "/actuator/jfr/stop", admin).statusCode());
+        }
+    }
+
+    private HttpResponse<String> send(String method, String path, String token) throws Exception {
+        return client.send(HttpRequest.newBuilder()
+                .uri(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .method(method, "GET".equals(method) ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString("{}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private RequestBudget.Usage measure(String endpoint, String token) throws Exception {
+        String[] call = endpoint.split(" ", 2);
+        String id = UUID.randomUUID().toString();
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder()
+                .uri(uri(call[1]))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .header("Authorization", "Bearer " + token)
+                .header(RequestBudget.HEADER, id)
+                .method(call[0], "GET".equals(call[0]) ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString("""
+                        {"content":"budget"}
+                        """))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(res.statusCode() / 100 == 2, endpoint + " Body=" + res.body());
+        return RequestBudget.measured(id);
+    }
+
+    private HttpResponse<String> delete(String path, String token) throws Exception {
+        return client.send(HttpRequest.newBuilder()
+                .uri(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode react(String postId, String token, String kind) throws Exception {
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder()
+                .uri(uri("/api/feed/" + postId + "/reactions"))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .header("Authorization", "Bearer " + token)
+                .PUT(HttpRequest.BodyPublishers.ofString("""
+                        {"kind":"%s"}
+                        """.formatted(kind)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, res.statusCode(), "PUT reactions Body=" + res.body());
+        return om.readTree(res.body());
+    }
+
+    private JsonNode getJson(String path, String token) throws Exception {
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder()
+                .uri(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, res.statusCode(), "GET " + path + " Body=" + res.body());
+        return om.readTree(res.body());
+    }
+
+    private JsonNode sendJson(String method, String path, String token, String content) throws Exception {
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder()
+                .uri(uri(path))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .header("Authorization", "Bearer " + token)
+                .method(method, HttpRequest.BodyPublishers.ofString("""
+                        {"content":"%s"}
+                        """.formatted(content)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(res.statusCode() / 100 == 2, method + " " + path + " Body=" + res.body());
+        return om.readTree(res.body());
+    }
+
     /**
      * Production-grade test strategy:
      * - Each call uses a brand new user (unique email)
      * - Avoids shared state / duplicate registration / flaky auth behavior
      */
     private String registerAndLoginFreshUserAndGetAccessToken() throws Exception {
-        String email = "user+" + UUID.randomUUID() + "@example.com";
+        return registerAndLogin("user+" + UUID.randomUUID() + "@example.com");
+    }
+
+    private String adminToken(String email) throws Exception {
+        String token = registerAndLogin(email);
+        jdbc.update("update users set is_admin = true where email = ?", email);
+        return token;
+    }
+
+    private String registerAndLogin(String email) throws Exception {
         String password = "Password123!";
 
         // 1) Register fresh user
@@ -0,0 +1,129 @@
+package com.socialwebapp.api.feed;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.api.feed.dto.FeedResponse;
+import com.socialwebapp.api.feed.dto.PageInfoDto;
+import com.socialwebapp.db.BulkheadDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.server.ResponseStatusException;
+
+class FeedReadBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FeedReadBreaker breaker = new FeedReadBreaker(
+            new FeedBreakerProperties(true, Duration.ofSeconds(2), Duration.ofSeconds(1), 4, 4, 50,
+                    Duration.ofSeconds(10), 2, 2, 10),
+            new DataSourceTransactionManager(new DriverManagerDataSource(
+                    "jdbc:h2:mem:breaker_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "")),
+            registry, now::get);
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @Test
+    void opensOnFailures_servesTheLastGoodPageAsStale_andProbesBeforeClosing() {
+        FeedResponse good = page("good");
+        assertThat(read(() -> good)).isEqualTo(new FeedReadBreaker.Served(good, false, 0));
+
+        now.addAndGet(Duration.ofSeconds(3).toNanos());
+        for (int i = 0; i < 3; i++) {
+            var served = read(this::timeout);
+            assertThat(served.stale()).isTrue();
+            assertThat(served.response()).isEqualTo(good);
+            assertThat(served.ageSeconds()).isEqualTo(3);
+        }
+        assertThat(breaker.state()).isEqualTo(FeedReadBreaker.State.OPEN);
+
+        // Open: the database is left alone.
+        int before = reads.get();
+        assertThat(read(() -> page("fresh")).response()).isEqualTo(good);
+        assertThat(reads.get()).isEqualTo(before);
+        assertThatThrownBy(() -> breaker.read(FeedReadCoalescer.FEED, null, 2, 10, this::timeout))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(read(() -> page("probe 1")).stale()).isFalse();
+        assertThat(breaker.state()).isEqualTo(FeedReadBreaker.State.HALF_OPEN);
+        assertThat(read(() -> page("probe 2")).stale()).isFalse();
+        assertThat(breaker.state()).isEqualTo(FeedReadBreaker.State.CLOSED);
+        assertThat(registry.counter("app.feed.breaker.stale", "endpoint", "feed").count()).isEqualTo(4);
+    }
+
+    @Test
+    void slowReads_count_andAFailedProbe_reopens() {
+        for (int i = 0; i < 4; i++) {
+            read(() -> {
+                now.addAndGet(Duration.ofMillis(1500).toNanos());
+                return page("slow");
+            });
+        }
+        assertThat(breaker.state()).isEqualTo(FeedReadBreaker.State.OPEN);
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(read(this::timeout).stale()).isTrue();
+        assertThat(breaker.state()).isEqualTo(FeedReadBreaker.State.OPEN);
+    }
+
+    @Test
+    void requestErrors_doNotCount() {
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> read(() -> {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
+            })).isInstanceOf(ResponseStatusException.class);
+        }
+        assertThat(breaker.state()).isEqualTo(FeedReadBreaker.State.CLOSED);
+    }
+
+    @Test
+    void aReadTakesAConnectionOnlyOnceItRunsAStatement() {
+        var bulkhead = new BulkheadDataSource(new DriverManagerDataSource(
+                "jdbc:h2:mem:breaker_lazy_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""),
+                1, Duration.ofMillis(100));
+        var lazy = new LazyConnectionDataSourceProxy(bulkhead);
+        var lazyBreaker = new FeedReadBreaker(
+                new FeedBreakerProperties(true, Duration.ofSeconds(2), Duration.ofSeconds(1), 4, 4, 50,
+                        Duration.ofSeconds(10), 2, 2, 10),
+                new DataSourceTransactionManager(lazy), registry, now::get);
+        FeedResponse good = page("good");
+
+        var served = lazyBreaker.read(FeedReadCoalescer.FEED, null, 1, 10, () -> {
+            // Waiting on a coalesced leader: the transaction has begun but holds no permit.
+            assertThat(bulkhead.available()).isEqualTo(1);
+            new JdbcTemplate(lazy).queryForObject("select 1", Integer.class);
+            assertThat(bulkhead.available()).isZero();
+            return good;
+        });
+
+        assertThat(served.response()).isEqualTo(good);
+        assertThat(bulkhead.available()).isEqualTo(1);
+    }
+
+    private FeedReadBreaker.Served read(Supplier<FeedResponse> read) {
+        return breaker.read(FeedReadCoalescer.FEED, null, 1, 10, () -> {
+            reads.incrementAndGet();
+            return read.get();
+        });
+    }
+
+    private FeedResponse timeout() {
+        throw new QueryTimeoutException("canceling statement due to statement timeout");
+    }
+
+    private static FeedResponse page(String marker) {
+        return new FeedResponse(List.of(), new PageInfoDto(1, marker.length(), false));
+    }
+}
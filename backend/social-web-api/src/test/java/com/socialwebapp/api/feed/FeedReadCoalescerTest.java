@@ -0,0 +1,124 @@
+package com.socialwebapp.api.feed;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class FeedReadCoalescerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalReads_runTheQueryOnce() throws Exception {
+        var reads = coalescer(Duration.ZERO);
+        var calls = new AtomicInteger();
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Object page = new Object();
+
+        List<Future<Object>> results = new ArrayList<>();
+        results.add(executor.submit(() -> reads.load("feed", null, 1, 20, () -> {
+            calls.incrementAndGet();
+            entered.countDown();
+            await(release);
+            return page;
+        })));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 7; i++) {
+            results.add(executor.submit(() -> reads.load("feed", null, 1, 20, () -> {
+                calls.incrementAndGet();
+                return new Object();
+            })));
+        }
+        // Followers park on the leader's future; give them time to get there.
+        while (registry.get("app.feed.reads").tag("result", "coalesced").functionCounter().count() < 7) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        for (Future<Object> f : results) {
+            assertThat(f.get(5, TimeUnit.SECONDS)).isSameAs(page);
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(registry.get("app.feed.reads.coalescing.ratio").gauge().value()).isEqualTo(7 / 8.0);
+
+        // TTL 0: nothing is kept once the leader is done.
+        reads.load("feed", null, 1, 20, calls::incrementAndGet);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void differentKeys_doNotShare_andFailuresReachFollowers_butAreNotCached() throws Exception {
+        var reads = coalescer(Duration.ofSeconds(5));
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> reads.load("wall", "a", 1, 20, () -> {
+            entered.countDown();
+            await(release);
+            throw new IllegalStateException("boom");
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Object> follower = executor.submit(() -> reads.load("wall", "a", 1, 20, Object::new));
+        while (registry.get("app.feed.reads").tag("result", "coalesced").functionCounter().count() < 1) {
+            Thread.onSpinWait();
+        }
+        assertThat(reads.load("wall", "b", 1, 20, () -> "other author")).isEqualTo("other author");
+        release.countDown();
+
+        for (Future<Object> f : List.of(leader, follower)) {
+            assertThatThrownBy(() -> f.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        }
+        assertThat(reads.load("wall", "a", 1, 20, () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void resultTtl_servesTheFinishedResult_untilItExpires() {
+        var reads = coalescer(Duration.ofMillis(500));
+        var calls = new AtomicInteger();
+
+        assertThat(reads.load("tag", "java", 1, 20, calls::incrementAndGet)).isEqualTo(1);
+        now.addAndGet(Duration.ofMillis(499).toNanos());
+        assertThat(reads.load("tag", "java", 1, 20, calls::incrementAndGet)).isEqualTo(1);
+        assertThat(reads.load("tag", "java", 2, 20, calls::incrementAndGet)).isEqualTo(2);
+
+        now.addAndGet(Duration.ofMillis(2).toNanos());
+        assertThat(reads.load("tag", "java", 1, 20, calls::incrementAndGet)).isEqualTo(3);
+        assertThat(registry.get("app.feed.reads").tag("result", "cached").functionCounter().count()).isEqualTo(1);
+    }
+
+    private FeedReadCoalescer coalescer(Duration ttl) {
+        return new FeedReadCoalescer(new FeedReadProperties(true, ttl, Duration.ofSeconds(1)), registry, now::get);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.socialwebapp.api.feed;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class HashtagsTest {
+
+    @Test
+    void extract_findsStandaloneTags_lowerCased_once() {
+        assertThat(Hashtags.extract("Shipping #Java 21 with #spring_boot! #java again, (#Postgres)"))
+                .containsExactly("java", "spring_boot", "postgres");
+    }
+
+    @Test
+    void extract_skipsNumbersGluedAndOverlongTags() {
+        assertThat(Hashtags.extract("issue#12 a#b #2026 ##double #" + "x".repeat(65) + " #ok"))
+                .containsExactly("ok");
+    }
+
+    @Test
+    void extract_supportsNonLatinLetters_andCapsTagsPerPost() {
+        assertThat(Hashtags.extract("#café #東京")).containsExactly("café", "東京");
+
+        String many = String.join(" ", IntStream.range(0, 30).mapToObj(i -> "#tag" + i).toList());
+        assertThat(Hashtags.extract(many)).hasSize(Hashtags.MAX_TAGS_PER_POST);
+    }
+
+    @Test
+    void normalize_acceptsWithOrWithoutHash() {
+        assertThat(Hashtags.normalize("#Java")).contains("java");
+        assertThat(Hashtags.normalize("java")).contains("java");
+        assertThat(Hashtags.normalize("ja va")).isEmpty();
+        assertThat(Hashtags.normalize("2026")).isEmpty();
+    }
+}
@@ -0,0 +1,178 @@
+package com.socialwebapp.api.feed;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.db.BulkheadDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class PageHydratorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // One permit: a caller holding a connection leaves none for forks.
+    private final BulkheadDataSource bulkhead = new BulkheadDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:hydrate_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""),
+            1, Duration.ofSeconds(1));
+    private final DataSource dataSource = new LazyConnectionDataSourceProxy(bulkhead);
+    private final DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+    private final PageHydrator hydrator = hydrator();
+
+    @AfterEach
+    void shutdown() {
+        hydrator.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void forksRunSideBySide_withTheCallersSecurityContext() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null));
+        // Each lookup waits for the other: only completes if both run at the same time.
+        CountDownLatch a = new CountDownLatch(1);
+        CountDownLatch b = new CountDownLatch(1);
+
+        try (var scope = hydrator.open()) {
+            var first = scope.fork("first", () -> {
+                a.countDown();
+                return await(b) ? SecurityContextHolder.getContext().getAuthentication().getName() : "timed out";
+            }, "fallback");
+            var second = scope.fork("second", () -> {
+                b.countDown();
+                return await(a) ? "second" : "timed out";
+            }, "fallback");
+            scope.join();
+
+            assertThat(first.get()).isEqualTo("alice");
+            assertThat(second.get()).isEqualTo("second");
+        }
+    }
+
+    @Test
+    void slowAndFailingForks_yieldTheirFallbacks_andSlowOnesAreCancelled() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch never = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        try (var scope = hydrator.open()) {
+            var slow = scope.fork("slow", () -> {
+                try {
+                    never.await();
+                } catch (InterruptedException ex) {
+                    interrupted.set(true);
+                } finally {
+                    stopped.countDown();
+                }
+                return "late";
+            }, "fallback");
+            var failing = scope.fork("failing", () -> {
+                throw new IllegalStateException("boom");
+            }, "fallback");
+            var fast = scope.fork("fast", () -> "fast", "fallback");
+            scope.join();
+
+            assertThat(slow.get()).isEqualTo("fallback");
+            assertThat(failing.get()).isEqualTo("fallback");
+            assertThat(fast.get()).isEqualTo("fast");
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(await(stopped)).isTrue();
+        assertThat(interrupted).isTrue();
+        assertThat(registry.counter("app.feed.hydration.fallbacks", "lookup", "slow", "reason", "timeout").count())
+                .isEqualTo(1);
+        assertThat(registry.counter("app.feed.hydration.fallbacks", "lookup", "failing", "reason", "error").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyCallers_forkIntoReadOnlyTransactions_readWriteCallersRunInline() {
+        var readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+        Thread caller = Thread.currentThread();
+
+        boolean forkedReadOnly = readOnly.execute(status -> {
+            try (var scope = hydrator.open()) {
+                var lookup = scope.fork("ro", () -> Thread.currentThread() != caller
+                        && TransactionSynchronizationManager.isCurrentTransactionReadOnly(), false);
+                scope.join();
+                return lookup.get();
+            }
+        });
+        assertThat(forkedReadOnly).isTrue();
+
+        boolean inlineOnItsConnection = readOnly.execute(status -> {
+            new JdbcTemplate(dataSource).queryForObject("select 1", Integer.class);
+            try (var scope = hydrator.open()) {
+                var lookup = scope.fork("held", () -> Thread.currentThread() == caller, false);
+                scope.join();
+                return lookup.get();
+            }
+        });
+        assertThat(inlineOnItsConnection).isTrue();
+
+        boolean inline = new TransactionTemplate(txManager).execute(status -> {
+            try (var scope = hydrator.open()) {
+                var lookup = scope.fork("rw", () -> Thread.currentThread() == caller, false);
+                scope.join();
+                return lookup.get();
+            }
+        });
+        assertThat(inline).isTrue();
+    }
+
+    @Test
+    void callerHoldingTheLastConnection_stillGetsItsLookups() {
+        var readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+        var jdbc = new JdbcTemplate(dataSource);
+
+        List<Integer> values = readOnly.execute(status -> {
+            // The page query: the caller now holds the only permit until its transaction ends.
+            jdbc.queryForObject("select 1", Integer.class);
+            try (var scope = hydrator.open()) {
+                var reactions = scope.fork("reactions", () -> jdbc.queryForObject("select 2", Integer.class), -1);
+                var comments = scope.fork("comments", () -> jdbc.queryForObject("select 3", Integer.class), -1);
+                scope.join();
+                return List.of(reactions.get(), comments.get());
+            }
+        });
+
+        assertThat(values).containsExactly(2, 3);
+        assertThat(registry.find("app.feed.hydration.fallbacks").counters()).isEmpty();
+        assertThat(bulkhead.available()).isEqualTo(1);
+    }
+
+    private PageHydrator hydrator() {
+        try {
+            return new PageHydrator(txManager, dataSource, registry,
+                    new FeedReadProperties(true, Duration.ZERO, Duration.ofMillis(300)));
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.socialwebapp.api.feed.data;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.socialwebapp.db.FeedPostPartitionMaintenance;
+import com.socialwebapp.db.PartitionProperties;
+import com.socialwebapp.infra.PostgresTestDatabase;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs against the CI Postgres only (CI_POSTGRES_CHECK=true); H2 has no tsvector.
+ */
+class FeedPostSearchTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private PostgresTestDatabase db;
+    private JdbcTemplate jdbc;
+    private long seq;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(PostgresTestDatabase.enabled(), "Skipping search checks (CI_POSTGRES_CHECK != true)");
+        db = PostgresTestDatabase.create("search");
+        jdbc = new JdbcTemplate(db.dataSource());
+        new FeedPostPartitionMaintenance(jdbc,
+                new PartitionProperties(true, 3, 24, PartitionProperties.RetireMode.DETACH, "feed_archive"))
+                .ensureRange(YearMonth.from(T0), YearMonth.from(T0));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (db != null) {
+            db.close();
+        }
+    }
+
+    @Test
+    void search_ranksDenserMatchesFirst_andStemsWords() {
+        UUID once = insert(1, "finally shipped the release");
+        UUID twice = insert(2, "shipping day: we ship the release, then ship the docs");
+        insert(3, "coffee and a book");
+
+        List<FeedSearchHit> hits = FeedPostSearch.search(jdbc, "shipping", null, 10);
+
+        assertThat(hits).extracting(h -> h.post().getId()).containsExactly(twice, once);
+        assertThat(hits.get(0).rank()).isGreaterThan(hits.get(1).rank());
+    }
+
+    @Test
+    void search_keysetPagesCoverEveryMatchOnce() {
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            expected.add(insert(i, "team lunch " + "pizza ".repeat(1 + i % 3)));
+        }
+        insert(30, "no match here");
+
+        List<UUID> seen = new ArrayList<>();
+        FeedSearchCursor cursor = null;
+        for (int page = 0; page < 10; page++) {
+            List<FeedSearchHit> hits = FeedPostSearch.search(jdbc, "pizza", cursor, 7);
+            if (hits.isEmpty()) {
+                break;
+            }
+            hits.forEach(h -> seen.add(h.post().getId()));
+            cursor = FeedSearchCursor.decode(FeedSearchCursor.of(hits.get(hits.size() - 1)).encode());
+        }
+
+        assertThat(seen).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void search_snippetEscapesHtml_andSkipsTombstones() {
+        insert(1, "<script>alert(1)</script> new release notes");
+        UUID deleted = insert(2, "release party");
+        jdbc.update("update feed_posts set deleted_at = now() where id = ?", deleted);
+
+        List<FeedSearchHit> hits = FeedPostSearch.search(jdbc, "release", null, 10);
+
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).snippet())
+                .contains("<mark>release</mark>")
+                .doesNotContain("<script>");
+    }
+
+    @Test
+    void search_acceptsAnyUserInput() {
+        insert(1, "java and spring");
+
+        assertThat(FeedPostSearch.search(jdbc, "\"java\" -python or (((", null, 10)).hasSize(1);
+        assertThat(FeedPostSearch.search(jdbc, "&|!:*", null, 10)).isEmpty();
+    }
+
+    private UUID insert(int minute, String content) {
+        UUID id = UUID.randomUUID();
+        OffsetDateTime at = T0.plusMinutes(minute);
+        jdbc.update("""
+                insert into feed_posts (id, created_at, author_id, author_display_name, content, kind, change_seq, updated_at)
+                values (?, ?, ?, 'user', ?, 'post', ?, ?)
+                """, id, at, UUID.randomUUID(), content, ++seq, at);
+        return id;
+    }
+}
@@ -0,0 +1,244 @@
+package com.socialwebapp.api.feed.data;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Three in-memory H2 databases act as shards.
+ */
+class ShardedFeedPostStoreTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(6);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void wall_isServedFromTheAuthorsShardOnly() {
+        List<JdbcTemplate> shards = shards(3);
+        var store = new ShardedFeedPostStore(shards, executor, Duration.ofSeconds(2));
+        UUID author = UUID.randomUUID();
+
+        for (int i = 0; i < 5; i++) {
+            store.save(post(author, i));
+        }
+
+        int home = ShardedFeedPostStore.shardOf(author, 3);
+        for (int s = 0; s < 3; s++) {
+            Integer rows = shards.get(s).queryForObject("select count(*) from feed_posts", Integer.class);
+            assertThat(rows).isEqualTo(s == home ? 5 : 0);
+        }
+
+        var page = store.findWall(author, PageRequest.of(0, 3));
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.getContent().get(0).getContent()).isEqualTo("post 4");
+    }
+
+    @Test
+    void feed_mergesShardsNewestFirst_acrossPages() {
+        var store = new ShardedFeedPostStore(shards(3), executor, Duration.ofSeconds(2));
+        List<FeedPostEntity> all = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            all.add(store.save(post(UUID.randomUUID(), i)));
+        }
+        all.sort(Comparator.comparing(FeedPostEntity::getCreatedAt).reversed());
+
+        List<UUID> paged = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            var slice = store.findFeed(PageRequest.of(page, 10));
+            assertThat(slice.hasNext()).isEqualTo(page < 3);
+            slice.getContent().forEach(p -> paged.add(p.getId()));
+        }
+
+        assertThat(paged).containsExactlyElementsOf(all.stream().map(FeedPostEntity::getId).toList());
+    }
+
+    @Test
+    void feed_skipsShardThatMissesTheTimeout() {
+        List<JdbcTemplate> shards = new ArrayList<>(shards(2));
+        shards.add(new JdbcTemplate(slow(h2Shard())));
+        var store = new ShardedFeedPostStore(shards, executor, Duration.ofMillis(200));
+
+        UUID author = authorOnShard(0, 3);
+        store.save(post(author, 1));
+
+        long started = System.nanoTime();
+        var slice = store.findFeed(PageRequest.of(0, 10));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+        assertThat(slice.getContent()).extracting(FeedPostEntity::getAuthorId).containsExactly(author);
+    }
+
+    @Test
+    void findById_findsPostOnAnyShard_andUpdateStaysOnItsShard() {
+        var store = new ShardedFeedPostStore(shards(3), executor, Duration.ofSeconds(2));
+        FeedPostEntity saved = store.save(post(UUID.randomUUID(), 7));
+
+        store.save(new FeedPostEntity(saved.getId(), saved.getCreatedAt(), saved.getAuthorId(),
+                saved.getAuthorDisplayName(), "edited", saved.getKind()));
+
+        assertThat(store.findById(saved.getId())).get()
+                .extracting(FeedPostEntity::getContent).isEqualTo("edited");
+
+        store.save(tombstone(saved, 9));
+        assertThat(store.findById(saved.getId())).isEmpty();
+    }
+
+    @Test
+    void changes_mergeShardsInSeqOrder_andIncludeTombstones_untilPurged() {
+        var store = new ShardedFeedPostStore(shards(3), executor, Duration.ofSeconds(2));
+        List<FeedPostEntity> posts = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            posts.add(store.save(post(UUID.randomUUID(), i, i)));
+        }
+        store.save(tombstone(posts.get(0), 7));
+
+        assertThat(store.findChanges(0, 10))
+                .extracting(FeedPostEntity::getChangeSeq).containsExactly(2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(store.findChanges(3, 2))
+                .extracting(FeedPostEntity::getChangeSeq).containsExactly(4L, 5L);
+        assertThat(store.findFeed(PageRequest.of(0, 10)).getContent()).hasSize(5);
+
+        assertThat(store.tombstoneHorizon(T0.plusDays(1))).isEqualTo(7);
+        assertThat(store.purgeTombstones(7, 100)).isEqualTo(1);
+        assertThat(store.findChanges(0, 10)).extracting(FeedPostEntity::getChangeSeq).doesNotContain(7L);
+    }
+
+    @Test
+    void tagPage_mergesShardsNewestFirst_andDropsRemovedTags() {
+        var store = new ShardedFeedPostStore(shards(3), executor, Duration.ofSeconds(2));
+        List<FeedPostEntity> tagged = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            FeedPostEntity p = store.save(post(UUID.randomUUID(), i));
+            store.saveTags(p, i % 3 == 0 ? Set.of("other") : Set.of("java", "spring"));
+            if (i % 3 != 0) {
+                tagged.add(0, p);
+            }
+        }
+        store.saveTags(tagged.get(0), Set.of());
+
+        var page = store.findByTag("java", PageRequest.of(0, 4));
+        assertThat(page.getContent()).extracting(FeedPostEntity::getId)
+                .containsExactlyElementsOf(tagged.subList(1, 5).stream().map(FeedPostEntity::getId).toList());
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    void shardOf_isStable_andMovesFewAuthorsWhenGrowing() {
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            UUID author = UUID.nameUUIDFromBytes(("author-" + i).getBytes());
+            int before = ShardedFeedPostStore.shardOf(author, 4);
+            assertThat(before).isBetween(0, 3).isEqualTo(ShardedFeedPostStore.shardOf(author, 4));
+            if (ShardedFeedPostStore.shardOf(author, 5) != before) {
+                moved++;
+            }
+        }
+        // Ideal is 1/5 of authors.
+        assertThat(moved).isBetween(1_500, 2_500);
+    }
+
+    private static FeedPostEntity post(UUID author, int n) {
+        return new FeedPostEntity(UUID.randomUUID(), T0.plusMinutes(n), author, "user", "post " + n, "post");
+    }
+
+    @Test
+    void feed_breaksTimeTiesInTheDatabasesUuidOrder() {
+        var store = new ShardedFeedPostStore(shards(2), executor, Duration.ofSeconds(2));
+        // Signed UUID.compareTo would put the 8000.../ffff... ids below 7fff.../0000...
+        List<UUID> newestFirst = List.of(
+                UUID.fromString("ffffffff-0000-0000-0000-000000000000"),
+                UUID.fromString("80000000-0000-0000-0000-000000000000"),
+                UUID.fromString("7fffffff-0000-0000-0000-000000000000"),
+                UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        for (int i = 0; i < newestFirst.size(); i++) {
+            store.save(new FeedPostEntity(newestFirst.get(i), T0, authorOnShard(i % 2, 2), "user", "tie " + i,
+                    "post", i + 1, T0, null));
+        }
+
+        List<UUID> paged = new ArrayList<>();
+        for (int page = 0; page < newestFirst.size(); page++) {
+            store.findFeed(PageRequest.of(page, 1)).getContent().forEach(p -> paged.add(p.getId()));
+        }
+
+        assertThat(store.findFeed(PageRequest.of(0, 4)).getContent()).extracting(FeedPostEntity::getId)
+                .containsExactlyElementsOf(newestFirst);
+        assertThat(paged).containsExactlyElementsOf(newestFirst);
+    }
+
+    private static FeedPostEntity post(UUID author, int n, long seq) {
+        return new FeedPostEntity(UUID.randomUUID(), T0.plusMinutes(n), author, "user", "post " + n, "post",
+                seq, T0.plusMinutes(n), null);
+    }
+
+    private static FeedPostEntity tombstone(FeedPostEntity post, long seq) {
+        OffsetDateTime at = post.getCreatedAt().plusMinutes(30);
+        return new FeedPostEntity(post.getId(), post.getCreatedAt(), post.getAuthorId(),
+                post.getAuthorDisplayName(), post.getContent(), post.getKind(), seq, at, at);
+    }
+
+    private static UUID authorOnShard(int shard, int shardCount) {
+        while (true) {
+            UUID candidate = UUID.randomUUID();
+            if (ShardedFeedPostStore.shardOf(candidate, shardCount) == shard) {
+                return candidate;
+            }
+        }
+    }
+
+    private static List<JdbcTemplate> shards(int n) {
+        List<JdbcTemplate> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            out.add(new JdbcTemplate(h2Shard()));
+        }
+        return out;
+    }
+
+    private static DataSource h2Shard() {
+        var ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:shard_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/shard/feed_posts_h2.sql")).execute(ds);
+        return ds;
+    }
+
+    private static DataSource slow(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("interrupted", e);
+                }
+                return super.getConnection();
+            }
+        };
+    }
+}
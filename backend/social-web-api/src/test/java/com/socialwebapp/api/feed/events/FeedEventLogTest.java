@@ -0,0 +1,214 @@
+package com.socialwebapp.api.feed.events;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.api.feed.data.FeedPostEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+class FeedEventLogTest {
+
+    private final DriverManagerDataSource ds = h2();
+    private final JdbcTemplate jdbc = new JdbcTemplate(ds);
+    private final FeedEventStore store = new FeedEventStore(jdbc);
+    private final List<FeedEventLog> logs = new ArrayList<>();
+    private long seq;
+
+    @AfterEach
+    void stop() {
+        logs.forEach(FeedEventLog::stop);
+    }
+
+    @Test
+    void durableConsumer_getsBatchesInSeqOrder_andResumesAfterItsOffset() {
+        store.offset("search", 0);
+        List<List<Long>> batches = new CopyOnWriteArrayList<>();
+        FeedEventLog first = log(props(2, 100), Clock.systemUTC());
+        first.subscribe("search", batch -> batches.add(batch.stream().map(FeedEvent::seq).toList()));
+        first.start();
+
+        for (int i = 0; i < 5; i++) {
+            append(FeedEvent.Type.CREATED, Set.of("t" + i));
+        }
+        first.relay();
+
+        await(() -> batches.stream().mapToLong(List::size).sum() == 5);
+        assertThat(batches).allSatisfy(b -> assertThat(b).hasSizeLessThanOrEqualTo(2));
+        assertThat(batches.stream().flatMap(List::stream).toList()).containsExactly(1L, 2L, 3L, 4L, 5L);
+        await(() -> savedOffset("search") == 5);
+        first.stop();
+
+        append(FeedEvent.Type.DELETED, Set.of());
+        batches.clear();
+        FeedEventLog second = log(props(2, 100), Clock.systemUTC());
+        second.subscribe("search", batch -> batches.add(batch.stream().map(FeedEvent::seq).toList()));
+        second.start();
+
+        await(() -> !batches.isEmpty());
+        assertThat(batches).containsExactly(List.of(6L));
+    }
+
+    @Test
+    void durableConsumerOnTwoInstances_handlesEachEventOnce_inSeqOrder() {
+        store.offset("notify", 0);
+        List<Long> seen = new CopyOnWriteArrayList<>();
+        List<FeedEventLog> instances = List.of(log(props(2, 100), Clock.systemUTC()),
+                log(props(2, 100), Clock.systemUTC()));
+        for (FeedEventLog instance : instances) {
+            instance.subscribe("notify", batch -> {
+                batch.forEach(e -> seen.add(e.seq()));
+                sleep(5); // keeps the claim long enough for the other instance to run into it
+            });
+            instance.start();
+        }
+
+        for (int i = 0; i < 20; i++) {
+            append(FeedEvent.Type.CREATED, Set.of());
+        }
+        instances.forEach(FeedEventLog::relay);
+
+        await(() -> savedOffset("notify") == 20);
+        assertThat(seen).containsExactlyElementsOf(LongStream.rangeClosed(1, 20).boxed().toList());
+    }
+
+    @Test
+    void failingHandler_getsTheSameBatchAgain_andItsOffsetWaits() {
+        store.offset("counts", 0);
+        AtomicInteger calls = new AtomicInteger();
+        List<List<FeedEvent>> delivered = new CopyOnWriteArrayList<>();
+        FeedEventLog log = log(props(10, 100), Clock.systemUTC());
+        log.subscribe("counts", batch -> {
+            delivered.add(batch);
+            if (calls.incrementAndGet() == 1) {
+                assertThat(savedOffset("counts")).isZero();
+                throw new IllegalStateException("view unavailable");
+            }
+        });
+        log.start();
+
+        append(FeedEvent.Type.CREATED, Set.of("java", "spring"));
+        append(FeedEvent.Type.UPDATED, Set.of("postgres"));
+        log.relay();
+
+        await(() -> savedOffset("counts") == 2);
+        assertThat(delivered).hasSize(2);
+        assertThat(delivered.get(1)).isEqualTo(delivered.get(0));
+        assertThat(delivered.get(0)).extracting(FeedEvent::type)
+                .containsExactly(FeedEvent.Type.CREATED, FeedEvent.Type.UPDATED);
+        assertThat(delivered.get(0).get(0).addedTags()).containsExactlyInAnyOrder("java", "spring");
+    }
+
+    @Test
+    void replayingConsumer_behindTheBuffer_readsTheTable_thenFollowsTheRelay() {
+        for (int i = 0; i < 5; i++) {
+            append(FeedEvent.Type.CREATED, Set.of());
+        }
+        List<Long> seen = new CopyOnWriteArrayList<>();
+        FeedEventLog log = log(props(2, 2), Clock.systemUTC());
+        log.start();
+        log.subscribeFrom("trends", Duration.ofHours(1), batch -> batch.forEach(e -> seen.add(e.seq())));
+
+        await(() -> seen.size() == 5);
+        for (int i = 0; i < 3; i++) {
+            append(FeedEvent.Type.UPDATED, Set.of());
+        }
+        log.relay();
+
+        await(() -> seen.size() == 8);
+        assertThat(seen).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(log.head()).isEqualTo(8);
+    }
+
+    @Test
+    void purge_dropsOnlyOldEvents_thatEverySavedOffsetIsPast() {
+        for (int i = 0; i < 5; i++) {
+            append(FeedEvent.Type.CREATED, Set.of());
+        }
+        store.offset("ahead", 5);
+        store.offset("lagging", 3);
+        Clock twoDaysLater = Clock.fixed(OffsetDateTime.now().plusDays(2).toInstant(), ZoneOffset.UTC);
+
+        log(props(500, 100), twoDaysLater).purge();
+
+        assertThat(jdbc.queryForList("select seq from feed_post_events order by seq", Long.class))
+                .containsExactly(4L, 5L);
+    }
+
+    private FeedEventLog log(FeedEventsProperties props, Clock clock) {
+        FeedEventLog log = new FeedEventLog(store, props, new SimpleMeterRegistry(),
+                new DataSourceTransactionManager(ds), clock);
+        logs.add(log);
+        return log;
+    }
+
+    private void append(FeedEvent.Type type, Set<String> tags) {
+        var now = OffsetDateTime.now();
+        store.append(type, new FeedPostEntity(UUID.randomUUID(), now, UUID.randomUUID(), "a@example.com",
+                "content", "post", ++seq, now, null), tags);
+    }
+
+    private long savedOffset(String consumer) {
+        return jdbc.queryForObject("select last_seq from feed_event_offsets where consumer = ?", Long.class, consumer);
+    }
+
+    private static FeedEventsProperties props(int batchSize, int bufferSize) {
+        return new FeedEventsProperties(Duration.ofMillis(200), batchSize, bufferSize, Duration.ofMillis(10),
+                Duration.ofMillis(50), Duration.ofDays(1), Duration.ofMinutes(10), 1000);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out").isLessThan(deadline);
+            sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static DriverManagerDataSource h2() {
+        var ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:events_" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ByteArrayResource("""
+                create table feed_post_events (
+                    seq bigint primary key,
+                    event_type varchar(16) not null,
+                    post_id uuid not null,
+                    author_id uuid not null,
+                    tags varchar(1300) not null,
+                    occurred_at timestamp with time zone not null
+                );
+                create table feed_event_offsets (
+                    consumer varchar(64) primary key,
+                    last_seq bigint not null,
+                    updated_at timestamp with time zone not null
+                );
+                """.getBytes())).execute(ds);
+        return ds;
+    }
+}
@@ -0,0 +1,186 @@
+package com.socialwebapp.api.reactions;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.db.InvalidationBus;
+import com.socialwebapp.db.InvalidationProperties;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+class ReactionCountersTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final DriverManagerDataSource ds = h2();
+    private final JdbcTemplate jdbc = new JdbcTemplate(ds);
+    private final InvalidationBus invalidations = new InvalidationBus(jdbc, new InvalidationProperties(
+            true, "app_invalidation", Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofSeconds(30),
+            Duration.ofSeconds(5)));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentAdds_withFlushesInBetween_loseNothing() throws Exception {
+        var counters = counters(Duration.ofMinutes(5));
+        UUID hot = UUID.randomUUID();
+        UUID cold = UUID.randomUUID();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 5_000; i++) {
+                    counters.add(hot, ReactionKind.LIKE, 1);
+                    if (i % 10 == 0) {
+                        counters.add(cold, ReactionKind.WOW, 1);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        while (writers.stream().anyMatch(f -> !f.isDone())) {
+            counters.flush();
+            // Reads mid-flush never go backwards past what writers could have added.
+            assertThat(counters.countsFor(hot).getOrDefault("like", 0L)).isLessThanOrEqualTo(40_000L);
+        }
+        for (Future<?> f : writers) {
+            f.get();
+        }
+
+        assertThat(counters.countsFor(hot)).isEqualTo(Map.of("like", 40_000L));
+        counters.flush();
+        assertThat(flushed(hot, "like")).isEqualTo(40_000L);
+        assertThat(flushed(cold, "wow")).isEqualTo(4_000L);
+        assertThat(counters.countsFor(List.of(hot, cold)))
+                .containsEntry(cold, Map.of("wow", 4_000L))
+                .containsEntry(hot, Map.of("like", 40_000L));
+    }
+
+    @Test
+    void countsFor_combinesFlushedTotals_withPendingDeltas_andDropsZeros() {
+        UUID post = UUID.randomUUID();
+        jdbc.update("insert into feed_post_reaction_counts (post_id, kind, total) values (?, 'love', 3)", post);
+        var counters = counters(Duration.ofMinutes(5));
+
+        counters.add(post, ReactionKind.LOVE, -1);
+        counters.add(post, ReactionKind.SAD, 1);
+        counters.add(post, ReactionKind.SAD, -1);
+
+        assertThat(counters.countsFor(post)).isEqualTo(Map.of("love", 2L));
+
+        counters.flush();
+        assertThat(flushed(post, "love")).isEqualTo(2L);
+        assertThat(jdbc.queryForObject(
+                "select count(*) from feed_post_reaction_counts where post_id = ? and kind = 'sad'",
+                Integer.class, post)).isZero();
+        assertThat(counters.countsFor(post)).isEqualTo(Map.of("love", 2L));
+    }
+
+    @Test
+    void totalsLoadedWhileAFlushCommits_areNotCountedTwice() {
+        UUID post = UUID.randomUUID();
+        jdbc.update("insert into feed_post_reaction_counts (post_id, kind, total) values (?, 'like', 3)", post);
+        var hooked = new HookedTransactionManager(ds);
+        var counters = counters(hooked, Duration.ofMinutes(5));
+        counters.add(post, ReactionKind.LIKE, 1);
+
+        // Cache miss loaded right after the upsert commits: it already includes the batch.
+        hooked.afterCommit = () -> counters.countsFor(post);
+        counters.flush();
+        hooked.afterCommit = null;
+
+        assertThat(flushed(post, "like")).isEqualTo(4L);
+        assertThat(counters.countsFor(post)).isEqualTo(Map.of("like", 4L));
+    }
+
+    @Test
+    void failedFlush_keepsItsDeltas_forTheNextFlush() {
+        UUID post = UUID.randomUUID();
+        var hooked = new HookedTransactionManager(ds);
+        var counters = counters(hooked, Duration.ofMinutes(5));
+        counters.add(post, ReactionKind.LOVE, 2);
+        assertThat(counters.countsFor(post)).isEqualTo(Map.of("love", 2L));
+
+        hooked.beforeCommit = () -> {
+            throw new IllegalStateException("database went away");
+        };
+        counters.flush();
+        hooked.beforeCommit = null;
+
+        assertThat(counters.countsFor(post)).isEqualTo(Map.of("love", 2L));
+        counters.flush();
+        assertThat(flushed(post, "love")).isEqualTo(2L);
+        assertThat(counters.countsFor(post)).isEqualTo(Map.of("love", 2L));
+    }
+
+    private ReactionCounters counters(Duration totalsTtl) {
+        return counters(new DataSourceTransactionManager(ds), totalsTtl);
+    }
+
+    private ReactionCounters counters(PlatformTransactionManager txManager, Duration totalsTtl) {
+        return new ReactionCounters(jdbc, txManager,
+                new ReactionsProperties(Duration.ofSeconds(1), totalsTtl, 100), invalidations);
+    }
+
+    private long flushed(UUID post, String kind) {
+        return jdbc.queryForObject(
+                "select total from feed_post_reaction_counts where post_id = ? and kind = ?", Long.class, post, kind);
+    }
+
+    private static final class HookedTransactionManager extends DataSourceTransactionManager {
+
+        volatile Runnable beforeCommit;
+        volatile Runnable afterCommit;
+
+        HookedTransactionManager(DataSource ds) {
+            super(ds);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            if (beforeCommit != null) {
+                beforeCommit.run();
+            }
+            super.doCommit(status);
+            if (afterCommit != null) {
+                afterCommit.run();
+            }
+        }
+    }
+
+    private static DriverManagerDataSource h2() {
+        var ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:reactions_" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ByteArrayResource("""
+                create table feed_post_reaction_counts (
+                    post_id uuid not null,
+                    kind varchar(16) not null,
+                    total bigint not null,
+                    primary key (post_id, kind)
+                );
+                """.getBytes())).execute(ds);
+        return ds;
+    }
+}
@@ -0,0 +1,98 @@
+package com.socialwebapp.api.trends;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class TrendingTagsTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T12:00:00Z"));
+
+    @Test
+    void top_findsHeavyHitters_amongManyRareTags() {
+        // Small sketch and few candidates on purpose: 5000 distinct rare tags vs 3 hot ones.
+        var trends = new TrendingTags(new TrendsProperties(Duration.ofHours(1), 6, 4, 512, 32), clock);
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            int r = random.nextInt(100);
+            String tag = r < 10 ? "java" : r < 18 ? "spring" : r < 24 ? "postgres" : "rare" + random.nextInt(5_000);
+            trends.record(List.of(tag));
+            if (i % 2_000 == 0) {
+                clock.advance(Duration.ofMinutes(4));
+            }
+        }
+
+        List<TrendingTags.Trend> top = trends.top(3);
+        assertThat(top).extracting(TrendingTags.Trend::tag).containsExactly("java", "spring", "postgres");
+        // Count-Min never underestimates; with this load the error stays small.
+        assertThat(top.get(0).count()).isBetween(1_900L, 2_300L);
+    }
+
+    @Test
+    void top_forgetsTagsOlderThanTheWindow() {
+        var trends = new TrendingTags(new TrendsProperties(Duration.ofMinutes(60), 6, 4, 1024, 8), clock);
+
+        trends.record(List.of("old", "old", "old"));
+        clock.advance(Duration.ofMinutes(30));
+        trends.record(List.of("new"));
+
+        assertThat(trends.top(5)).extracting(TrendingTags.Trend::tag).containsExactly("old", "new");
+
+        clock.advance(Duration.ofMinutes(40));
+        assertThat(trends.top(5)).containsExactly(new TrendingTags.Trend("new", 1));
+
+        clock.advance(Duration.ofMinutes(60));
+        assertThat(trends.top(5)).isEmpty();
+    }
+
+    @Test
+    void record_countsAtTheEventTime_andIgnoresEventsOlderThanTheWindow() {
+        var trends = new TrendingTags(new TrendsProperties(Duration.ofMinutes(60), 6, 4, 1024, 8), clock);
+        Instant now = clock.instant();
+
+        trends.record(List.of("late"), now.minus(Duration.ofMinutes(50)));
+        trends.record(List.of("expired"), now.minus(Duration.ofMinutes(61)));
+        trends.record(List.of("skewed"), now.plus(Duration.ofMinutes(5)));
+
+        assertThat(trends.top(5)).extracting(TrendingTags.Trend::tag).containsExactlyInAnyOrder("late", "skewed");
+
+        // "late" sat in a 50-minute-old bucket, so it expires well before "skewed".
+        clock.advance(Duration.ofMinutes(15));
+        assertThat(trends.top(5)).containsExactly(new TrendingTags.Trend("skewed", 1));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,31 +1,70 @@
 // src/test/java/com/socialwebapp/auth/AuthIntegrationTest.java
 package com.socialwebapp.auth;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialwebapp.auth.data.UserEntity;
+import com.socialwebapp.auth.data.UserRepository;
+import com.socialwebapp.db.InvalidationBus;
+import com.socialwebapp.security.JwtRevocations;
+import com.socialwebapp.infra.RequestBudget;
+import com.socialwebapp.infra.SqlStatementCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
 @SpringBootTest
+@Import(SqlStatementCounter.class)
 class AuthIntegrationTest {
 
     @Autowired
     WebApplicationContext wac;
 
+    @Autowired
+    RegisterService registerService;
+
+    @Autowired
+    UserRepository users;
+
+    @Autowired
+    TransactionTemplate tx;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    InvalidationBus invalidations;
+
+    @Autowired
+    JwtRevocations revocations;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
     private MockMvc mockMvc;
     private final ObjectMapper objectMapper = new ObjectMapper(); // 👈 no Spring bean
 
@@ -66,6 +105,246 @@ class AuthIntegrationTest {
                         not(isEmptyOrNullString())));
     }
 
+    @Test
+    void register_and_login_stayWithinRequestBudgets() throws Exception {
+        // Bytes: BCrypt (cost 10) allocates about 2 MB of small per-round arrays until C2 has compiled
+        // it away, which may not happen within a test; twice that, MockMvc included, is the budget.
+        var register = new RequestBudget.Budget("POST /api/auth/register", 2, 4 * 1024 * 1024); // email check + insert
+        var login = new RequestBudget.Budget("POST /api/auth/login", 2, 4 * 1024 * 1024);       // user by email + refresh token
+
+        for (int i = 0; i < 5; i++) {
+            registerAndLogin();
+        }
+        var usage = registerAndLogin();
+        for (int i = 0; i < 2; i++) {
+            var again = registerAndLogin();
+            usage = new RequestBudget.Usage[]{usage[0].and(again[0]), usage[1].and(again[1])};
+        }
+        register.assertWithin(usage[0]);
+        login.assertWithin(usage[1]);
+    }
+
+    @Test
+    void userLookups_areCached_andFollowCredentialChanges() throws Exception {
+        String email = "cache+" + UUID.randomUUID() + "@example.com";
+        long id = registerService.register(email, "Password123!").getId();
+        users.findByEmail(email).orElseThrow();
+
+        var cached = SqlStatementCounter.count(() -> users.findByEmail(email).orElseThrow());
+        assertEquals(0, cached.statements(), () -> "expected a cache hit, ran:\n" + String.join("\n", cached.sql()));
+        assertEquals(id, cached.result().getId());
+
+        tx.executeWithoutResult(s -> users.findById(id).orElseThrow().setPasswordHash("changed"));
+        assertEquals("changed", users.findByEmail(email).orElseThrow().getPasswordHash());
+
+        String renamed = "renamed+" + email;
+        tx.executeWithoutResult(s -> users.findById(id).orElseThrow().setEmail(renamed));
+        assertTrue(users.findByEmail(email).isEmpty());
+        assertEquals(id, users.findByEmail(renamed).orElseThrow().getId());
+
+        // Another instance's write: the bus evicts the user here too.
+        var cache = emf.getCache();
+        assertTrue(cache.contains(UserEntity.class, id));
+        invalidations.publish(UserCacheInvalidation.TOPIC, List.of(String.valueOf(id)));
+        assertFalse(cache.contains(UserEntity.class, id));
+        assertEquals(renamed, users.findByEmail(renamed).orElseThrow().getEmail());
+    }
+
+    @Test
+    void bulkImport_isForAdmins_andReportsEveryRow() throws Exception {
+        MockMvc secured = webAppContextSetup(this.wac).apply(springSecurity()).build();
+        String existing = "existing+" + UUID.randomUUID() + "@example.com";
+        registerService.register(existing, "Password123!");
+        String first = "bulk1+" + UUID.randomUUID() + "@example.com";
+        String second = "bulk2+" + UUID.randomUUID() + "@example.com";
+        String csv = "Email,Password\n"
+                + first + ",\"pass,word1\"\n"
+                + existing + ",Password123!\n"
+                + first + ",Password123!\n"
+                + "not-an-email,Password123!\n"
+                + "\n"
+                + second + ",short\n";
+
+        String user = accessToken("user+" + UUID.randomUUID() + "@example.com");
+        secured.perform(post("/api/admin/users/import")
+                        .header("Authorization", "Bearer " + user)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isForbidden());
+
+        // Admin comes from the users row, not from the email: a case variant of an admin's is no admin.
+        String adminEmail = "import-admin+" + UUID.randomUUID() + "@example.com";
+        String admin = adminToken(adminEmail);
+        secured.perform(post("/api/admin/users/import")
+                        .header("Authorization", "Bearer " + accessToken(adminEmail.toUpperCase()))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isForbidden());
+        secured.perform(post("/api/admin/users/import")
+                        .header("Authorization", "Bearer " + admin)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.existing").value(1))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.invalid").value(2))
+                .andExpect(jsonPath("$.rows[*].status").value(contains("CREATED", "EXISTS", "DUPLICATE", "INVALID", "INVALID")))
+                .andExpect(jsonPath("$.rows[0].line").value(2))
+                .andExpect(jsonPath("$.rows[0].id").isNumber())
+                .andExpect(jsonPath("$.rows[3].error").value("email_invalid"))
+                .andExpect(jsonPath("$.rows[4].line").value(7))
+                .andExpect(jsonPath("$.rows[4].error").value("password_length"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(first, "pass,word1"))))
+                .andExpect(status().isOk());
+
+        String ndjson = "{\"email\":\"" + second + "\",\"password\":\"Password123!\"}\n{not json}\n";
+        secured.perform(post("/api/admin/users/import")
+                        .header("Authorization", "Bearer " + admin)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rows[1].error").value("malformed_json"));
+        assertTrue(users.findByEmail(second).isPresent());
+    }
+
+    @Test
+    void refresh_rotatesTokens_andRevokesTheSessionOnReuse() throws Exception {
+        String email = "refresh+" + UUID.randomUUID() + "@example.com";
+        registerService.register(email, "Password123!");
+        var login = objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "Password123!"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").isString())
+                .andReturn().getResponse().getContentAsString());
+        String first = login.get("refreshToken").asText();
+
+        // Lock the user row (against revoking all sessions), mark the token used, insert the
+        // next one: no token lookup, no BCrypt.
+        var refreshed = SqlStatementCounter.count(() -> refresh(first)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(3, refreshed.statements(), () -> String.join("\n", refreshed.sql()));
+        var tokens = objectMapper.readTree(refreshed.result());
+        String second = tokens.get("refreshToken").asText();
+        assertNotEquals(first, second);
+
+        MockMvc secured = webAppContextSetup(this.wac).apply(springSecurity()).build();
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + tokens.get("accessToken").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subject").value(email));
+
+        // The first token again: someone copied it. The whole session ends.
+        refresh(first).andExpect(status().isUnauthorized());
+        refresh(second).andExpect(status().isUnauthorized());
+        refresh("not-a-token").andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logout_andRevokeAllSessions_revokeIssuedTokens() throws Exception {
+        MockMvc secured = webAppContextSetup(this.wac).apply(springSecurity()).build();
+        String email = "revoke+" + UUID.randomUUID() + "@example.com";
+        registerService.register(email, "Password123!");
+        var laptop = login(email);
+        var phone = login(email);
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + laptop.get("accessToken").asText()))
+                .andExpect(status().isOk());
+
+        // Logout ends the laptop session only.
+        secured.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + laptop.get("accessToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest(laptop.get("refreshToken").asText()))))
+                .andExpect(status().isNoContent());
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + laptop.get("accessToken").asText()))
+                .andExpect(status().isUnauthorized());
+        refresh(laptop.get("refreshToken").asText()).andExpect(status().isUnauthorized());
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + phone.get("accessToken").asText()))
+                .andExpect(status().isOk());
+
+        // Someone else's logout cannot end it with a leaked refresh token.
+        var tablet = login(email);
+        secured.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + accessToken("other+" + UUID.randomUUID() + "@example.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest(tablet.get("refreshToken").asText()))))
+                .andExpect(status().isNoContent());
+        refresh(tablet.get("refreshToken").asText()).andExpect(status().isOk());
+
+        // Revoking all sessions ends every one of them.
+        String user = accessToken("user+" + UUID.randomUUID() + "@example.com");
+        secured.perform(delete("/api/admin/users/{email}/sessions", email).header("Authorization", "Bearer " + user))
+                .andExpect(status().isForbidden());
+        String admin = adminToken("sessions-admin+" + UUID.randomUUID() + "@example.com");
+        secured.perform(delete("/api/admin/users/{email}/sessions", email).header("Authorization", "Bearer " + admin))
+                .andExpect(status().isNoContent());
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + phone.get("accessToken").asText()))
+                .andExpect(status().isUnauthorized());
+        revocations.rebuild(); // as from the database, on any instance
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + laptop.get("accessToken").asText()))
+                .andExpect(status().isUnauthorized());
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + phone.get("accessToken").asText()))
+                .andExpect(status().isUnauthorized());
+        refresh(phone.get("refreshToken").asText()).andExpect(status().isUnauthorized());
+
+        // Tokens carry whole seconds; the revocation covers the second it happened in.
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 50);
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + login(email).get("accessToken").asText()))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode login(String email) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "Password123!"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private ResultActions refresh(String token) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequest(token))));
+    }
+
+    private String accessToken(String email) throws Exception {
+        if (users.findByEmail(email).isEmpty()) {
+            registerService.register(email, "Password123!");
+        }
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "Password123!"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("accessToken").asText();
+    }
+
+    private String adminToken(String email) throws Exception {
+        registerService.register(email, "Password123!");
+        jdbc.update("update users set is_admin = true where email = ?", email);
+        return accessToken(email);
+    }
+
+    private RequestBudget.Usage[] registerAndLogin() throws Exception {
+        String body = objectMapper.writeValueAsString(
+                new RegisterRequest("it+" + UUID.randomUUID() + "@example.com", "Password123!"));
+        var register = RequestBudget.measure(() -> mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk()));
+        var login = RequestBudget.measure(() -> mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk()));
+        return new RequestBudget.Usage[]{register, login};
+    }
+
     private record RegisterRequest(String email, String password) {}
     private record LoginRequest(String email, String password) {}
+    private record RefreshRequest(String refreshToken) {}
 }
\ No newline at end of file
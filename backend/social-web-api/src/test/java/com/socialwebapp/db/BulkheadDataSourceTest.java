@@ -0,0 +1,90 @@
+package com.socialwebapp.db;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.db.BulkheadDataSource.BulkheadFullException;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class BulkheadDataSourceTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final BulkheadDataSource bulkhead = new BulkheadDataSource(new DriverManagerDataSource(
+            "jdbc:h2:mem:bulkhead_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""),
+            2, Duration.ofMillis(100));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void threadsBeyondThePermits_waitAtMostMaxWait_thenAreRejected() throws Exception {
+        CountDownLatch holding = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> {
+                try (Connection c = bulkhead.getConnection()) {
+                    holding.countDown();
+                    release.await();
+                }
+                return null;
+            });
+        }
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.available()).isZero();
+
+        Future<?> third = executor.submit(() -> {
+            bulkhead.getConnection().close();
+            return null;
+        });
+        assertThatThrownBy(() -> third.get(5, TimeUnit.SECONDS)).cause().isInstanceOf(BulkheadFullException.class);
+        assertThat(bulkhead.rejected()).isEqualTo(1);
+
+        release.countDown();
+        Future<?> fourth = executor.submit(() -> {
+            try (Connection c = bulkhead.getConnection()) {
+                return c.isValid(1);
+            }
+        });
+        assertThat(fourth.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+        awaitAvailable(2);
+    }
+
+    @Test
+    void aThreadHoldingAConnection_getsMoreWithoutAPermit_andReleasesOnItsLastClose() throws Exception {
+        Connection outer = bulkhead.getConnection();
+        Connection nested = bulkhead.getConnection();
+        assertThat(bulkhead.available()).isEqualTo(1);
+
+        nested.close();
+        nested.close();
+        assertThat(bulkhead.available()).isEqualTo(1);
+
+        outer.close();
+        assertThat(bulkhead.available()).isEqualTo(2);
+
+        // A fresh connection after that needs a permit again.
+        try (Connection again = bulkhead.getConnection()) {
+            assertThat(bulkhead.available()).isEqualTo(1);
+        }
+        assertThat(bulkhead.available()).isEqualTo(2);
+    }
+
+    private void awaitAvailable(int permits) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.available() != permits && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(bulkhead.available()).isEqualTo(permits);
+    }
+}
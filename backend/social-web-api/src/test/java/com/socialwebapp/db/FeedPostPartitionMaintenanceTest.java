@@ -0,0 +1,101 @@
+package com.socialwebapp.db;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.socialwebapp.infra.PostgresTestDatabase;
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs against the CI Postgres only (CI_POSTGRES_CHECK=true); partitions do not exist on H2.
+ */
+class FeedPostPartitionMaintenanceTest {
+
+    private PostgresTestDatabase db;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(PostgresTestDatabase.enabled(), "Skipping partition checks (CI_POSTGRES_CHECK != true)");
+        db = PostgresTestDatabase.create("partitions");
+        jdbc = new JdbcTemplate(db.dataSource());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (db != null) {
+            db.close();
+        }
+    }
+
+    @Test
+    void maintain_premakesFutureMonths_andArchivesExpiredOnes() {
+        var props = new PartitionProperties(true, 2, 6, PartitionProperties.RetireMode.ARCHIVE,
+                db.schema() + "_archive");
+        var clock = Clock.fixed(Instant.parse("2030-06-15T00:00:00Z"), ZoneOffset.UTC);
+        var maintenance = new FeedPostPartitionMaintenance(jdbc, props, null, clock);
+
+        maintenance.ensureRange(YearMonth.of(2029, 10), YearMonth.of(2030, 5));
+        jdbc.update("""
+                insert into feed_posts (id, created_at, author_id, author_display_name, content, kind, change_seq, updated_at)
+                values (gen_random_uuid(), '2029-10-10T10:00:00Z', gen_random_uuid(), 'a', 'old', 'post',
+                        1, '2029-10-10T10:00:00Z')
+                """);
+
+        maintenance.maintain();
+
+        assertThat(maintenance.attachedPartitions())
+                .contains("feed_posts_p203006", "feed_posts_p203007", "feed_posts_p203008")
+                .doesNotContain("feed_posts_p202910", "feed_posts_p202911");
+
+        Integer archivedRows = jdbc.queryForObject(
+                "select count(*) from " + props.archiveSchema() + ".feed_posts_p202910", Integer.class);
+        assertThat(archivedRows).isEqualTo(1);
+
+        jdbc.execute("DROP SCHEMA " + props.archiveSchema() + " CASCADE");
+    }
+
+    @Test
+    void maintain_skipsWhileAnotherInstanceRunsIt() throws Exception {
+        var props = new PartitionProperties(true, 2, 6, PartitionProperties.RetireMode.DETACH, "feed_archive");
+        var clock = Clock.fixed(Instant.parse("2032-06-15T00:00:00Z"), ZoneOffset.UTC);
+        var maintenance = new FeedPostPartitionMaintenance(jdbc, props, null, clock);
+
+        try (Connection other = db.dataSource().getConnection()) {
+            other.setAutoCommit(false);
+            try (var st = other.prepareStatement("select pg_advisory_xact_lock(?)")) {
+                st.setLong(1, FeedPostPartitionMaintenance.LOCK_KEY);
+                st.execute();
+            }
+            maintenance.maintain();
+            assertThat(maintenance.attachedPartitions()).doesNotContain("feed_posts_p203206");
+            other.rollback();
+        }
+
+        maintenance.maintain();
+        assertThat(maintenance.attachedPartitions()).contains("feed_posts_p203206");
+    }
+
+    @Test
+    void insertIntoPremadeMonth_landsInItsPartition() {
+        var maintenance = new FeedPostPartitionMaintenance(jdbc,
+                new PartitionProperties(true, 3, 24, PartitionProperties.RetireMode.DETACH, "feed_archive"));
+
+        maintenance.ensureRange(YearMonth.of(2031, 1), YearMonth.of(2031, 1));
+        jdbc.update("""
+                insert into feed_posts (id, created_at, author_id, author_display_name, content, kind, change_seq, updated_at)
+                values (gen_random_uuid(), '2031-01-31T23:59:59Z', gen_random_uuid(), 'a', 'edge', 'post',
+                        1, '2031-01-31T23:59:59Z')
+                """);
+
+        assertThat(jdbc.queryForObject("select count(*) from feed_posts_p203101", Integer.class)).isEqualTo(1);
+    }
+}
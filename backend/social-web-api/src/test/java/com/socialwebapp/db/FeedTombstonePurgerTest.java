@@ -0,0 +1,65 @@
+package com.socialwebapp.db;
+
+import com.socialwebapp.api.feed.data.FeedChangeLog;
+import com.socialwebapp.api.feed.data.FeedPostStore;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedTombstonePurgerTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T12:00:00Z");
+
+    @Mock
+    FeedPostStore store;
+
+    @Mock
+    FeedChangeLog changeLog;
+
+    FeedTombstonePurger purger;
+
+    @BeforeEach
+    void setUp() {
+        var props = new FeedSyncProperties(Duration.ofDays(7), Duration.ofMinutes(10), 100);
+        var h2 = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:purger;DB_CLOSE_DELAY=-1", "sa", ""));
+        purger = new FeedTombstonePurger(store, changeLog, props, Clock.fixed(NOW, ZoneOffset.UTC),
+                new ClusterJobLock(h2));
+    }
+
+    @Test
+    void purge_recordsHorizonFirst_thenDeletesInBatchesUntilShortBatch() {
+        OffsetDateTime cutoff = NOW.atOffset(ZoneOffset.UTC).minusDays(7);
+        when(store.tombstoneHorizon(cutoff)).thenReturn(420L);
+        when(store.purgeTombstones(420L, 100)).thenReturn(100, 100, 17);
+
+        purger.purge();
+
+        InOrder order = inOrder(changeLog, store);
+        order.verify(changeLog).advancePurgedThrough(420L);
+        order.verify(store, times(3)).purgeTombstones(420L, 100);
+    }
+
+    @Test
+    void purge_withNoOldTombstones_changesNothing() {
+        when(store.tombstoneHorizon(any())).thenReturn(0L);
+
+        purger.purge();
+
+        verify(store, never()).purgeTombstones(anyLong(), anyInt());
+        verifyNoInteractions(changeLog);
+    }
+}
@@ -0,0 +1,111 @@
+package com.socialwebapp.db;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class InvalidationBusTest {
+
+    private final DriverManagerDataSource ds = new DriverManagerDataSource(
+            "jdbc:h2:mem:invalidation_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    private final AtomicLong now = new AtomicLong();
+    private final InvalidationBus bus = new InvalidationBus(new JdbcTemplate(ds), props(), now::get);
+    private final List<String> evicted = new ArrayList<>();
+
+    @Test
+    void inATransaction_invalidationsApplyOnlyAfterCommit_mergedPerTopic() {
+        bus.subscribe("wall", keys -> evicted.add("wall" + keys));
+        bus.subscribe("feed", keys -> evicted.add("feed" + keys));
+        var tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+
+        tx.executeWithoutResult(status -> {
+            bus.publish("wall", List.of("a"));
+            bus.publish("wall", List.of("a"));
+            bus.publish("feed", List.of());
+            assertThat(evicted).isEmpty();
+        });
+        assertThat(evicted).containsExactly("wall[a]", "feed[]");
+
+        evicted.clear();
+        tx.executeWithoutResult(status -> {
+            bus.publish("wall", List.of("b"));
+            status.setRollbackOnly();
+        });
+        assertThat(evicted).isEmpty();
+
+        bus.publishToOthers("wall", List.of("c"));
+        assertThat(evicted).isEmpty();
+    }
+
+    @Test
+    void receivedNotifications_areDelivered_exceptThisInstancesOwn() {
+        bus.subscribe("tag", keys -> evicted.add("tag" + keys.stream().sorted().toList()));
+
+        bus.receive("other|1|tag=java,spring");
+        bus.receive(bus.origin() + "|1|tag=mine");
+        bus.receive("garbage");
+
+        assertThat(evicted).containsExactly("tag[java, spring]");
+    }
+
+    @Test
+    void aSkippedNumber_toleratesReordering_butResyncsAfterTheGrace() {
+        bus.subscribe("feed", keys -> evicted.add("feed" + keys));
+
+        bus.receive("peer|1|feed=");
+        bus.receive("peer|3|feed=");
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        bus.checkGaps();
+        bus.receive("peer|2|feed=");
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        bus.checkGaps();
+        assertThat(bus.resyncs()).isZero();
+
+        bus.receive("peer|6|feed=");
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        bus.checkGaps();
+        assertThat(bus.resyncs()).isEqualTo(1);
+
+        // After the resync the peer is followed from 7 on.
+        bus.receive("peer|7|feed=");
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        bus.checkGaps();
+        assertThat(bus.resyncs()).isEqualTo(1);
+    }
+
+    @Test
+    void oversizedPayloads_fallBackToWholeTopics() {
+        Map<String, Set<String>> topics = new LinkedHashMap<>();
+        topics.put("reactions", IntStream.range(0, 400).mapToObj(i -> UUID.randomUUID().toString())
+                .collect(Collectors.toSet()));
+        topics.put("feed", Set.of());
+
+        assertThat(InvalidationBus.encode(topics, false).length()).isGreaterThan(InvalidationBus.MAX_PAYLOAD);
+        assertThat(InvalidationBus.encode(topics, true)).isEqualTo("reactions=;feed=");
+        assertThat(InvalidationBus.decode(InvalidationBus.encode(topics, false))).isEqualTo(topics);
+        assertThatThrownBy(() -> bus.publish("tag", List.of("a,b"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static InvalidationProperties props() {
+        return props("app_invalidation", Duration.ofSeconds(10));
+    }
+
+    static InvalidationProperties props(String channel, Duration pollInterval) {
+        return new InvalidationProperties(true, channel, pollInterval,
+                Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,71 @@
+package com.socialwebapp.db;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.socialwebapp.infra.PostgresTestDatabase;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs only when CI_POSTGRES_CHECK=true (see PostgresTestDatabase).
+ */
+class InvalidationListenerTest {
+
+    @Test
+    void committedInvalidationsReachOtherInstances_andReconnectResyncs() throws Exception {
+        assumeTrue(PostgresTestDatabase.enabled(), "CI_POSTGRES_CHECK is not set");
+
+        try (var db = PostgresTestDatabase.create("invalidation")) {
+            String channel = "inv_" + db.schema();
+            var props = InvalidationBusTest.props(channel, Duration.ofSeconds(30));
+            var jdbc = new JdbcTemplate(db.dataSource());
+            var writer = new InvalidationBus(jdbc, props);
+            var reader = new InvalidationBus(jdbc, props);
+            var received = new LinkedBlockingQueue<Set<String>>();
+            reader.subscribe("wall", received::add);
+
+            var listener = new InvalidationListener(reader, db.dataSource(), props, true);
+            listener.start();
+            try {
+                awaitTrue(listener::isListening);
+                received.clear(); // the initial resync
+
+                var tx = new TransactionTemplate(new DataSourceTransactionManager(db.dataSource()));
+                tx.executeWithoutResult(status -> {
+                    writer.publish("wall", List.of("rolled-back"));
+                    status.setRollbackOnly();
+                });
+                tx.executeWithoutResult(status -> writer.publish("wall", List.of("author-1")));
+                assertThat(received.poll(5, TimeUnit.SECONDS)).containsExactly("author-1");
+
+                long resyncs = reader.resyncs();
+                jdbc.query("select pg_terminate_backend(pid) from pg_stat_activity where query = ?",
+                        rs -> { }, "LISTEN " + channel);
+                awaitTrue(() -> reader.resyncs() > resyncs && listener.isListening());
+                received.clear();
+
+                writer.publish("wall", List.of("author-2"));
+                assertThat(received.poll(5, TimeUnit.SECONDS)).containsExactly("author-2");
+            } finally {
+                listener.stop();
+            }
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
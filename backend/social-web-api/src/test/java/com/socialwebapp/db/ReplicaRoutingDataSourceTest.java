@@ -0,0 +1,146 @@
+package com.socialwebapp.db;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; each holds a
+ * one-row table naming itself, so a query shows where it was routed.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_goesToReplica_writesGoToPrimary() {
+        var routing = routing(node("primary"), node("replica"));
+
+        assertThat(whereDoesReadGo(routing)).isEqualTo("replica");
+        assertThat(whereDoesWriteGo(routing)).isEqualTo("primary");
+    }
+
+    @Test
+    void writer_readsOwnWrites_fromPrimary_untilWindowPasses() {
+        var routing = routing(node("primary"), node("replica"));
+
+        login("alice@example.com");
+        whereDoesWriteGo(routing);
+        assertThat(whereDoesReadGo(routing)).isEqualTo("primary");
+
+        login("bob@example.com");
+        assertThat(whereDoesReadGo(routing)).isEqualTo("replica");
+
+        login("alice@example.com");
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertThat(whereDoesReadGo(routing)).isEqualTo("replica");
+    }
+
+    @Test
+    void replicaDown_fallsBackToPrimary() {
+        var deadReplica = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/nowhere", "sa", "");
+        var routing = routing(node("primary"), deadReplica);
+
+        assertThat(whereDoesReadGo(routing)).isEqualTo("primary");
+        assertThat(whereDoesReadGo(routing)).isEqualTo("primary");
+    }
+
+    @Test
+    void onPrimary_overridesReadOnlyRouting() {
+        var routing = routing(node("primary"), node("replica"));
+
+        String where = ReplicaRoutingDataSource.onPrimary(() -> whereDoesReadGo(routing));
+
+        assertThat(where).isEqualTo("primary");
+        assertThat(whereDoesReadGo(routing)).isEqualTo("replica");
+    }
+
+    @Test
+    void explicitCredentials_areRoutedLikeAnyConnection() throws Exception {
+        var routing = new ReplicaRoutingDataSource(node("primary"), List.of(node("replica")),
+                new ReadYourWritesTracker(Duration.ofSeconds(5), clock::get), Duration.ofSeconds(30));
+        var tx = new TransactionTemplate(new DataSourceTransactionManager(node("tx")));
+        tx.setReadOnly(true);
+
+        String where = tx.execute(status -> {
+            try (var con = routing.getConnection("sa", "");
+                 var rs = con.createStatement().executeQuery("select name from node")) {
+                rs.next();
+                return rs.getString(1);
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertThat(where).isEqualTo("replica");
+    }
+
+    @Test
+    void close_closesTheReplicaPools() {
+        var closed = new AtomicLong();
+        class Pool extends DriverManagerDataSource implements AutoCloseable {
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+            }
+        }
+        var routing = new ReplicaRoutingDataSource(node("primary"), List.of(new Pool(), new Pool()),
+                new ReadYourWritesTracker(Duration.ofSeconds(5), clock::get), Duration.ofSeconds(30));
+
+        routing.close();
+
+        assertThat(closed).hasValue(2);
+    }
+
+    private DataSource routing(DataSource primary, DataSource replica) {
+        var tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), clock::get);
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, List.of(replica), tracker, Duration.ofSeconds(30)));
+    }
+
+    private static String whereDoesReadGo(DataSource ds) {
+        return query(ds, true);
+    }
+
+    private static String whereDoesWriteGo(DataSource ds) {
+        return query(ds, false);
+    }
+
+    private static String query(DataSource ds, boolean readOnly) {
+        var tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> new JdbcTemplate(ds).queryForObject("select name from node", String.class));
+    }
+
+    private static DataSource node(String name) {
+        var ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + "_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        var jdbc = new JdbcTemplate(ds);
+        jdbc.execute("create table node (name varchar(20))");
+        jdbc.update("insert into node (name) values (?)", name);
+        return ds;
+    }
+
+    private static void login(String subject) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(subject, null, List.of()));
+    }
+}
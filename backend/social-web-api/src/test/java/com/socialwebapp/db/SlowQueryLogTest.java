@@ -0,0 +1,84 @@
+package com.socialwebapp.db;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class SlowQueryLogTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SlowQueryLog slowQueries = new SlowQueryLog(props(Duration.ofMillis(10), 3), now::get);
+
+    @AfterEach
+    void close() {
+        slowQueries.close();
+    }
+
+    @Test
+    void normalize_groupsStatementsThatOnlyDifferInLiteralsAndListLengths() {
+        assertThat(SlowQueryLog.normalize("select * from feed_posts p1_0 where p1_0.id in (?, ?, ?)\n  and kind = 'post'"))
+                .isEqualTo("select * from feed_posts p1_0 where p1_0.id in (?...) and kind = ?");
+        assertThat(SlowQueryLog.normalize("select * from t where a = 42 and b = 'it''s' limit 10"))
+                .isEqualTo("select * from t where a = ? and b = ? limit ?");
+        assertThat(SlowQueryLog.numbered("select ? from t where a = '?' and b = ?"))
+                .isEqualTo("select $1 from t where a = '?' and b = $2");
+    }
+
+    @Test
+    void top_ranksBySlowestRun_ignoresFastStatements_andRollsOverWindows() {
+        slowQueries.record("select * from a where id = 1", ms(50));
+        slowQueries.record("select * from a where id = 2", ms(300));
+        slowQueries.record("select * from b", ms(120));
+        slowQueries.record("select * from c", ms(5));
+        slowQueries.record("select * from d", ms(20));
+        slowQueries.record("select * from e", ms(15));
+
+        assertThat(slowQueries.top()).extracting(SlowQueryLog.QueryStats::sql)
+                .containsExactly("select * from a where id = ?", "select * from b", "select * from d");
+        var a = slowQueries.top().getFirst();
+        assertThat(a.count()).isEqualTo(2);
+        assertThat(a.totalMs()).isEqualTo(350.0);
+        assertThat(a.meanMs()).isEqualTo(175.0);
+
+        // Still reported one window later; gone after two.
+        now.addAndGet(Duration.ofMinutes(15).toNanos());
+        slowQueries.record("select * from f", ms(11));
+        assertThat(slowQueries.top()).extracting(SlowQueryLog.QueryStats::sql).contains("select * from b");
+        now.addAndGet(Duration.ofMinutes(15).toNanos());
+        assertThat(slowQueries.top()).extracting(SlowQueryLog.QueryStats::sql).containsExactly("select * from f");
+    }
+
+    @Test
+    void wrappedDataSource_timesPreparedAndPlainStatements() {
+        var timing = new SlowQueryLog(props(Duration.ZERO, 10), now::get);
+        try {
+            var jdbc = new JdbcTemplate(timing.wrap(new DriverManagerDataSource(
+                    "jdbc:h2:mem:slow_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "")));
+            jdbc.execute("create table t (id int primary key)");
+            jdbc.update("insert into t (id) values (?)", 1);
+            jdbc.queryForObject("select count(*) from t where id in (1, 2)", Long.class);
+
+            assertThat(timing.top()).extracting(SlowQueryLog.QueryStats::sql).containsExactlyInAnyOrder(
+                    "create table t (id int primary key)",
+                    "insert into t (id) values (?)",
+                    "select count(*) from t where id in (?...)");
+        } finally {
+            timing.close();
+        }
+    }
+
+    private static long ms(long millis) {
+        return Duration.ofMillis(millis).toNanos();
+    }
+
+    private static SlowQueryProperties props(Duration trackAbove, int topN) {
+        return new SlowQueryProperties(true, trackAbove, Duration.ofMillis(200), topN, Duration.ofMinutes(15),
+                100, false, Duration.ofMinutes(10), 4);
+    }
+}
@@ -0,0 +1,80 @@
+package com.socialwebapp.diagnostics;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.util.unit.DataSize;
+
+class JfrRecordingEndpointTest {
+
+    @TempDir
+    Path dir;
+
+    private JfrRecordingEndpoint endpoint;
+
+    @AfterEach
+    void close() {
+        endpoint.close();
+    }
+
+    @Test
+    void startSnapshotStop_keepsTheAppEventsInTheDumps() throws Exception {
+        endpoint = endpoint(5);
+        assertThat(endpoint.control("start", "profile").getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(endpoint.status().recording().state()).isEqualTo("RUNNING");
+        assertThat(endpoint.control("start", null).getStatus()).isEqualTo(409);
+
+        FeedRequestEvent feed = new FeedRequestEvent();
+        feed.endpoint = "feed";
+        feed.rows = 7;
+        feed.dbTime = Duration.ofMillis(3).toNanos();
+        feed.commit();
+        CacheLookupEvent.record("reaction-totals", 10, 8);
+
+        var snapshot = endpoint.dump("current");
+        assertThat(snapshot.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(snapshot.getBody().getFile().toPath());
+        RecordedEvent recorded = events.stream()
+                .filter(e -> e.getEventType().getName().equals(FeedRequestEvent.NAME)).findFirst().orElseThrow();
+        assertThat(recorded.getInt("rows")).isEqualTo(7);
+        assertThat(recorded.getDuration("dbTime")).isEqualTo(Duration.ofMillis(3));
+        assertThat(events).anyMatch(e -> e.getEventType().getName().equals(CacheLookupEvent.NAME)
+                && e.getInt("hits") == 8);
+
+        assertThat(endpoint.control("stop", null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        var status = endpoint.status();
+        assertThat(status.recording()).isNull();
+        assertThat(status.dumps()).hasSize(2).allMatch(name -> name.endsWith(".jfr"));
+        assertThat(endpoint.dump(status.dumps().getFirst()).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(endpoint.control("stop", null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void rejectsUnknownProfilesAndDumpNames_andKeepsOnlyTheNewestDumps() throws Exception {
+        endpoint = endpoint(1);
+        assertThat(endpoint.control("start", "no-such-profile").getStatus())
+                .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(endpoint.dump("../etc/passwd").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(endpoint.dump("current").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        for (int i = 0; i < 3; i++) {
+            endpoint.control("start", "default");
+            endpoint.control("stop", null);
+            Thread.sleep(2); // dump names are stamped to the millisecond
+        }
+        assertThat(endpoint.status().dumps()).hasSize(1);
+    }
+
+    private JfrRecordingEndpoint endpoint(int keepDumps) {
+        return new JfrRecordingEndpoint(new JfrProperties(true, "default", Duration.ofMinutes(5),
+                DataSize.ofMegabytes(16), dir.toString(), keepDumps));
+    }
+}
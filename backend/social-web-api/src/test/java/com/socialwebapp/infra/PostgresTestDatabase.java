@@ -0,0 +1,101 @@
+package com.socialwebapp.infra;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Throwaway, migrated schema on the CI Postgres; enabled only when CI_POSTGRES_CHECK=true.
+ */
+public final class PostgresTestDatabase implements AutoCloseable {
+
+    private final String baseUrl;
+    private final String schema;
+    private final DriverManagerDataSource dataSource;
+
+    private PostgresTestDatabase(String baseUrl, String schema) {
+        this.baseUrl = baseUrl;
+        this.schema = schema;
+        this.dataSource = dataSource(baseUrl + separator(baseUrl) + "currentSchema=" + schema
+                + "&reWriteBatchedInserts=true");
+    }
+
+    public static boolean enabled() {
+        return env("CI_POSTGRES_CHECK").map("true"::equalsIgnoreCase).orElse(false);
+    }
+
+    /**
+     * Creates a fresh schema named {@code <prefix>_<random>} and applies db/migration.
+     */
+    public static PostgresTestDatabase create(String prefix) {
+        String schema = prefix + "_" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        PostgresTestDatabase db = new PostgresTestDatabase(resolveJdbcUrl(), schema);
+
+        Flyway.configure()
+                .dataSource(db.dataSource)
+                .schemas(schema)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        return db;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public String schema() {
+        return schema;
+    }
+
+    /**
+     * JDBC URL bound to this schema, for components that build their own pools.
+     */
+    public String jdbcUrl() {
+        return baseUrl + separator(baseUrl) + "currentSchema=" + schema;
+    }
+
+    @Override
+    public void close() throws Exception {
+        try (Connection c = dataSource(baseUrl).getConnection(); Statement st = c.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        }
+    }
+
+    private static DriverManagerDataSource dataSource(String url) {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                url,
+                env("POSTGRES_USER").orElse("postgres"),
+                env("POSTGRES_PASSWORD").orElse("postgres")
+        );
+        ds.setDriverClassName("org.postgresql.Driver");
+        return ds;
+    }
+
+    private static String resolveJdbcUrl() {
+        String direct = env("SPRING_DATASOURCE_URL").orElse(null);
+        if (direct != null && direct.startsWith("jdbc:postgresql:")) {
+            return direct;
+        }
+
+        String host = env("POSTGRES_HOST").orElse("localhost");
+        String port = env("POSTGRES_PORT").orElse("5433");
+        String db = env("POSTGRES_DB").orElse("social_web_test");
+        return "jdbc:postgresql://" + host + ":" + port + "/" + db;
+    }
+
+    private static String separator(String url) {
+        return url.contains("?") ? "&" : "?";
+    }
+
+    private static Optional<String> env(String name) {
+        String v = System.getenv(name);
+        if (v == null || v.isBlank()) return Optional.empty();
+        return Optional.of(v);
+    }
+}
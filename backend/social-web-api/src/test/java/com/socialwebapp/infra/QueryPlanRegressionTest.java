@@ -0,0 +1,283 @@
+package com.socialwebapp.infra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.socialwebapp.api.feed.data.FeedPostRepository;
+import com.socialwebapp.api.feed.data.FeedPostSearch;
+import com.socialwebapp.auth.data.UserRepository;
+import com.socialwebapp.db.FeedPostPartitionMaintenance;
+import com.socialwebapp.db.PartitionProperties;
+import com.socialwebapp.seed.SyntheticDataFixture;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import javax.sql.DataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * Fails when the plan of a query the repositories run has a Seq Scan that read rows or a Sort.
+ * Runs only when CI_POSTGRES_CHECK=true.
+ */
+class QueryPlanRegressionTest {
+
+    private static final List<String> FORBIDDEN_NODES = List.of("Seq Scan", "Sort", "Incremental Sort");
+
+    private static PostgresTestDatabase db;
+    private static JdbcTemplate jdbc;
+    private static AnnotationConfigApplicationContext repositories;
+    private static FeedPostRepository posts;
+    private static UserRepository users;
+
+    private static UUID hotAuthorId;
+    private static UUID coldAuthorId;
+    private static UUID postId;
+    private static String email;
+    private static long userId;
+
+    private final ObjectMapper om = new ObjectMapper();
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(PostgresTestDatabase.enabled(), "Skipping query plan checks (CI_POSTGRES_CHECK != true)");
+
+        db = PostgresTestDatabase.create("plan_check");
+        jdbc = new JdbcTemplate(db.dataSource());
+
+        // Seeded posts cover the year before the fixture anchor; give them partitions.
+        var partitions = new FeedPostPartitionMaintenance(jdbc,
+                new PartitionProperties(true, 3, 24, PartitionProperties.RetireMode.DETACH, "feed_archive"));
+        YearMonth anchor = YearMonth.of(2026, 1);
+        partitions.ensureRange(anchor.minusMonths(13), anchor);
+
+        SyntheticDataFixture.load(db.dataSource(), SyntheticDataFixture.spec(27, 2_000, 100_000));
+        jdbc.execute("ANALYZE");
+
+        repositories = new AnnotationConfigApplicationContext(Repositories.class);
+        posts = repositories.getBean(FeedPostRepository.class);
+        users = repositories.getBean(UserRepository.class);
+
+        hotAuthorId = jdbc.queryForObject(
+                "select author_id from feed_posts group by author_id order by count(*) desc limit 1", UUID.class);
+        coldAuthorId = jdbc.queryForObject(
+                "select author_id from feed_posts group by author_id order by count(*) asc limit 1", UUID.class);
+        postId = jdbc.queryForObject(
+                "select id from feed_posts order by created_at desc offset 500 limit 1", UUID.class);
+        email = jdbc.queryForObject("select email from users order by id offset 1000 limit 1", String.class);
+        userId = jdbc.queryForObject("select id from users where email = ?", Long.class, email);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (repositories != null) {
+            repositories.close();
+        }
+        if (db != null) {
+            db.close();
+        }
+    }
+
+    // ---- FeedPostRepository ----
+
+    @Test
+    void findAllByOrderByCreatedAtDesc_firstPage() throws Exception {
+        assertIndexOnly(() -> posts.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void findAllByOrderByCreatedAtDesc_firstPage_readsOnlyNewestPartition() throws Exception {
+        List<JsonNode> plans = explain(() -> posts.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 10)));
+        assertEquals(1, plans.size(), "Expected one statement");
+
+        List<String> executed = new ArrayList<>();
+        List<String> producedRows = new ArrayList<>();
+        collectExecutedRelations(plans.getFirst(), executed, producedRows);
+
+        // Empty future partitions are probed first; older months must never be opened.
+        assertEquals(1, producedRows.size(), "Expected one partition to serve the page: " + producedRows);
+        assertTrue(executed.stream().noneMatch(name -> name.startsWith("feed_posts_p2024")),
+                "Ordered Append should stop before old partitions: " + executed);
+    }
+
+    @Test
+    void findAllByOrderByCreatedAtDesc_deepPage() throws Exception {
+        assertIndexOnly(() -> posts.findAllByOrderByCreatedAtDesc(PageRequest.of(99, 10)));
+    }
+
+    @Test
+    void findByAuthorIdOrderByCreatedAtDesc_hotAuthor() throws Exception {
+        assertIndexOnly(() -> posts.findByAuthorIdOrderByCreatedAtDesc(hotAuthorId, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void findByAuthorIdOrderByCreatedAtDesc_coldAuthor() throws Exception {
+        assertIndexOnly(() -> posts.findByAuthorIdOrderByCreatedAtDesc(coldAuthorId, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void feedPost_findById() throws Exception {
+        assertIndexOnly(() -> posts.findById(postId));
+    }
+
+    @Test
+    void findChangesSince() throws Exception {
+        assertIndexOnly(() -> posts.findChangesSince(99_000, 101));
+    }
+
+    // ---- Full-text search (FeedPostSearch) ----
+
+    @Test
+    void search_usesGinIndex() throws Exception {
+        JdbcTemplate counted = new JdbcTemplate(repositories.getBean(DataSource.class));
+        List<JsonNode> plans = explain(() -> FeedPostSearch.search(counted, "coffee weekend", null, 21));
+
+        for (JsonNode plan : plans) {
+            // Ranking needs a sort of the matches; it must not need a scan of the table.
+            List<String> offending = new ArrayList<>();
+            collectForbidden(plan, offending);
+            offending.removeIf(node -> node.startsWith("Sort"));
+
+            assertTrue(offending.isEmpty(), "Search plan contains " + offending + ":\n" + plan.toPrettyString());
+            assertTrue(plan.toString().contains("Bitmap Index Scan"), "Search must use the GIN index:\n"
+                    + plan.toPrettyString());
+        }
+    }
+
+    // ---- UserRepository ----
+
+    @Test
+    void findByEmail() throws Exception {
+        assertIndexOnly(() -> users.findByEmail(email));
+    }
+
+    @Test
+    void existsByEmail() throws Exception {
+        assertIndexOnly(() -> users.existsByEmail(email));
+    }
+
+    @Test
+    void user_findById() throws Exception {
+        assertIndexOnly(() -> users.findById(userId));
+    }
+
+    private void assertIndexOnly(Callable<?> call) throws Exception {
+        for (JsonNode plan : explain(call)) {
+            List<String> offending = new ArrayList<>();
+            collectForbidden(plan, offending);
+
+            assertTrue(offending.isEmpty(), "Plan contains " + offending + ":\n" + plan.toPrettyString());
+        }
+    }
+
+    /** Runs {@code call} and EXPLAINs every statement it executed. */
+    private List<JsonNode> explain(Callable<?> call) throws Exception {
+        var counted = SqlStatementCounter.count(call);
+        assertFalse(counted.executed().isEmpty(), "Nothing was executed");
+
+        List<JsonNode> plans = new ArrayList<>();
+        for (SqlStatementCounter.Executed statement : counted.executed()) {
+            String sql = inline(statement);
+            String json = jdbc.queryForObject("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql, String.class);
+            plans.add(((ObjectNode) om.readTree(json).get(0).get("Plan")).put("Statement", sql));
+        }
+        return plans;
+    }
+
+    /** The statement with its bind values as literals (EXPLAIN ANALYZE takes no parameters). */
+    private static String inline(SqlStatementCounter.Executed statement) {
+        StringBuilder sql = new StringBuilder();
+        int parameter = 0;
+        for (char c : statement.sql().toCharArray()) {
+            if (c != '?') {
+                sql.append(c);
+                continue;
+            }
+            Object value = statement.parameters().get(parameter++);
+            if (value == null) {
+                sql.append("null");
+            } else if (value instanceof Number || value instanceof Boolean) {
+                sql.append(value);
+            } else {
+                sql.append('\'').append(value.toString().replace("'", "''")).append('\'');
+            }
+        }
+        return sql.toString();
+    }
+
+    private static void collectForbidden(JsonNode node, List<String> out) {
+        String type = node.path("Node Type").asText();
+        boolean executed = node.path("Actual Loops").asLong() > 0;
+        boolean readRows = node.path("Actual Rows").asLong() + node.path("Rows Removed by Filter").asLong() > 0;
+
+        if (FORBIDDEN_NODES.contains(type) && executed && (!"Seq Scan".equals(type) || readRows)) {
+            out.add(type + (node.has("Relation Name") ? " on " + node.get("Relation Name").asText() : ""));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectForbidden(child, out);
+        }
+    }
+
+    private static void collectExecutedRelations(JsonNode node, List<String> executed, List<String> producedRows) {
+        if (node.has("Relation Name") && node.path("Actual Loops").asLong() > 0) {
+            executed.add(node.get("Relation Name").asText());
+            if (node.path("Actual Rows").asLong() > 0) {
+                producedRows.add(node.get("Relation Name").asText());
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectExecutedRelations(child, executed, producedRows);
+        }
+    }
+
+    /** Just the repositories, with the application's entity mapping, over the counted test schema. */
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = {FeedPostRepository.class, UserRepository.class})
+    @EnableTransactionManagement
+    @Import(SqlStatementCounter.class)
+    static class Repositories {
+
+        @Bean
+        DataSource dataSource() {
+            return db.dataSource();
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            var emf = new LocalContainerEntityManagerFactoryBean();
+            emf.setDataSource(dataSource);
+            emf.setPackagesToScan("com.socialwebapp");
+            emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            emf.setJpaPropertyMap(Map.of(
+                    "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+            return emf;
+        }
+
+        @Bean
+        JpaTransactionManager transactionManager(EntityManagerFactory emf) {
+            return new JpaTransactionManager(emf);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.socialwebapp.infra;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Per-request budgets for tests: SQL statements and bytes allocated by the serving thread.
+ * Warm an endpoint up before measuring it.
+ */
+@Import(SqlStatementCounter.class)
+public class RequestBudget {
+
+    public static final String HEADER = "X-Request-Budget";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final ConcurrentHashMap<String, Usage> MEASURED = new ConcurrentHashMap<>();
+
+    public static Usage measure(Callable<?> request) throws Exception {
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        var counted = SqlStatementCounter.count(request);
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Usage(counted.statements(), allocated, counted.sql());
+    }
+
+    /**
+     * What the server measured for the request sent with {@code id}; waits briefly, since the
+     * response can reach the client before the filter is done.
+     */
+    public static Usage measured(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Usage usage;
+        while ((usage = MEASURED.remove(id)) == null) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("no measurement for request " + id + "; is RequestBudget imported?");
+            }
+            Thread.sleep(5);
+        }
+        return usage;
+    }
+
+    @Bean
+    FilterRegistrationBean<OncePerRequestFilter> requestBudgetFilter() {
+        var registration = new FilterRegistrationBean<OncePerRequestFilter>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                String id = request.getHeader(HEADER);
+                if (id == null) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+                try {
+                    MEASURED.put(id, measure(() -> {
+                        chain.doFilter(request, response);
+                        return null;
+                    }));
+                } catch (ServletException | IOException | RuntimeException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    throw new ServletException(ex);
+                }
+            }
+        });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    public record Usage(long statements, long allocatedBytes, List<String> sql) {
+
+        /** Two runs of the same request: the most statements, the fewest bytes. */
+        public Usage and(Usage other) {
+            Usage most = statements >= other.statements ? this : other;
+            return new Usage(most.statements, Math.min(allocatedBytes, other.allocatedBytes), most.sql);
+        }
+    }
+
+    /**
+     * Upper bounds for one endpoint.
+     */
+    public record Budget(String endpoint, long maxStatements, long maxAllocatedBytes) {
+
+        public void assertWithin(Usage usage) {
+            if (usage.statements() > maxStatements) {
+                throw new AssertionError(endpoint + " ran " + usage.statements() + " statements (budget "
+                        + maxStatements + "):\n  " + String.join("\n  ", usage.sql()));
+            }
+            if (usage.allocatedBytes() > maxAllocatedBytes) {
+                throw new AssertionError(endpoint + " allocated " + usage.allocatedBytes() + " bytes (budget "
+                        + maxAllocatedBytes + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.socialwebapp.infra;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts SQL statements executed by the calling thread and the threads it starts.
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    // Inheritable: threads created while counting (e.g. per-task virtual threads) count too.
+    private static final InheritableThreadLocal<Tally> COUNTER = new InheritableThreadLocal<>();
+
+    /**
+     * Runs {@code action} and returns how many statements it executed, with its result.
+     */
+    public static <T> Counted<T> count(Callable<T> action) throws Exception {
+        Tally tally = new Tally();
+        Tally outer = COUNTER.get();
+        COUNTER.set(tally);
+        try {
+            T result = action.call();
+            return new Counted<>(tally.statements.get(), List.copyOf(tally.sql), List.copyOf(tally.executed), result);
+        } finally {
+            if (outer == null) {
+                COUNTER.remove();
+            } else {
+                outer.statements.addAndGet(tally.statements.get());
+                outer.sql.addAll(tally.sql);
+                outer.executed.addAll(tally.executed);
+                COUNTER.set(outer);
+            }
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource ds && "dataSource".equals(beanName)) {
+            return new DelegatingDataSource(ds) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return proxy(Connection.class, super.getConnection(), null);
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return proxy(Connection.class, super.getConnection(username, password), null);
+                }
+            };
+        }
+        return bean;
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, String preparedSql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        InvocationHandler handler = (p, method, args) -> {
+            String name = method.getName();
+            if (target instanceof PreparedStatement && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                parameters.put(index, "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameters.clear();
+            }
+            if (target instanceof Statement && name.startsWith("execute")) {
+                Tally tally = COUNTER.get();
+                if (tally != null) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String direct ? direct
+                            : preparedSql == null ? "(batch)" : preparedSql;
+                    tally.statements.incrementAndGet();
+                    tally.sql.add(sql);
+                    tally.executed.add(new Executed(sql, new ArrayList<>(parameters.values())));
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            // Connection#prepareStatement and friends: wrap the statement too.
+            if (result instanceof Statement && method.getReturnType().isInterface()
+                    && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(castType(method.getReturnType()), result, sql);
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> castType(Class<?> type) {
+        return (Class<T>) type;
+    }
+
+    public record Counted<T>(long statements, List<String> sql, List<Executed> executed, T result) {}
+
+    /** One statement as run: its SQL and the values bound to its parameters, in order. */
+    public record Executed(String sql, List<Object> parameters) {}
+
+    private static final class Tally {
+        final AtomicLong statements = new AtomicLong();
+        final Queue<String> sql = new ConcurrentLinkedQueue<>();
+        final Queue<Executed> executed = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,181 @@
+package com.socialwebapp.infra;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.api.feed.FeedReadCoalescer;
+import com.socialwebapp.api.feed.FeedReadProperties;
+import com.socialwebapp.api.reactions.ReactionCounters;
+import com.socialwebapp.api.reactions.ReactionKind;
+import com.socialwebapp.api.reactions.ReactionsProperties;
+import com.socialwebapp.db.BulkheadDataSource;
+import com.socialwebapp.db.InvalidationBus;
+import com.socialwebapp.db.InvalidationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Fails when the request-path structures pin a virtual thread while holding a monitor.
+ */
+class VirtualThreadPinningTest {
+
+    @Test
+    void requestPathStructures_neverBlockWhileHoldingAMonitor() throws Exception {
+        var pinned = new ConcurrentLinkedQueue<String>();
+
+        try (var jfr = new RecordingStream()) {
+            jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            jfr.onEvent("jdk.VirtualThreadPinned", event -> {
+                if (fromOurCode(event)) {
+                    pinned.add(stack(event));
+                }
+            });
+            jfr.startAsync();
+
+            try {
+                runWorkload();
+            } finally {
+                jfr.stop();
+                // Pinning is the likelier cause when the workload stalls, so report it first.
+                assertThat(pinned).as("virtual threads pinned by our code").isEmpty();
+            }
+        }
+    }
+
+    private static void runWorkload() throws Exception {
+        var ds = new BulkheadDataSource(slow(h2()), 2, Duration.ofSeconds(5));
+        var jdbc = new JdbcTemplate(ds);
+        var invalidations = new InvalidationBus(jdbc, new InvalidationProperties(
+                true, "app_invalidation", Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofSeconds(30),
+                Duration.ofSeconds(5)));
+        var counters = new ReactionCounters(jdbc, new DataSourceTransactionManager(ds),
+                new ReactionsProperties(Duration.ofSeconds(1), Duration.ZERO, 100), invalidations);
+        var reads = new FeedReadCoalescer(new FeedReadProperties(true, Duration.ZERO, Duration.ofSeconds(1)),
+                new SimpleMeterRegistry(), invalidations);
+        UUID post = UUID.randomUUID();
+
+        List<Future<?>> tasks = new ArrayList<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int t = 0; t < 32; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        counters.add(post, ReactionKind.LIKE, 1);
+                        counters.countsFor(post);
+                        counters.flush();
+                        reads.load("feed", null, 1, 20, () -> jdbc.queryForObject("select 1", Integer.class));
+                    }
+                    return null;
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            for (Future<?> task : tasks) {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(counters.countsFor(post)).containsEntry("like", 320L);
+    }
+
+    private static boolean fromOurCode(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return false;
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        boolean ours = frames.stream().anyMatch(f -> type(f).startsWith("com.socialwebapp."));
+        String blockedIn = frames.stream()
+                .map(VirtualThreadPinningTest::type)
+                .filter(type -> !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun."))
+                .findFirst()
+                .orElse("");
+        return ours && !blockedIn.startsWith("org.h2.");
+    }
+
+    private static String stack(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream()
+                .map(f -> type(f) + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n  at ", "pinned for " + event.getDuration() + "\n  at ", ""));
+    }
+
+    private static String type(RecordedFrame frame) {
+        return frame.getMethod().getType().getName();
+    }
+
+    private static DelegatingDataSource slow(DriverManagerDataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                roundTrip();
+                return (Connection) slowed(super.getConnection(), Connection.class);
+            }
+        };
+    }
+
+    /** Sleeps before every execute and commit; statements handed out are slowed the same way. */
+    private static Object slowed(Object target, Class<?> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute") || name.equals("commit")) {
+                roundTrip();
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return slowed(result, method.getReturnType());
+                }
+                return result;
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        };
+        return Proxy.newProxyInstance(VirtualThreadPinningTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static void roundTrip() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DriverManagerDataSource h2() {
+        var ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:pinning_" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ByteArrayResource("""
+                create table feed_post_reaction_counts (
+                    post_id uuid not null,
+                    kind varchar(16) not null,
+                    total bigint not null,
+                    primary key (post_id, kind)
+                );
+                """.getBytes())).execute(ds);
+        return ds;
+    }
+}
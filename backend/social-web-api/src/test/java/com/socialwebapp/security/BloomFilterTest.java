@@ -0,0 +1,29 @@
+package com.socialwebapp.security;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedKey_andStaysNearItsFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("jti:" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("jti:" + i)).isTrue();
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("sub:user" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000); // 1% expected: 1000
+        assertThat(filter.hashCount()).isEqualTo(7);
+        assertThat(filter.bitSize()).isLessThan(10_000 * 10L);
+    }
+}
@@ -0,0 +1,106 @@
+package com.socialwebapp.security;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.db.InvalidationBus;
+import com.socialwebapp.db.InvalidationProperties;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class JwtRevocationsTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00.250Z");
+    private static final InvalidationProperties BUS = new InvalidationProperties(false, "app_invalidation",
+            Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofSeconds(5));
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private final JwtRevocationProperties props =
+            new JwtRevocationProperties(Duration.ofMinutes(1), 100, 0.01, Duration.ofHours(1), 100);
+    private final JwtProperties jwt = new JwtProperties("test", "secret", 900);
+
+    @Test
+    void otherInstances_applyRevocationsFromTheMessage_withoutReloading() {
+        // B's database has no jwt_revocations table: a reload there fails and keeps the set.
+        InvalidationBus busB = bus(jdbc());
+        JwtRevocations b = new JwtRevocations(jdbc(), busB, props, jwt, clock);
+        JdbcTemplate shared = jdbc();
+        shared.execute("create table jwt_revocations (revocation_key varchar(300) primary key, "
+                + "revoked_before timestamp with time zone, expires_at timestamp with time zone not null, "
+                + "created_at timestamp with time zone not null)");
+        JwtRevocations a = new JwtRevocations(shared, forwardingTo(busB, shared), props, jwt, clock);
+
+        Jwt loggedOut = token("user@example.com", NOW.minusSeconds(60));
+        String subject = "a=b,c@example.com"; // characters bus keys must not hold
+        Jwt lockedOut = token(subject, NOW.minusSeconds(30));
+        Jwt later = token(subject, NOW.plusSeconds(2));
+
+        a.revokeToken(loggedOut.getId(), loggedOut.getExpiresAt());
+        a.revokeSubject(subject);
+
+        assertThat(b.isRevoked(loggedOut)).isTrue();
+        assertThat(b.isRevoked(lockedOut)).isTrue();
+        assertThat(b.isRevoked(later)).isFalse();
+        assertThat(b.isRevoked(token("user@example.com", NOW.minusSeconds(60)))).isFalse();
+    }
+
+    @Test
+    void aRestartedInstance_refusesTokensRevokedBeforeIt_fromItsFirstRequest() {
+        JdbcTemplate shared = jdbc();
+        shared.execute("create table jwt_revocations (revocation_key varchar(300) primary key, "
+                + "revoked_before timestamp with time zone, expires_at timestamp with time zone not null, "
+                + "created_at timestamp with time zone not null)");
+        Jwt loggedOut = token("user@example.com", NOW.minusSeconds(60));
+        new JwtRevocations(shared, bus(shared), props, jwt, clock)
+                .revokeToken(loggedOut.getId(), loggedOut.getExpiresAt());
+
+        JwtRevocations restarted = new JwtRevocations(shared, bus(shared), props, jwt, clock);
+        restarted.afterSingletonsInstantiated();
+
+        assertThat(restarted.isRevoked(loggedOut)).isTrue();
+    }
+
+    @Test
+    void startup_failsWhenRevocationsCannotBeLoaded() {
+        JdbcTemplate noTable = jdbc();
+        JwtRevocations revocations = new JwtRevocations(noTable, bus(noTable), props, jwt, clock);
+
+        assertThatIllegalStateException().isThrownBy(revocations::afterSingletonsInstantiated);
+    }
+
+    private static Jwt token(String subject, Instant issuedAt) {
+        return Jwt.withTokenValue("t")
+                .header("alg", "HS256")
+                .subject(subject)
+                .jti(UUID.randomUUID().toString())
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(900))
+                .build();
+    }
+
+    private static JdbcTemplate jdbc() {
+        return new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:revocations_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+
+    private static InvalidationBus bus(JdbcTemplate jdbc) {
+        return new InvalidationBus(jdbc, BUS);
+    }
+
+    /** Stands in for NOTIFY: what A sends to the others is delivered to B. */
+    private static InvalidationBus forwardingTo(InvalidationBus other, JdbcTemplate jdbc) {
+        return new InvalidationBus(jdbc, BUS) {
+            @Override
+            public void publishToOthers(String topic, Collection<String> keys) {
+                other.publish(topic, keys);
+            }
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package com.socialwebapp.security;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class RateLimiterTest {
+
+    private static final RateLimitProperties.Rule LOGIN = new RateLimitProperties.Rule(
+            "login", "POST", "/api/auth/login", RateLimitProperties.KeyBy.IP, 3, Duration.ofSeconds(10));
+    private static final RateLimitProperties.Rule POST = new RateLimitProperties.Rule(
+            "post", "POST", "/api/feed", RateLimitProperties.KeyBy.SUBJECT, 2, Duration.ofSeconds(5));
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000_000L);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void cleanUp() {
+        executor.shutdownNow();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void allowsBurst_thenRefillsOneTokenPerInterval() {
+        var limiter = limiter(100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(LOGIN, "ip:1.2.3.4")).isZero();
+        }
+        assertThat(limiter.tryAcquire(LOGIN, "ip:1.2.3.4")).isEqualTo(Duration.ofSeconds(10).toNanos());
+        assertThat(limiter.tryAcquire(LOGIN, "ip:5.6.7.8")).isZero();
+
+        advance(Duration.ofSeconds(4));
+        assertThat(limiter.tryAcquire(LOGIN, "ip:1.2.3.4")).isEqualTo(Duration.ofSeconds(6).toNanos());
+        advance(Duration.ofSeconds(6));
+        assertThat(limiter.tryAcquire(LOGIN, "ip:1.2.3.4")).isZero();
+        assertThat(limiter.tryAcquire(LOGIN, "ip:1.2.3.4")).isPositive();
+    }
+
+    @Test
+    void concurrentClients_neverGetMoreThanTheBurst() throws Exception {
+        var limiter = limiter(100);
+        var rule = new RateLimitProperties.Rule(
+                "hot", null, "/**", RateLimitProperties.KeyBy.IP, 500, Duration.ofHours(1));
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    if (limiter.tryAcquire(rule, "ip:9.9.9.9") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : workers) {
+            f.get();
+        }
+
+        assertThat(allowed).hasValue(500);
+    }
+
+    @Test
+    void ipChurn_keepsTheMapBounded_andSweepsFullBuckets() {
+        var limiter = limiter(50);
+
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire(LOGIN, "ip:10.0." + (i / 256) + "." + (i % 256));
+        }
+        // 10.0.0.* to 10.0.3.*: at most one overflow bucket per /24.
+        assertThat(limiter.size()).isLessThanOrEqualTo(54);
+
+        // Past the refill window every bucket is full again, i.e. the same as absent.
+        advance(Duration.ofSeconds(30));
+        limiter.sweep();
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void fullMap_throttlesNewClientsPerNetwork_andSweepsInlineOncePerInterval() {
+        var limiter = limiter(10);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(LOGIN, "ip:10.0.0." + i);
+        }
+
+        // One busy network drains its overflow bucket; a client elsewhere still gets in.
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(LOGIN, "ip:198.51.100." + i)).isZero();
+        }
+        assertThat(limiter.tryAcquire(LOGIN, "ip:198.51.100.200")).isPositive();
+        assertThat(limiter.tryAcquire(LOGIN, "ip:203.0.113.9")).isZero();
+        assertThat(limiter.overflowed()).isEqualTo(5);
+
+        // Buckets are full again, but the last inline sweep was less than a sweep interval ago.
+        advance(Duration.ofSeconds(30));
+        limiter.tryAcquire(LOGIN, "ip:192.0.2.1");
+        assertThat(limiter.size()).isGreaterThanOrEqualTo(10);
+
+        advance(Duration.ofSeconds(31));
+        assertThat(limiter.tryAcquire(LOGIN, "ip:192.0.2.2")).isZero();
+        assertThat(limiter.size()).isLessThan(10);
+        assertThat(limiter.overflowed()).isEqualTo(6);
+    }
+
+    @Test
+    void network_isTheSlash24OrSlash64() {
+        assertThat(RateLimiter.network("ip:198.51.100.7")).isEqualTo("ip:198.51.100");
+        assertThat(RateLimiter.network("ip:2001:db8:0:1::7"))
+                .isEqualTo(RateLimiter.network("ip:2001:db8:0:1:ffff::1"))
+                .isNotEqualTo(RateLimiter.network("ip:2001:db8:0:2::7"));
+        assertThat(RateLimiter.network("sub:alice@example.com")).isEqualTo("sub:alice@example.com");
+    }
+
+    @Test
+    void filter_returns429WithRetryAfter_perSubject() throws Exception {
+        var filter = new RateLimitFilter(limiter(100),
+                new RateLimitProperties(true, 100, Duration.ofMinutes(1), List.of(LOGIN, POST)));
+
+        authenticate("alice@example.com");
+        assertThat(post(filter, "/api/feed").getStatus()).isEqualTo(200);
+        assertThat(post(filter, "/api/feed").getStatus()).isEqualTo(200);
+        MockHttpServletResponse limited = post(filter, "/api/feed");
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("5");
+        assertThat(limited.getContentAsString()).contains("\"code\":\"rate_limited\"");
+
+        // Same IP, different user: separate bucket. Unmatched routes are never limited.
+        authenticate("bob@example.com");
+        assertThat(post(filter, "/api/feed").getStatus()).isEqualTo(200);
+        for (int i = 0; i < 5; i++) {
+            assertThat(post(filter, "/api/feed/changes").getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse post(RateLimitFilter filter, String path) throws Exception {
+        var request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr("203.0.113.7");
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String subject) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                subject, null, AuthorityUtils.NO_AUTHORITIES));
+    }
+
+    private RateLimiter limiter(int maxKeys) {
+        return new RateLimiter(new RateLimitProperties(true, maxKeys, Duration.ofMinutes(1), List.of()), nanos::get);
+    }
+
+    private void advance(Duration d) {
+        nanos.addAndGet(d.toNanos());
+    }
+}
@@ -0,0 +1,28 @@
+package com.socialwebapp.seed;
+
+import java.time.Instant;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Test fixture: loads a deterministic synthetic data set into any DataSource
+ * (H2 test context, or a real Postgres for plan/benchmark tests).
+ */
+public final class SyntheticDataFixture {
+
+    public static final Instant ANCHOR = Instant.parse("2026-01-01T00:00:00Z");
+
+    private SyntheticDataFixture() {
+    }
+
+    public static SeedProperties spec(long seed, int users, int posts) {
+        return new SeedProperties(seed, users, posts, 1.1, 1000, ANCHOR, 365, "Password123!");
+    }
+
+    public static SyntheticDataGenerator.Result load(DataSource dataSource, SeedProperties spec) {
+        // Low BCrypt cost: the hash is only there to satisfy NOT NULL.
+        var generator = new SyntheticDataGenerator(new JdbcTemplate(dataSource), new BCryptPasswordEncoder(4));
+        return generator.generate(spec);
+    }
+}
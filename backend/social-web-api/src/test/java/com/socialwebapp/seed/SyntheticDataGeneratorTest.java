@@ -0,0 +1,86 @@
+package com.socialwebapp.seed;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    void generate_loadsRequestedRows_withSkewedAuthors() {
+        var spec = SyntheticDataFixture.spec(7, 200, 3000);
+        var jdbc = new JdbcTemplate(dataSource);
+
+        var result = SyntheticDataFixture.load(dataSource, spec);
+
+        assertThat(result.users()).isEqualTo(200);
+        assertThat(result.posts()).isEqualTo(3000);
+        assertThat(jdbc.queryForObject(
+                "select count(*) from users where email like 'seed7-user%'", Integer.class)).isEqualTo(200);
+
+        List<Integer> perAuthor = jdbc.queryForList("""
+                select count(*) from feed_posts
+                where author_display_name like 'seed7-user%'
+                group by author_id
+                order by count(*) desc
+                """, Integer.class);
+
+        assertThat(perAuthor.stream().mapToInt(Integer::intValue).sum()).isEqualTo(3000);
+        // Zipf(1.1) over 200 authors: the top author alone owns well over 10% of posts.
+        assertThat(perAuthor.get(0)).isGreaterThan(300);
+        assertThat(perAuthor.get(perAuthor.size() / 2)).isLessThan(20);
+
+        Integer maxLength = jdbc.queryForObject(
+                "select max(length(content)) from feed_posts where author_display_name like 'seed7-user%'",
+                Integer.class);
+        assertThat(maxLength).isBetween(1, SyntheticDataGenerator.MAX_CONTENT_LENGTH);
+    }
+
+    @Test
+    void generate_twiceWithSameSeed_isRejected() {
+        var spec = SyntheticDataFixture.spec(8, 5, 10);
+        SyntheticDataFixture.load(dataSource, spec);
+
+        assertThatThrownBy(() -> SyntheticDataFixture.load(dataSource, spec))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already loaded");
+    }
+
+    @Test
+    void content_isDeterministicForSeed() {
+        var a = new SplittableRandom(99);
+        var b = new SplittableRandom(99);
+
+        for (int i = 0; i < 100; i++) {
+            String left = SyntheticDataGenerator.content(a);
+            assertThat(left).isEqualTo(SyntheticDataGenerator.content(b));
+            assertThat(left).isNotBlank().hasSizeLessThanOrEqualTo(SyntheticDataGenerator.MAX_CONTENT_LENGTH);
+        }
+    }
+
+    @Test
+    void zipfSampler_prefersLowRanks() {
+        var sampler = new ZipfSampler(1000, 1.0);
+        var random = new SplittableRandom(1);
+
+        int[] hits = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            hits[sampler.sample(random)]++;
+        }
+
+        assertThat(hits[0]).isGreaterThan(hits[9] * 5);
+        assertThat(hits[9]).isGreaterThan(hits[99] * 5);
+    }
+}
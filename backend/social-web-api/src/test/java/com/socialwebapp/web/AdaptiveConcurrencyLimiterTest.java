@@ -0,0 +1,110 @@
+package com.socialwebapp.web;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.web.AdaptiveConcurrencyLimiter.Priority;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void limitGrows_whileLatencyStaysAtBaseline_andShrinks_whenItClimbs() {
+        var limiter = limiter(20);
+
+        saturate(limiter, 200, 10 * MS);
+        int grown = limiter.limit();
+        assertThat(grown).isGreaterThan(20);
+
+        // Database slows down: same load, latency x4.
+        saturate(limiter, 200, 40 * MS);
+        assertThat(limiter.limit()).isLessThan(grown).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    void slowLogins_releasedWithoutSamples_doNotDragTheLimitDown() {
+        var limiter = limiter(20);
+
+        for (int i = 0; i < 200; i++) {
+            int at = limiter.limit();
+            nanos.addAndGet(MS);
+            if (i % 3 == 0) {
+                // A 300 ms BCrypt login: 30x the feed reads' latency.
+                limiter.tryAcquire(Priority.WRITE);
+                limiter.release();
+            } else {
+                limiter.tryAcquire(Priority.READ);
+                limiter.release(at, 10 * MS);
+            }
+        }
+
+        assertThat(limiter.limit()).isGreaterThan(20);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void onlySuccessfulRequestsOutsideAuth_areSampled() {
+        var ok = new MockHttpServletResponse();
+        var limited = new MockHttpServletResponse();
+        limited.setStatus(429);
+
+        assertThat(ConcurrencyLimitFilter.sampled(new MockHttpServletRequest("GET", "/api/feed"), ok)).isTrue();
+        assertThat(ConcurrencyLimitFilter.sampled(new MockHttpServletRequest("GET", "/api/feed"), limited)).isFalse();
+        assertThat(ConcurrencyLimitFilter.sampled(new MockHttpServletRequest("POST", "/api/auth/login"), ok)).isFalse();
+    }
+
+    @Test
+    void idleServer_doesNotGrowTheLimit() {
+        var limiter = limiter(20);
+
+        for (int i = 0; i < 200; i++) {
+            int at = limiter.tryAcquire(Priority.READ);
+            limiter.release(at, 10 * MS);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void writesAreShedBeforeReads() {
+        var limiter = limiter(20);
+
+        for (int i = 0; i < 15; i++) {
+            assertThat(limiter.tryAcquire(Priority.WRITE)).isPositive();
+        }
+        assertThat(limiter.tryAcquire(Priority.WRITE)).isEqualTo(-1);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(Priority.READ)).isPositive();
+        }
+        assertThat(limiter.tryAcquire(Priority.READ)).isEqualTo(-1);
+        assertThat(limiter.inFlight()).isEqualTo(20);
+    }
+
+    @Test
+    void authAndMutations_areWrites() {
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/api/feed"))).isEqualTo(Priority.READ);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("POST", "/api/feed"))).isEqualTo(Priority.WRITE);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/api/auth/me"))).isEqualTo(Priority.WRITE);
+    }
+
+    /** Keeps the limiter full: every sample sees as many requests in flight as the limit allows. */
+    private void saturate(AdaptiveConcurrencyLimiter limiter, int samples, long rtt) {
+        for (int i = 0; i < samples; i++) {
+            int at = limiter.limit();
+            nanos.addAndGet(MS);
+            limiter.release(at, rtt);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initial) {
+        return new AdaptiveConcurrencyLimiter(
+                new ConcurrencyLimitProperties(true, initial, 8, 400, 0.75, Duration.ofMinutes(10)), nanos::get);
+    }
+}
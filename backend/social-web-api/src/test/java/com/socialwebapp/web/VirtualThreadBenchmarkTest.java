@@ -0,0 +1,104 @@
+package com.socialwebapp.web;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.socialwebapp.db.BulkheadDataSource;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Platform vs virtual request threads for slow clients.
+ * Run with: mvn test -Dtest=VirtualThreadBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadBenchmarkTest {
+
+    private static final int REQUESTS = 5_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    private static final Duration CLIENT_TIME = Duration.ofMillis(200);
+
+    @Test
+    void slowClients_platformVsVirtualThreads() throws Exception {
+        var ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:bench_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        var jdbc = new JdbcTemplate(new BulkheadDataSource(ds, POOL_SIZE, Duration.ofSeconds(30)));
+
+        // Warm-up, so neither run pays for class loading / JIT alone.
+        run(Executors.newVirtualThreadPerTaskExecutor(), jdbc, 500);
+
+        Result platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS), jdbc, REQUESTS);
+        Result virtual = run(Executors.newVirtualThreadPerTaskExecutor(), jdbc, REQUESTS);
+
+        System.out.printf("%-9s %10s %10s %10s %10s %10s%n",
+                "threads", "req/s", "p50 ms", "p99 ms", "wall ms", "OS threads");
+        platform.print("platform");
+        virtual.print("virtual");
+
+        assertThat(virtual.throughput()).isGreaterThan(platform.throughput());
+        assertThat(virtual.peakPlatformThreads()).isLessThan(platform.peakPlatformThreads());
+    }
+
+    private static Result run(ExecutorService executor, JdbcTemplate jdbc, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        long[] begin = new long[1];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(requests);
+        var threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        try {
+            for (int i = 0; i < requests; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    jdbc.queryForObject("select count(*) from information_schema.tables", Long.class);
+                    Thread.sleep(CLIENT_TIME);
+                    latencies[n] = System.nanoTime() - begin[0];
+                    return null;
+                }));
+            }
+            begin[0] = System.nanoTime();
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(5, TimeUnit.MINUTES);
+            }
+            long wall = System.nanoTime() - begin[0];
+            Arrays.sort(latencies);
+            return new Result(requests, wall, latencies, threads.getPeakThreadCount());
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private record Result(int requests, long wallNanos, long[] sortedLatencies, int peakPlatformThreads) {
+
+        double throughput() {
+            return requests * 1e9 / wallNanos;
+        }
+
+        // All clients arrive at once; latency includes waiting for a thread and for a permit.
+        void print(String name) {
+            System.out.printf("%-9s %10.0f %10.1f %10.1f %10d %10d%n", name, throughput(),
+                    percentile(0.50) / 1e6, percentile(0.99) / 1e6, wallNanos / 1_000_000, peakPlatformThreads);
+        }
+
+        private long percentile(double p) {
+            return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, p * sortedLatencies.length)];
+        }
+    }
+}
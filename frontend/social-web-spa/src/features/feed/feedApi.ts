@@ -1,8 +1,19 @@
-import type { FeedResponse } from "./feedTypes";
+import type {
+  CommentPageResponse,
+  FeedChangesResponse,
+  FeedComment,
+  FeedItemId,
+  FeedResponse,
+  FeedSearchResponse,
+  ReactionKind,
+  ReactionsResponse,
+} from "./feedTypes";
 import { HttpError, requestJson } from "../../lib/http";
 
 export const FEED_ENDPOINT = "/api/feed";
 export const FEED_WALL_ENDPOINT = "/api/feed/user";
+export const FEED_CHANGES_ENDPOINT = "/api/feed/changes";
+export const FEED_SEARCH_ENDPOINT = "/api/feed/search";
 
 export class UnauthorizedError extends Error {
   readonly status: number;
@@ -35,6 +46,18 @@ type FetchWallParams = {
   limit: number;
 };
 
+type FetchChangesParams = {
+  // Omit to get only the current watermark.
+  since?: string;
+  limit?: number;
+};
+
+type SearchFeedParams = {
+  q: string;
+  cursor?: string | null;
+  limit?: number;
+};
+
 type CreatePostRequest = {
   content: string;
 };
@@ -91,6 +114,40 @@ export async function fetchWall(params: FetchWallParams): Promise<FeedResponse>
   }
 }
 
+export async function fetchFeedChanges(
+  params: FetchChangesParams = {}
+): Promise<FeedChangesResponse> {
+  const qs = new URLSearchParams();
+  if (params.since !== undefined) qs.set("since", params.since);
+  if (params.limit !== undefined) qs.set("limit", String(params.limit));
+
+  const query = qs.toString();
+
+  try {
+    return await requestJson<FeedChangesResponse>({
+      method: "GET",
+      path: query ? `${FEED_CHANGES_ENDPOINT}?${query}` : FEED_CHANGES_ENDPOINT,
+    });
+  } catch (err) {
+    mapHttpError(err);
+  }
+}
+
+export async function searchFeed(params: SearchFeedParams): Promise<FeedSearchResponse> {
+  const qs = new URLSearchParams({ q: params.q.trim() });
+  if (params.cursor) qs.set("cursor", params.cursor);
+  if (params.limit !== undefined) qs.set("limit", String(params.limit));
+
+  try {
+    return await requestJson<FeedSearchResponse>({
+      method: "GET",
+      path: `${FEED_SEARCH_ENDPOINT}?${qs.toString()}`,
+    });
+  } catch (err) {
+    mapHttpError(err);
+  }
+}
+
 export async function createPost(content: string): Promise<void> {
   const payload: CreatePostRequest = { content };
 
@@ -103,4 +160,62 @@ export async function createPost(content: string): Promise<void> {
   } catch (err) {
     mapHttpError(err);
   }
-}
\ No newline at end of file
+}
+export async function reactToPost(postId: FeedItemId, kind: ReactionKind): Promise<ReactionsResponse> {
+  try {
+    return await requestJson<ReactionsResponse>({
+      method: "PUT",
+      path: `${FEED_ENDPOINT}/${encodeURIComponent(postId)}/reactions`,
+      body: { kind },
+    });
+  } catch (err) {
+    mapHttpError(err);
+  }
+}
+
+export async function removeReaction(postId: FeedItemId): Promise<void> {
+  try {
+    await requestJson<unknown>({
+      method: "DELETE",
+      path: `${FEED_ENDPOINT}/${encodeURIComponent(postId)}/reactions`,
+    });
+  } catch (err) {
+    mapHttpError(err);
+  }
+}
+
+export type FetchCommentsParams = {
+  postId: FeedItemId;
+  cursor?: string;
+  limit?: number;
+};
+
+export async function fetchComments(params: FetchCommentsParams): Promise<CommentPageResponse> {
+  const qs = new URLSearchParams();
+  if (params.cursor) qs.set("cursor", params.cursor);
+  if (params.limit !== undefined) qs.set("limit", String(params.limit));
+
+  const base = `${FEED_ENDPOINT}/${encodeURIComponent(params.postId)}/comments`;
+  const query = qs.toString();
+
+  try {
+    return await requestJson<CommentPageResponse>({
+      method: "GET",
+      path: query ? `${base}?${query}` : base,
+    });
+  } catch (err) {
+    mapHttpError(err);
+  }
+}
+
+export async function addComment(postId: FeedItemId, content: string): Promise<FeedComment> {
+  try {
+    return await requestJson<FeedComment>({
+      method: "POST",
+      path: `${FEED_ENDPOINT}/${encodeURIComponent(postId)}/comments`,
+      body: { content },
+    });
+  } catch (err) {
+    mapHttpError(err);
+  }
+}
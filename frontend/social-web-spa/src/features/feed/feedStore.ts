@@ -1,5 +1,11 @@
-import { createPost, fetchFeed, NotImplementedError, UnauthorizedError } from "./feedApi";
-import type { FeedResponse, FeedItem, PageInfo } from "./feedTypes";
+import {
+  createPost,
+  fetchFeed,
+  fetchFeedChanges,
+  NotImplementedError,
+  UnauthorizedError,
+} from "./feedApi";
+import type { FeedChange, FeedResponse, FeedItem, PageInfo } from "./feedTypes";
 
 export type ViewState =
   | { kind: "loading" }
@@ -40,10 +46,43 @@ function normalizeFeedResponse(raw: unknown): FeedResponse {
   return { items, pageInfo };
 }
 
+// Applies delta-sync changes to the loaded items. New posts go on top; updates and
+// deletes of older posts only touch posts that are already loaded (older pages come
+// via loadMore). A post created and then edited between two polls arrives as an
+// "update", so an unknown post newer than the oldest loaded one counts as new.
+function applyChanges(items: FeedItem[], changes: FeedChange[]): FeedItem[] {
+  const byId = new Map(items.map((item) => [item.id, item]));
+  const inserted = new Map<string, FeedItem>();
+  const oldest = items.length > 0 ? items[items.length - 1].createdAt : "";
+
+  for (const change of changes) {
+    if (change.op === "delete" || !change.item) {
+      byId.delete(change.id);
+      inserted.delete(change.id);
+    } else if (byId.has(change.id)) {
+      byId.set(change.id, change.item);
+    } else if (
+      change.op === "insert" ||
+      inserted.has(change.id) ||
+      change.item.createdAt.localeCompare(oldest) > 0
+    ) {
+      inserted.set(change.id, change.item);
+    }
+  }
+
+  const kept = items.filter((item) => byId.has(item.id)).map((item) => byId.get(item.id)!);
+  const fresh = [...inserted.values()].sort((a, b) =>
+    b.createdAt.localeCompare(a.createdAt),
+  );
+  return [...fresh, ...kept];
+}
+
 function createFeedStore(): FeedStore {
   let state: ViewState = { kind: "loading" };
   const listeners = new Set<() => void>();
   let inFlight = false;
+  // Delta-sync position; null when the backend has no /changes (full reloads only).
+  let watermark: string | null = null;
 
   const emit = () => {
     for (const l of listeners) l();
@@ -59,6 +98,11 @@ function createFeedStore(): FeedStore {
     inFlight = true;
 
     try {
+      // Taken before the page so no change between the two requests is missed.
+      watermark = await fetchFeedChanges()
+        .then((res) => res.watermark)
+        .catch(() => null);
+
       const raw = await fetchFeed({ page: 1, limit: 10 });
       const data = normalizeFeedResponse(raw);
 
@@ -141,18 +185,60 @@ function createFeedStore(): FeedStore {
     }
   };
 
-  const refresh = () => {
+  const reload = () => {
     set({ kind: "loading" });
     void loadFirstPage();
   };
 
+  // Fetches only what changed since the last load/sync; falls back to a full reload.
+  const syncChanges = async () => {
+    if (inFlight) return;
+    if (state.kind !== "ready" || watermark === null) {
+      reload();
+      return;
+    }
+
+    inFlight = true;
+    let needsReload = false;
+    try {
+      let since: string = watermark;
+      let items = state.data.items;
+      let hasMore = true;
+
+      while (hasMore) {
+        const res = await fetchFeedChanges({ since, limit: 100 });
+        if (res.resyncRequired) {
+          needsReload = true;
+          return;
+        }
+        items = applyChanges(items, res.changes);
+        since = res.watermark;
+        hasMore = res.hasMore;
+      }
+
+      watermark = since;
+      if (state.kind === "ready") {
+        set({ ...state, data: { ...state.data, items } });
+      }
+    } catch {
+      needsReload = true;
+    } finally {
+      inFlight = false;
+      if (needsReload) reload();
+    }
+  };
+
+  const refresh = () => {
+    void syncChanges();
+  };
+
     const createPostAndRefresh = async (content: string) => {
     const clean = content.trim();
     if (!clean) return;
 
     try {
       await createPost(clean);
-      refresh();
+      await syncChanges();
     } catch (e) {
       if (e instanceof UnauthorizedError) {
         set({
@@ -176,7 +262,7 @@ function createFeedStore(): FeedStore {
     }
   };
 
-  refresh();
+  reload();
 
     return {
     getSnapshot: () => state,
@@ -17,9 +17,26 @@ export type FeedItemBase = {
     author: FeedAuthor;
 };
 
+export type ReactionKind = "like" | "love" | "laugh" | "wow" | "sad" | "angry";
+
+/** Reaction kind to count; kinds nobody used are left out. */
+export type ReactionCounts = Partial<Record<ReactionKind, number>>;
+
+export type FeedComment = {
+    id: string;
+    postId: FeedItemId;
+    createdAt: string;
+    author: FeedAuthor;
+    content: string;
+};
+
 export type FeedPost = FeedItemBase & {
     kind: "post";
     content: string;
+    reactions: ReactionCounts;
+    commentCount: number;
+    /** Newest first, at most two; page the rest with fetchComments. */
+    latestComments: FeedComment[];
 };
 
 export type FeedItem = FeedPost;
@@ -27,4 +44,41 @@ export type FeedItem = FeedPost;
 export type FeedResponse = {
     items: FeedItem[];
     pageInfo: PageInfo;
-};
\ No newline at end of file
+};
+
+export type FeedChange = {
+    op: "insert" | "update" | "delete";
+    seq: number;
+    id: FeedItemId;
+    updatedAt: string;
+    item: FeedItem | null;
+};
+
+export type FeedChangesResponse = {
+    changes: FeedChange[];
+    watermark: string;
+    hasMore: boolean;
+    resyncRequired: boolean;
+};
+
+export type FeedSearchItem = {
+    item: FeedItem;
+    // HTML-escaped post text; matches are wrapped in <mark>.
+    snippet: string;
+};
+
+export type FeedSearchResponse = {
+    items: FeedSearchItem[];
+    nextCursor: string | null;
+};
+
+export type ReactionsResponse = {
+    postId: FeedItemId;
+    counts: ReactionCounts;
+    mine: ReactionKind | null;
+};
+
+export type CommentPageResponse = {
+    items: FeedComment[];
+    nextCursor: string | null;
+};